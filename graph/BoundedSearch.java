@@ -0,0 +1,137 @@
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.PriorityQueue;
+
+/** Searches from a single source that stop at a bound (a distance, a
+ *  number of vertices, or a number of edges), for finding what is near
+ *  the source.  Their cost is proportional to the part of the graph
+ *  they reach, not to the size of the graph: all per-vertex bookkeeping
+ *  is kept in hash maps rather than arrays covering every index.
+ *  @author Conrad Shiao
+ */
+final class BoundedSearch {
+
+    /** Returns the vertices of G whose distance from SOURCE, according
+     *  to the non-negative edge weighter EWEIGHTER, is at most RADIUS,
+     *  mapped to those distances in order of increasing distance, but
+     *  no more than LIMIT of them (the nearest, ties broken
+     *  arbitrarily). */
+    static <VLabel, ELabel>
+    LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Double>
+    dijkstra(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex source,
+             Weighting<? super ELabel> eweighter, double radius, int limit) {
+        LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Double> result =
+            new LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Double>();
+        HashMap<Graph<VLabel, ELabel>.Vertex, Double> tentative =
+            new HashMap<Graph<VLabel, ELabel>.Vertex, Double>();
+        PriorityQueue<Entry<Graph<VLabel, ELabel>.Vertex>> queue =
+            new PriorityQueue<Entry<Graph<VLabel, ELabel>.Vertex>>(
+                11, Entry.<Graph<VLabel, ELabel>.Vertex>order());
+        EdgeCursor<VLabel, ELabel> cursor = G.outCursor();
+        SearchEvent event = Graphs.startSearch();
+        boolean instrumented = event != null;
+        long startTime = instrumented ? System.nanoTime() : 0;
+        long relaxed = 0, pushes = 0;
+        if (radius >= 0 && limit > 0) {
+            tentative.put(source, 0.0);
+            queue.add(new Entry<Graph<VLabel, ELabel>.Vertex>(source, 0.0));
+            pushes += 1;
+        }
+        while (!queue.isEmpty() && result.size() < limit) {
+            Entry<Graph<VLabel, ELabel>.Vertex> entry = queue.poll();
+            Graph<VLabel, ELabel>.Vertex v = entry._item;
+            if (result.containsKey(v) || entry._dist > tentative.get(v)) {
+                continue;
+            }
+            result.put(v, entry._dist);
+            cursor.reset(v);
+            while (cursor.next()) {
+                relaxed += 1;
+                Graph<VLabel, ELabel>.Vertex w = cursor.targetVertex();
+                double dist = entry._dist + eweighter.weight(cursor.label());
+                Double old = tentative.get(w);
+                if (dist <= radius && (old == null || dist < old)
+                    && !result.containsKey(w)) {
+                    tentative.put(w, dist);
+                    queue.add(new Entry<Graph<VLabel, ELabel>.Vertex>(w,
+                                                                      dist));
+                    pushes += 1;
+                }
+            }
+        }
+        if (instrumented) {
+            Graphs.report(event, new SearchStats("boundedSearch",
+                                                 System.nanoTime() - startTime,
+                                                 result.size(), relaxed,
+                                                 pushes, 0, 0));
+        }
+        return result;
+    }
+
+    /** Returns the vertices of G reachable from SOURCE by paths of at
+     *  most HOPS edges, mapped to the number of edges on their shortest
+     *  such paths, in order of increasing number. */
+    static <VLabel, ELabel>
+    LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Integer>
+    breadthFirst(Graph<VLabel, ELabel> G,
+                 Graph<VLabel, ELabel>.Vertex source, int hops) {
+        LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Integer> result =
+            new LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Integer>();
+        ArrayDeque<Graph<VLabel, ELabel>.Vertex> fringe =
+            new ArrayDeque<Graph<VLabel, ELabel>.Vertex>();
+        EdgeCursor<VLabel, ELabel> cursor = G.outCursor();
+        if (hops >= 0) {
+            result.put(source, 0);
+            fringe.add(source);
+        }
+        while (!fringe.isEmpty()) {
+            Graph<VLabel, ELabel>.Vertex v = fringe.remove();
+            int depth = result.get(v);
+            if (depth == hops) {
+                continue;
+            }
+            cursor.reset(v);
+            while (cursor.next()) {
+                Graph<VLabel, ELabel>.Vertex w = cursor.targetVertex();
+                if (!result.containsKey(w)) {
+                    result.put(w, depth + 1);
+                    fringe.add(w);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** An item in a priority queue, at a given distance.  Distances in
+     *  the queue are never lowered: a shorter distance for the same item
+     *  is a new entry, and the old one is skipped when it surfaces. */
+    private static final class Entry<Item> {
+
+        /** An entry for ITEM at distance DIST. */
+        Entry(Item item, double dist) {
+            _item = item;
+            _dist = dist;
+        }
+
+        /** Returns the order of entries by increasing distance. */
+        static <Item> Comparator<Entry<Item>> order() {
+            return new Comparator<Entry<Item>>() {
+                @Override
+                public int compare(Entry<Item> x, Entry<Item> y) {
+                    return Double.compare(x._dist, y._dist);
+                }
+            };
+        }
+
+        /** The item. */
+        private final Item _item;
+
+        /** Its distance. */
+        private final double _dist;
+    }
+
+}
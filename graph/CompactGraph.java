@@ -0,0 +1,231 @@
+package graph;
+
+import java.util.Arrays;
+
+/** A read-only snapshot of the structure of a Graph in compressed sparse
+ *  row form: vertices are identified by their indices in the graph, and
+ *  the edges leaving (and, optionally, entering) each vertex occupy a
+ *  contiguous range of "slots" in flat int arrays.  Algorithms that make
+ *  many passes over a graph, or run several threads over it, pay once to
+ *  build one of these and then touch nothing but primitive arrays.  The
+ *  snapshot is built through the graph's public methods only, so it
+ *  works for any kind of Graph, and it does not change if the graph
+ *  later does.
+ *  @author Conrad Shiao
+ */
+final class CompactGraph<VLabel, ELabel> {
+
+    /** A snapshot of G's outgoing adjacency, and also of its incoming
+     *  adjacency iff INCOMING. */
+    CompactGraph(Graph<VLabel, ELabel> G, boolean incoming) {
+        _graph = G;
+        _size = G.indexLimit();
+        _vertices = new Object[_size];
+        for (int v = 0; v < _size; v += 1) {
+            _vertices[v] = G.vertex(v);
+        }
+        Builder out = new Builder(_size, G.edgeSize());
+        for (int v = 0; v < _size; v += 1) {
+            if (_vertices[v] != null) {
+                for (Graph<VLabel, ELabel>.Edge e : G.outEdges(vertex(v))) {
+                    out.add(v, G.index(e.getV(vertex(v))), e);
+                }
+            }
+            out.end(v);
+        }
+        _outStart = out._start;
+        _outTarget = out.targets();
+        _outEdge = out.edges();
+        if (incoming) {
+            Builder in = new Builder(_size, G.edgeSize());
+            for (int v = 0; v < _size; v += 1) {
+                if (_vertices[v] != null) {
+                    for (Graph<VLabel, ELabel>.Edge e
+                             : G.inEdges(vertex(v))) {
+                        in.add(v, G.index(e.getV(vertex(v))), e);
+                    }
+                }
+                in.end(v);
+            }
+            _inStart = in._start;
+            _inSource = in.targets();
+            _inEdge = in.edges();
+        } else {
+            _inStart = _inSource = null;
+            _inEdge = null;
+        }
+    }
+
+    /** Returns the graph I am a snapshot of. */
+    Graph<VLabel, ELabel> graph() {
+        return _graph;
+    }
+
+    /** Returns the bound on vertex indices (the graph's indexLimit()). */
+    int size() {
+        return _size;
+    }
+
+    /** Returns true iff some vertex has index V. */
+    boolean present(int v) {
+        return _vertices[v] != null;
+    }
+
+    /** Returns the vertex with index V, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    Graph<VLabel, ELabel>.Vertex vertex(int v) {
+        return (Graph<VLabel, ELabel>.Vertex) _vertices[v];
+    }
+
+    /** Returns the out-slot boundaries: the edges leaving vertex v occupy
+     *  slots outStart()[v] .. outStart()[v+1]-1. */
+    int[] outStart() {
+        return _outStart;
+    }
+
+    /** Returns the index of the vertex at the other end of each
+     *  out-slot. */
+    int[] outTarget() {
+        return _outTarget;
+    }
+
+    /** Returns the edge in out-slot S. */
+    @SuppressWarnings("unchecked")
+    Graph<VLabel, ELabel>.Edge outEdge(int s) {
+        return (Graph<VLabel, ELabel>.Edge) _outEdge[s];
+    }
+
+    /** Returns the in-slot boundaries, as for outStart(), or null if this
+     *  snapshot has no incoming adjacency. */
+    int[] inStart() {
+        return _inStart;
+    }
+
+    /** Returns the index of the vertex at the other end of each in-slot,
+     *  or null if this snapshot has no incoming adjacency. */
+    int[] inSource() {
+        return _inSource;
+    }
+
+    /** Returns the edge in in-slot S. */
+    @SuppressWarnings("unchecked")
+    Graph<VLabel, ELabel>.Edge inEdge(int s) {
+        return (Graph<VLabel, ELabel>.Edge) _inEdge[s];
+    }
+
+    /** Returns the weights of the edges in the out-slots, according to
+     *  EWEIGHTER. */
+    double[] outWeights(Weighting<? super ELabel> eweighter) {
+        double[] weights = new double[_outTarget.length];
+        for (int s = 0; s < weights.length; s += 1) {
+            weights[s] = eweighter.weight(outEdge(s).getLabel());
+        }
+        return weights;
+    }
+
+    /** Returns the weights of the edges in the in-slots, according to
+     *  EWEIGHTER. */
+    double[] inWeights(Weighting<? super ELabel> eweighter) {
+        double[] weights = new double[_inSource.length];
+        for (int s = 0; s < weights.length; s += 1) {
+            weights[s] = eweighter.weight(inEdge(s).getLabel());
+        }
+        return weights;
+    }
+
+    /** Returns the indices of the vertices in topological order (every
+     *  out-slot leads from a vertex to one later in the order), found by
+     *  Kahn's algorithm in time linear in the size of the snapshot, or
+     *  null if the outgoing adjacency has a cycle. */
+    int[] topologicalOrder() {
+        int[] pending = new int[_size];
+        for (int t : _outTarget) {
+            pending[t] += 1;
+        }
+        int[] order = new int[_size];
+        int tail = 0;
+        for (int v = 0; v < _size; v += 1) {
+            if (_vertices[v] != null && pending[v] == 0) {
+                order[tail] = v;
+                tail += 1;
+            }
+        }
+        for (int head = 0; head < tail; head += 1) {
+            int v = order[head];
+            for (int s = _outStart[v]; s < _outStart[v + 1]; s += 1) {
+                int w = _outTarget[s];
+                pending[w] -= 1;
+                if (pending[w] == 0) {
+                    order[tail] = w;
+                    tail += 1;
+                }
+            }
+        }
+        return tail == _graph.vertexSize() ? Arrays.copyOf(order, tail)
+            : null;
+    }
+
+    /** Accumulates one direction of adjacency, vertex by vertex in
+     *  index order. */
+    private static class Builder {
+
+        /** A builder for N vertices and about M edges. */
+        Builder(int n, int m) {
+            _start = new int[n + 1];
+            _targets = new int[Math.max(m, 1)];
+            _edges = new Object[_targets.length];
+        }
+
+        /** Add slot for edge E from V (the current vertex) to the vertex
+         *  with index W. */
+        void add(int v, int w, Object e) {
+            if (_count == _targets.length) {
+                _targets = Arrays.copyOf(_targets, 2 * _count);
+                _edges = Arrays.copyOf(_edges, 2 * _count);
+            }
+            _targets[_count] = w;
+            _edges[_count] = e;
+            _count += 1;
+        }
+
+        /** Finish the slots for vertex V. */
+        void end(int v) {
+            _start[v + 1] = _count;
+        }
+
+        /** Returns the final array of slot targets. */
+        int[] targets() {
+            return Arrays.copyOf(_targets, _count);
+        }
+
+        /** Returns the final array of slot edges. */
+        Object[] edges() {
+            return Arrays.copyOf(_edges, _count);
+        }
+
+        /** Slot boundaries. */
+        private final int[] _start;
+        /** Slot targets and edges so far. */
+        private int[] _targets;
+        /** Slot edges so far. */
+        private Object[] _edges;
+        /** Number of slots so far. */
+        private int _count;
+    }
+
+    /** The graph I was built from. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** Bound on vertex indices. */
+    private final int _size;
+    /** The vertices, by index (null for unused indices). */
+    private final Object[] _vertices;
+    /** Outgoing adjacency. */
+    private final int[] _outStart, _outTarget;
+    /** Outgoing edges, by slot. */
+    private final Object[] _outEdge;
+    /** Incoming adjacency, or null. */
+    private final int[] _inStart, _inSource;
+    /** Incoming edges, by slot, or null. */
+    private final Object[] _inEdge;
+
+}
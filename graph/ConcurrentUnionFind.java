@@ -0,0 +1,61 @@
+package graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/** A partition of the integers 0 .. N-1 into disjoint sets that any
+ *  number of threads may update at once without locking.  Each set is a
+ *  tree of parent links whose root is its lowest member; union links
+ *  the higher of two roots to the lower with a compare-and-set, retrying
+ *  if another thread got there first, and find halves the paths it
+ *  follows, also by compare-and-set.
+ *  @author Conrad Shiao
+ */
+class ConcurrentUnionFind {
+
+    /** A partition of 0 .. N-1 into N singleton sets. */
+    ConcurrentUnionFind(int n) {
+        _parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i += 1) {
+            _parent.set(i, i);
+        }
+    }
+
+    /** Returns the representative (least member) of the set containing
+     *  X.  If other threads are merging sets at the same time, this is
+     *  the representative at some moment during the call. */
+    int find(int x) {
+        while (true) {
+            int p = _parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int gp = _parent.get(p);
+            if (gp != p) {
+                _parent.compareAndSet(x, p, gp);
+            }
+            x = gp;
+        }
+    }
+
+    /** Merge the sets containing X and Y.  Returns true iff this call
+     *  merged two different sets. */
+    boolean union(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) {
+                return false;
+            } else if (x < y) {
+                if (_parent.compareAndSet(y, y, x)) {
+                    return true;
+                }
+            } else if (_parent.compareAndSet(x, x, y)) {
+                return true;
+            }
+        }
+    }
+
+    /** Parent links: element x is x iff x represents its set. */
+    private final AtomicIntegerArray _parent;
+
+}
@@ -0,0 +1,111 @@
+package graph;
+
+import java.util.Arrays;
+
+/** The connected components of a graph, ignoring edge directions (for a
+ *  directed graph, its weakly connected components), numbered 0 ..
+ *  count()-1.  Produced by Graphs.connectedComponents and
+ *  IncrementalComponents.
+ *  @author Conrad Shiao
+ */
+public final class ConnectedComponents<VLabel, ELabel> {
+
+    /** The components of G, where the component of the vertex with index
+     *  v is COMPONENT[v], and there are COUNT components. */
+    ConnectedComponents(Graph<VLabel, ELabel> G, int[] component,
+                        int count) {
+        _graph = G;
+        _component = component;
+        _count = count;
+    }
+
+    /** Returns the number of components. */
+    public int count() {
+        return _count;
+    }
+
+    /** Returns the number of the component containing V. */
+    public int component(Graph<VLabel, ELabel>.Vertex v) {
+        return _component[_graph.index(v)];
+    }
+
+    /** Returns true iff U and V are in the same component. */
+    public boolean connected(Graph<VLabel, ELabel>.Vertex u,
+                             Graph<VLabel, ELabel>.Vertex v) {
+        return component(u) == component(v);
+    }
+
+    /** Returns the component numbers of all vertices: element k is the
+     *  component of the vertex whose index (see Graph.index) is k, or -1
+     *  if there is no such vertex.  Indices refer to the graph as it was
+     *  when the components were computed. */
+    public int[] componentIds() {
+        return _component.clone();
+    }
+
+    /** Returns the connected components of G, found by uniting the end
+     *  points of the edges of G in a concurrent union-find structure,
+     *  THREADS chunks of edges at a time. */
+    static <VLabel, ELabel> ConnectedComponents<VLabel, ELabel>
+    find(final Graph<VLabel, ELabel> G, int threads) {
+        final int n = G.indexLimit(), m = G.edgeSize();
+        final int[] from = new int[m], to = new int[m];
+        int k = 0;
+        for (Graph<VLabel, ELabel>.Edge e : G.edges()) {
+            from[k] = G.index(e.getV0());
+            to[k] = G.index(e.getV1());
+            k += 1;
+        }
+        final ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        Parallel.forRange(k, threads, new Parallel.Body() {
+            @Override
+            public void run(int lo, int hi) {
+                for (int e = lo; e < hi; e += 1) {
+                    sets.union(from[e], to[e]);
+                }
+            }
+        });
+        final int[] component = new int[n];
+        Parallel.forRange(n, threads, new Parallel.Body() {
+            @Override
+            public void run(int lo, int hi) {
+                for (int v = lo; v < hi; v += 1) {
+                    component[v] = G.vertex(v) == null ? -1 : sets.find(v);
+                }
+            }
+        });
+        return number(G, component);
+    }
+
+    /** Returns the components of G given the representative of the
+     *  component of each vertex index in REPRESENTATIVE (-1 for an index
+     *  with no vertex), which is renumbered in place.  A representative
+     *  is always the lowest index in its component. */
+    static <VLabel, ELabel> ConnectedComponents<VLabel, ELabel>
+    number(Graph<VLabel, ELabel> G, int[] representative) {
+        int n = representative.length;
+        int[] number = new int[n];
+        Arrays.fill(number, -1);
+        int count = 0;
+        for (int v = 0; v < n; v += 1) {
+            if (representative[v] >= 0) {
+                int r = representative[v];
+                if (number[r] < 0) {
+                    number[r] = count;
+                    count += 1;
+                }
+                representative[v] = number[r];
+            }
+        }
+        return new ConnectedComponents<VLabel, ELabel>(G, representative,
+                                                       count);
+    }
+
+    /** The graph whose components these are. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** Component numbers, by vertex index. */
+    private final int[] _component;
+    /** Number of components. */
+    private final int _count;
+
+}
@@ -0,0 +1,67 @@
+package graph;
+
+import java.util.Arrays;
+
+/** A count of how many vertices of a graph have each degree, kept up to
+ *  date one degree change at a time so that the distribution and the
+ *  maximum degree never need a scan of the graph.
+ *  @author Conrad Shiao
+ */
+class DegreeHistogram {
+
+    /** Record a new vertex of degree 0. */
+    void add() {
+        _counts[0] += 1;
+    }
+
+    /** Forget a vertex of degree DEGREE. */
+    void remove(int degree) {
+        _counts[degree] -= 1;
+        lowerMax();
+    }
+
+    /** Record that a vertex of degree FROM now has degree TO. */
+    void move(int from, int to) {
+        if (to >= _counts.length) {
+            _counts = Arrays.copyOf(_counts,
+                                    Math.max(to + 1, 2 * _counts.length));
+        }
+        _counts[from] -= 1;
+        _counts[to] += 1;
+        if (to > _max) {
+            _max = to;
+        } else {
+            lowerMax();
+        }
+    }
+
+    /** Returns the largest degree of any vertex, or 0 if there are none. */
+    int max() {
+        return _max;
+    }
+
+    /** Returns the number of vertices with degree DEGREE. */
+    int count(int degree) {
+        return degree < _counts.length ? _counts[degree] : 0;
+    }
+
+    /** Returns a fresh array whose element k is the number of vertices of
+     *  degree k, for k from 0 to max(). */
+    int[] toArray() {
+        return Arrays.copyOf(_counts, _max + 1);
+    }
+
+    /** Brings _max down past degrees that no vertex has any more. */
+    private void lowerMax() {
+        while (_max > 0 && _counts[_max] == 0) {
+            _max -= 1;
+        }
+    }
+
+    /** Element k is the number of vertices of degree k. */
+    private int[] _counts = new int[8];
+
+    /** The largest k for which _counts[k] is non-zero (or 0). */
+    private int _max;
+
+}
@@ -0,0 +1,380 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** The weights of shortest paths between all pairs of vertices of a
+ *  graph, with enough information to recover the paths themselves.
+ *  Produced by Graphs.allPairsShortestPaths, Graphs.johnson, and
+ *  Graphs.floydWarshall.  Takes space proportional to the square of the
+ *  number of vertices, so that graphs whose indexLimit() exceeds 46340
+ *  are refused with an IllegalArgumentException; Graphs.distanceTable
+ *  gives just the weights between two lists of vertices, in space
+ *  proportional to their product.
+ *  @author Conrad Shiao
+ */
+public final class DistanceMatrix<VLabel, ELabel> {
+
+    /** The shortest paths of the graph of COMPACT, where the path from
+     *  the vertex with index i to that with index j has weight
+     *  DIST[i * N + j] and ends with the edge in out-slot
+     *  LAST[i * N + j] of COMPACT (-1 if there is no such edge), N being
+     *  COMPACT.size(). */
+    private DistanceMatrix(CompactGraph<VLabel, ELabel> compact,
+                           double[] dist, int[] last) {
+        _compact = compact;
+        _graph = compact.graph();
+        _n = compact.size();
+        _dist = dist;
+        _last = last;
+    }
+
+    /** Returns the weight of a shortest path from U to V, or
+     *  Double.POSITIVE_INFINITY if there is none. */
+    public double distance(Graph<VLabel, ELabel>.Vertex u,
+                           Graph<VLabel, ELabel>.Vertex v) {
+        return _dist[cell(u, v)];
+    }
+
+    /** Returns true iff there is a path from U to V. */
+    public boolean reachable(Graph<VLabel, ELabel>.Vertex u,
+                             Graph<VLabel, ELabel>.Vertex v) {
+        return distance(u, v) != Double.POSITIVE_INFINITY;
+    }
+
+    /** Returns the edges of a shortest path from U to V, in order, or
+     *  null if there is none. */
+    public List<Graph<VLabel, ELabel>.Edge> path(
+        Graph<VLabel, ELabel>.Vertex u, Graph<VLabel, ELabel>.Vertex v) {
+        if (!reachable(u, v)) {
+            return null;
+        }
+        List<Graph<VLabel, ELabel>.Edge> path =
+            new ArrayList<Graph<VLabel, ELabel>.Edge>();
+        while (v != u) {
+            Graph<VLabel, ELabel>.Edge e =
+                _compact.outEdge(_last[cell(u, v)]);
+            path.add(e);
+            v = e.getV(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Returns the position in my matrices of the path from U to V.
+     *  Throws IllegalArgumentException if either was added to the graph
+     *  after I was computed. */
+    private int cell(Graph<VLabel, ELabel>.Vertex u,
+                     Graph<VLabel, ELabel>.Vertex v) {
+        int i = _graph.index(u), j = _graph.index(v);
+        if (i >= _n || j >= _n) {
+            throw new IllegalArgumentException("vertex is newer than the "
+                                               + "distance matrix");
+        }
+        return i * _n + j;
+    }
+
+    /** Returns the distances as a flat array: element i * N + j, where N
+     *  is the graph's indexLimit() when the distances were computed, is
+     *  the distance from the vertex with index i to that with index j. */
+    public double[] distances() {
+        return _dist.clone();
+    }
+
+    /** Returns the shortest paths between all pairs of vertices of G,
+     *  whose edges are weighted by EWEIGHTER, by Johnson's algorithm:
+     *  the Bellman-Ford algorithm finds a potential for each vertex that
+     *  makes all weights non-negative, and then Dijkstra's algorithm
+     *  runs from every vertex, using THREADS threads.  Returns null if
+     *  G has a cycle of negative weight. */
+    static <VLabel, ELabel> DistanceMatrix<VLabel, ELabel>
+    johnson(Graph<VLabel, ELabel> G, Weighting<? super ELabel> eweighter,
+            int threads) {
+        final CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        final int n = compact.size();
+        final int cells = cells(n, n);
+        final int[] start = compact.outStart(), target = compact.outTarget();
+        final double[] weight = compact.outWeights(eweighter);
+        final double[] h = potentials(compact, weight);
+        if (h == null) {
+            return null;
+        }
+        final double[] reduced = new double[weight.length];
+        for (int v = 0; v < n; v += 1) {
+            for (int s = start[v]; s < start[v + 1]; s += 1) {
+                reduced[s] = Math.max(0.0, weight[s] + h[v] - h[target[s]]);
+            }
+        }
+        final double[] dist = new double[cells];
+        final int[] last = new int[cells];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(last, -1);
+        Parallel.forRange(n, threads, new Parallel.Body() {
+            @Override
+            public void run(int lo, int hi) {
+                IndexedHeap heap = new IndexedHeap(n);
+                double[] d = new double[n];
+                for (int source = lo; source < hi; source += 1) {
+                    if (!compact.present(source)) {
+                        continue;
+                    }
+                    int row = source * n;
+                    Arrays.fill(d, Double.POSITIVE_INFINITY);
+                    d[source] = 0.0;
+                    heap.push(source, 0.0);
+                    while (!heap.isEmpty()) {
+                        int v = heap.pop();
+                        dist[row + v] = d[v] - h[source] + h[v];
+                        for (int s = start[v]; s < start[v + 1]; s += 1) {
+                            int w = target[s];
+                            double dw = d[v] + reduced[s];
+                            if (dw < d[w]) {
+                                d[w] = dw;
+                                last[row + w] = s;
+                                heap.push(w, dw);
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return new DistanceMatrix<VLabel, ELabel>(compact, dist, last);
+    }
+
+    /** Returns the weights of shortest paths in G, whose edges have the
+     *  non-negative weights given by EWEIGHTER, from each of SOURCES to
+     *  each of TARGETS, as a flat array whose element i * M + j, M being
+     *  TARGETS.size(), is the weight from source i to target j
+     *  (Double.POSITIVE_INFINITY if there is no path).  Runs Dijkstra's
+     *  algorithm from each source, or backward from each target if there
+     *  are fewer targets, on THREADS threads.  The vertices at the other
+     *  end are gathered into buckets, one per vertex, so that settling a
+     *  vertex fills every entry of its bucket at once and each search
+     *  stops as soon as every bucket has been reached. */
+    static <VLabel, ELabel> double[]
+    table(Graph<VLabel, ELabel> G,
+          List<? extends Graph<VLabel, ELabel>.Vertex> sources,
+          List<? extends Graph<VLabel, ELabel>.Vertex> targets,
+          Weighting<? super ELabel> eweighter, int threads) {
+        final int m = targets.size();
+        final double[] table = new double[cells(sources.size(), m)];
+        final boolean forward = sources.size() <= m;
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, !forward);
+        final int n = compact.size();
+        final int[] start = forward ? compact.outStart() : compact.inStart();
+        final int[] next = forward ? compact.outTarget() : compact.inSource();
+        final double[] weight = forward ? compact.outWeights(eweighter)
+            : compact.inWeights(eweighter);
+        List<? extends Graph<VLabel, ELabel>.Vertex> from =
+            forward ? sources : targets,
+            to = forward ? targets : sources;
+        final int[] origin = new int[from.size()];
+        for (int i = 0; i < origin.length; i += 1) {
+            origin[i] = G.index(from.get(i));
+        }
+        final int[] bucket = new int[n], link = new int[to.size()];
+        Arrays.fill(bucket, -1);
+        int buckets = 0;
+        for (int j = 0; j < link.length; j += 1) {
+            int v = G.index(to.get(j));
+            if (bucket[v] == -1) {
+                buckets += 1;
+            }
+            link[j] = bucket[v];
+            bucket[v] = j;
+        }
+        final int filled = buckets;
+        Arrays.fill(table, Double.POSITIVE_INFINITY);
+        Parallel.forRange(origin.length, threads, new Parallel.Body() {
+            @Override
+            public void run(int lo, int hi) {
+                IndexedHeap heap = new IndexedHeap(n);
+                double[] d = new double[n];
+                for (int i = lo; i < hi; i += 1) {
+                    Arrays.fill(d, Double.POSITIVE_INFINITY);
+                    heap.clear();
+                    d[origin[i]] = 0.0;
+                    heap.push(origin[i], 0.0);
+                    int remaining = filled;
+                    while (!heap.isEmpty() && remaining > 0) {
+                        int v = heap.pop();
+                        if (bucket[v] != -1) {
+                            remaining -= 1;
+                            for (int j = bucket[v]; j != -1; j = link[j]) {
+                                table[forward ? i * m + j : j * m + i] = d[v];
+                            }
+                        }
+                        for (int s = start[v]; s < start[v + 1]; s += 1) {
+                            int w = next[s];
+                            double dw = d[v] + weight[s];
+                            if (dw < d[w]) {
+                                d[w] = dw;
+                                heap.push(w, dw);
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return table;
+    }
+
+    /** Returns the shortest paths between all pairs of vertices of G,
+     *  whose edges are weighted by EWEIGHTER, by the Floyd-Warshall
+     *  algorithm over a flat matrix processed in square blocks that fit
+     *  in cache, using THREADS threads for the blocks that can be
+     *  updated independently.  Returns null if G has a cycle of negative
+     *  weight. */
+    static <VLabel, ELabel> DistanceMatrix<VLabel, ELabel>
+    floydWarshall(Graph<VLabel, ELabel> G,
+                  Weighting<? super ELabel> eweighter, int threads) {
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        final int n = compact.size();
+        final int cells = cells(n, n);
+        int[] start = compact.outStart(), target = compact.outTarget();
+        double[] weight = compact.outWeights(eweighter);
+        final double[] dist = new double[cells];
+        final int[] last = new int[cells];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(last, -1);
+        for (int v = 0; v < n; v += 1) {
+            if (compact.present(v)) {
+                dist[v * n + v] = 0.0;
+            }
+            for (int s = start[v]; s < start[v + 1]; s += 1) {
+                int k = v * n + target[s];
+                if (weight[s] < dist[k]) {
+                    dist[k] = weight[s];
+                    last[k] = s;
+                }
+            }
+        }
+        final int blocks = (n + BLOCK - 1) / BLOCK;
+        for (int kb = 0; kb < blocks; kb += 1) {
+            final int k = kb;
+            relaxBlock(dist, last, n, k, k, k);
+            Parallel.forRange(2 * blocks, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int b = lo; b < hi; b += 1) {
+                        if (b / 2 != k) {
+                            if (b % 2 == 0) {
+                                relaxBlock(dist, last, n, k, b / 2, k);
+                            } else {
+                                relaxBlock(dist, last, n, b / 2, k, k);
+                            }
+                        }
+                    }
+                }
+            });
+            Parallel.forRange(blocks * blocks, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int b = lo; b < hi; b += 1) {
+                        int ib = b / blocks, jb = b % blocks;
+                        if (ib != k && jb != k) {
+                            relaxBlock(dist, last, n, ib, jb, k);
+                        }
+                    }
+                }
+            });
+        }
+        for (int v = 0; v < n; v += 1) {
+            if (dist[v * n + v] < 0.0) {
+                return null;
+            }
+        }
+        return new DistanceMatrix<VLabel, ELabel>(compact, dist, last);
+    }
+
+    /** Returns N * M, the size of an N x M matrix, throwing
+     *  IllegalArgumentException if that is too large for an array.
+     *  Within such a matrix, i * M + j cannot overflow. */
+    private static int cells(int n, int m) {
+        long cells = (long) n * m;
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException(
+                String.format("%d x %d matrix is too large", n, m));
+        }
+        return (int) cells;
+    }
+
+    /** Improve the paths from the vertices in block IB to those in block
+     *  JB of the N x N matrices DIST and LAST by allowing paths through
+     *  the vertices in block KB, in the manner of Floyd-Warshall. */
+    private static void relaxBlock(double[] dist, int[] last, int n,
+                                   int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * BLOCK),
+            jEnd = Math.min(n, (jb + 1) * BLOCK),
+            kEnd = Math.min(n, (kb + 1) * BLOCK);
+        for (int k = kb * BLOCK; k < kEnd; k += 1) {
+            int krow = k * n;
+            for (int i = ib * BLOCK; i < iEnd; i += 1) {
+                int irow = i * n;
+                double dik = dist[irow + k];
+                if (dik == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int j = jb * BLOCK; j < jEnd; j += 1) {
+                    double d = dik + dist[krow + j];
+                    if (d < dist[irow + j]) {
+                        dist[irow + j] = d;
+                        last[irow + j] = last[krow + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /** Returns potentials for the vertices of COMPACT, whose out-slots
+     *  have weights WEIGHT, such that WEIGHT[s] + h[v] - h[w] >= 0 for
+     *  every slot s from v to w, found by the Bellman-Ford algorithm
+     *  from a virtual source with an edge of weight 0 to every vertex.
+     *  Returns null if there is a cycle of negative weight. */
+    private static double[] potentials(CompactGraph<?, ?> compact,
+                                       double[] weight) {
+        int n = compact.size();
+        int[] start = compact.outStart(), target = compact.outTarget();
+        double[] h = new double[n];
+        for (int round = 0; round <= n; round += 1) {
+            boolean changed = false;
+            for (int v = 0; v < n; v += 1) {
+                for (int s = start[v]; s < start[v + 1]; s += 1) {
+                    double d = h[v] + weight[s];
+                    if (d < h[target[s]]) {
+                        h[target[s]] = d;
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                return h;
+            }
+        }
+        return null;
+    }
+
+    /** The side, in vertices, of the blocks of the Floyd-Warshall
+     *  matrix. */
+    private static final int BLOCK = 64;
+
+    /** The largest number of elements an array may safely have. */
+    private static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    /** The snapshot of the graph from which I was computed. */
+    private final CompactGraph<VLabel, ELabel> _compact;
+    /** The graph whose paths these are. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The number of rows and columns of the matrices. */
+    private final int _n;
+    /** The distances, row by row. */
+    private final double[] _dist;
+    /** The out-slot of the last edge of each path, or -1. */
+    private final int[] _last;
+
+}
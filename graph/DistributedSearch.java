@@ -0,0 +1,330 @@
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Single-source searches run by a set of worker processes, one per
+ *  part of a Partitioning, each holding only its part of the graph.
+ *  The coordinator (the calling JVM) starts the workers as separate
+ *  local JVMs running PartitionWorker, sends each its part over a
+ *  loopback socket, and then runs rounds: every worker settles what it
+ *  can locally and reports improved distances to vertices in other
+ *  parts, which the coordinator forwards to their owners in the next
+ *  round.  The search ends when a round produces no boundary messages.
+ *  Each worker receives only its own vertices and their out-edges, each
+ *  edge's target marked as its own or another's; routing the boundary
+ *  messages is left to the coordinator.  While waiting on a worker, the
+ *  coordinator checks every POLL milliseconds that its process is still
+ *  alive, and fails with its exit status if not.
+ *  @author Conrad Shiao
+ */
+final class DistributedSearch {
+
+    /** Returns the shortest paths from SOURCE in the graph of PARTS,
+     *  whose edges are weighted by the non-negative edge weighter
+     *  EWEIGHTER, or by 1 if EWEIGHTER is null, computed by one worker
+     *  process per part, started with the extra JVM options
+     *  JVMOPTIONS.  The workers get the snapshot of the graph kept by
+     *  PARTS, which must still match the graph. */
+    static <VLabel, ELabel> PathTree<VLabel, ELabel>
+    shortestPaths(Partitioning<VLabel, ELabel> parts,
+                  Graph<VLabel, ELabel>.Vertex source,
+                  Weighting<? super ELabel> eweighter,
+                  List<String> jvmOptions) {
+        Graph<VLabel, ELabel> G = parts.graph();
+        CompactGraph<VLabel, ELabel> compact = parts.snapshot();
+        int sourcePart = parts.part(source);
+        double[] weight;
+        if (eweighter == null) {
+            weight = new double[compact.outTarget().length];
+            Arrays.fill(weight, 1.0);
+        } else {
+            weight = compact.outWeights(eweighter);
+        }
+        int k = parts.parts();
+        List<Process> processes = new ArrayList<Process>();
+        Socket[] sockets = new Socket[k];
+        try {
+            ServerSocket server =
+                new ServerSocket(0, k, InetAddress.getLoopbackAddress());
+            try {
+                server.setSoTimeout(POLL);
+                for (int w = 0; w < k; w += 1) {
+                    processes.add(launch(server.getLocalPort(), w,
+                                         jvmOptions));
+                }
+                long deadline = System.currentTimeMillis() + WORKER_TIMEOUT;
+                for (int w = 0; w < k; w += 1) {
+                    Socket socket = accept(server, processes, deadline);
+                    socket.setSoTimeout(POLL);
+                    int number = new DataInputStream(
+                        new WorkerInput(socket, processes)).readInt();
+                    sockets[number] = socket;
+                }
+            } finally {
+                server.close();
+            }
+            List<DataInputStream> ins = new ArrayList<DataInputStream>();
+            List<DataOutputStream> outs = new ArrayList<DataOutputStream>();
+            for (int w = 0; w < k; w += 1) {
+                ins.add(new DataInputStream(new BufferedInputStream(
+                    new WorkerInput(sockets[w], processes.subList(w,
+                                                                  w + 1)))));
+                outs.add(new DataOutputStream(
+                    new BufferedOutputStream(sockets[w].getOutputStream())));
+            }
+            int[] owner = parts.partIds();
+            for (int w = 0; w < k; w += 1) {
+                sendPart(outs.get(w), w, owner, compact, weight);
+            }
+            Messages[] pending = new Messages[k];
+            for (int w = 0; w < k; w += 1) {
+                pending[w] = new Messages();
+            }
+            pending[sourcePart].add(G.index(source), 0.0, -1);
+            boolean active = true;
+            while (active) {
+                for (int w = 0; w < k; w += 1) {
+                    DataOutputStream out = outs.get(w);
+                    out.writeInt(PartitionWorker.ROUND);
+                    pending[w].writeTo(out);
+                    out.flush();
+                    pending[w].clear();
+                }
+                active = false;
+                for (int w = 0; w < k; w += 1) {
+                    DataInputStream in = ins.get(w);
+                    for (int m = in.readInt(); m > 0; m -= 1) {
+                        int v = in.readInt();
+                        pending[owner[v]].add(v, in.readDouble(),
+                                              in.readInt());
+                        active = true;
+                    }
+                }
+            }
+            int n = compact.size();
+            double[] dist = new double[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Object[] edge = new Object[n];
+            for (int w = 0; w < k; w += 1) {
+                outs.get(w).writeInt(PartitionWorker.FINISH);
+                outs.get(w).flush();
+            }
+            for (int w = 0; w < k; w += 1) {
+                DataInputStream in = ins.get(w);
+                for (int m = in.readInt(); m > 0; m -= 1) {
+                    int v = in.readInt();
+                    dist[v] = in.readDouble();
+                    int via = in.readInt();
+                    edge[v] = via < 0 ? null : compact.outEdge(via);
+                }
+            }
+            return new PathTree<VLabel, ELabel>(G, source, edge, dist);
+        } catch (IOException excp) {
+            throw new UncheckedIOException(excp);
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    if (socket != null) {
+                        socket.close();
+                    }
+                } catch (IOException excp) {
+                    /* Ignore IOException */
+                }
+            }
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+    }
+
+    /** Returns the next connection to SERVER, whose accept timeout is
+     *  POLL, from one of the workers running as PROCESSES.  Throws
+     *  IOException if one of them has exited, or at time DEADLINE. */
+    private static Socket accept(ServerSocket server,
+                                 List<Process> processes, long deadline)
+        throws IOException {
+        while (true) {
+            try {
+                return server.accept();
+            } catch (SocketTimeoutException excp) {
+                checkAlive(processes);
+                if (System.currentTimeMillis() > deadline) {
+                    throw excp;
+                }
+            }
+        }
+    }
+
+    /** Throws IOException, giving the exit status, if any of the worker
+     *  PROCESSES has exited. */
+    private static void checkAlive(List<Process> processes)
+        throws IOException {
+        for (Process process : processes) {
+            if (!process.isAlive()) {
+                throw new IOException("worker exited with status "
+                                      + process.exitValue());
+            }
+        }
+    }
+
+    /** Returns a new JVM process running PartitionWorker number NUMBER
+     *  with my class path and the options JVMOPTIONS, told to connect
+     *  to PORT. */
+    private static Process launch(int port, int number,
+                                  List<String> jvmOptions)
+        throws IOException {
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator
+                    + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PartitionWorker.class.getName());
+        command.add(Integer.toString(port));
+        command.add(Integer.toString(number));
+        return new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    /** Send worker number W its part, as read by the PartitionWorker
+     *  constructor, on OUT: the vertices of COMPACT that OWNER assigns
+     *  to W, in increasing order of index, with their out-slots, which
+     *  are weighted by WEIGHT.  Only the indices of the targets that
+     *  belong to other workers are sent, not their owners. */
+    private static void sendPart(DataOutputStream out, int w, int[] owner,
+                                 CompactGraph<?, ?> compact,
+                                 double[] weight) throws IOException {
+        int n = compact.size();
+        int[] start = compact.outStart(), target = compact.outTarget();
+        int local = 0, edges = 0;
+        for (int v = 0; v < n; v += 1) {
+            if (owner[v] == w) {
+                local += 1;
+                edges += start[v + 1] - start[v];
+            }
+        }
+        out.writeInt(w);
+        out.writeInt(local);
+        out.writeInt(edges);
+        for (int v = 0; v < n; v += 1) {
+            if (owner[v] == w) {
+                out.writeInt(v);
+                out.writeInt(start[v + 1] - start[v]);
+                for (int s = start[v]; s < start[v + 1]; s += 1) {
+                    out.writeInt(target[s]);
+                    out.writeBoolean(owner[target[s]] == w);
+                    out.writeInt(s);
+                    out.writeDouble(weight[s]);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /** The input from a worker's socket, whose read timeout is POLL.
+     *  Reads wait as long as the worker is alive, but fail with an
+     *  IOException once it has exited.  A timed-out read consumes
+     *  nothing, so it is simply repeated. */
+    private static final class WorkerInput extends FilterInputStream {
+
+        /** The input from SOCKET, connected to one of the worker
+         *  PROCESSES. */
+        WorkerInput(Socket socket, List<Process> processes)
+            throws IOException {
+            super(socket.getInputStream());
+            _processes = processes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            while (true) {
+                try {
+                    return super.read();
+                } catch (SocketTimeoutException excp) {
+                    checkAlive(_processes);
+                }
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length)
+            throws IOException {
+            while (true) {
+                try {
+                    return super.read(buffer, offset, length);
+                } catch (SocketTimeoutException excp) {
+                    checkAlive(_processes);
+                }
+            }
+        }
+
+        /** The processes whose exit fails my reads. */
+        private final List<Process> _processes;
+    }
+
+    /** Boundary messages bound for one worker: (vertex index, distance,
+     *  edge number) triples. */
+    private static class Messages {
+        /** Add the message that vertex V can be reached at distance DIST
+         *  by a path ending with edge number EDGE. */
+        void add(int v, double dist, int edge) {
+            if (_size == _vertices.length) {
+                _vertices = Arrays.copyOf(_vertices, 2 * _size);
+                _dists = Arrays.copyOf(_dists, 2 * _size);
+                _edges = Arrays.copyOf(_edges, 2 * _size);
+            }
+            _vertices[_size] = v;
+            _dists[_size] = dist;
+            _edges[_size] = edge;
+            _size += 1;
+        }
+
+        /** Empty me. */
+        void clear() {
+            _size = 0;
+        }
+
+        /** Write my count and messages to OUT. */
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(_size);
+            for (int m = 0; m < _size; m += 1) {
+                out.writeInt(_vertices[m]);
+                out.writeDouble(_dists[m]);
+                out.writeInt(_edges[m]);
+            }
+        }
+
+        /** Target vertex indices. */
+        private int[] _vertices = new int[16];
+        /** Distances. */
+        private double[] _dists = new double[16];
+        /** Edge numbers. */
+        private int[] _edges = new int[16];
+        /** Number of messages. */
+        private int _size;
+    }
+
+    /** Milliseconds to wait for all workers to connect. */
+    private static final int WORKER_TIMEOUT = 60000;
+
+    /** Milliseconds between checks that a worker being waited on is
+     *  still alive. */
+    private static final int POLL = 1000;
+
+}
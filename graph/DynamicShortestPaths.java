@@ -0,0 +1,298 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** A tree of shortest paths from a source vertex to every vertex of a
+ *  graph, kept correct as the graph changes, after the method of
+ *  Ramalingam and Reps.  Once created by Graphs.dynamicShortestPaths,
+ *  it listens to its graph.  When an edge is added or becomes lighter,
+ *  only the vertices whose distances improve are visited, by a Dijkstra
+ *  search starting at the edge.  When an edge of the tree is removed or
+ *  becomes heavier, only the subtree below it is affected: its vertices
+ *  are given the best distances available through edges from outside
+ *  it and settled by a Dijkstra search confined to it.  Changes to
+ *  edges outside the tree that do not improve on it cost O(1).  Edge
+ *  weights must be non-negative, and since weights belong to labels the
+ *  graph does not see, a change of weight must be reported through
+ *  weightChanged.
+ *  @author Conrad Shiao
+ */
+public final class DynamicShortestPaths<VLabel, ELabel>
+    implements GraphListener<VLabel, ELabel> {
+
+    /** Shortest paths from SOURCE in G, whose edges are weighted by
+     *  EWEIGHTER, kept current until detach() is called. */
+    DynamicShortestPaths(Graph<VLabel, ELabel> G,
+                         Graph<VLabel, ELabel>.Vertex source,
+                         Weighting<? super ELabel> eweighter) {
+        _graph = G;
+        _source = source;
+        _eweighter = eweighter;
+        int n = Math.max(G.indexLimit(), 1);
+        _dist = new double[n];
+        Arrays.fill(_dist, Double.POSITIVE_INFINITY);
+        _parent = new Object[n];
+        _affected = new boolean[n];
+        _heap = new IndexedHeap(n);
+        int s = G.index(source);
+        _dist[s] = 0.0;
+        _heap.push(s, 0.0);
+        settle();
+        G.addListener(this);
+    }
+
+    /** Returns the vertex my paths start from, or null if it has been
+     *  removed from the graph. */
+    public Graph<VLabel, ELabel>.Vertex source() {
+        return _source;
+    }
+
+    /** Returns the weight of a shortest path to V, or
+     *  Double.POSITIVE_INFINITY if V is unreachable. */
+    public double distance(Graph<VLabel, ELabel>.Vertex v) {
+        return _dist[_graph.index(v)];
+    }
+
+    /** Returns true iff there is a path from source() to V. */
+    public boolean reachable(Graph<VLabel, ELabel>.Vertex v) {
+        return _dist[_graph.index(v)] != Double.POSITIVE_INFINITY;
+    }
+
+    /** Returns the last edge of the shortest path to V, or null if V is
+     *  the source or unreachable. */
+    public Graph<VLabel, ELabel>.Edge parentEdge(
+        Graph<VLabel, ELabel>.Vertex v) {
+        return parent(_graph.index(v));
+    }
+
+    /** Returns the edges of a shortest path from source() to V, in order,
+     *  or null if V is unreachable. */
+    public List<Graph<VLabel, ELabel>.Edge> pathTo(
+        Graph<VLabel, ELabel>.Vertex v) {
+        if (!reachable(v)) {
+            return null;
+        }
+        List<Graph<VLabel, ELabel>.Edge> path =
+            new ArrayList<Graph<VLabel, ELabel>.Edge>();
+        for (Graph<VLabel, ELabel>.Edge e = parentEdge(v); e != null;
+             e = parentEdge(v)) {
+            path.add(e);
+            v = e.getV(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Returns the number of vertices whose distances the most recent
+     *  change to the graph caused me to recompute. */
+    public int lastRepairSize() {
+        return _lastRepairSize;
+    }
+
+    /** Repair my paths after the weight of E, one of my graph's edges,
+     *  has changed. */
+    public void weightChanged(Graph<VLabel, ELabel>.Edge e) {
+        _lastRepairSize = 0;
+        Graph<VLabel, ELabel>.Vertex v0 = e.getV0(), v1 = e.getV1();
+        double w = _eweighter.weight(e.getLabel());
+        if (!reweigh(e, v0, v1, w) && !_graph.isDirected()) {
+            reweigh(e, v1, v0, w);
+        }
+    }
+
+    /** Stop following changes to my graph.  After this, my answers
+     *  describe the graph as it was when detach was called. */
+    public void detach() {
+        _graph.removeListener(this);
+    }
+
+    @Override
+    public void vertexAdded(Graph<VLabel, ELabel> G,
+                            Graph<VLabel, ELabel>.Vertex v) {
+        int k = G.index(v);
+        if (k >= _dist.length) {
+            int n = Math.max(k + 1, 2 * _dist.length);
+            int old = _dist.length;
+            _dist = Arrays.copyOf(_dist, n);
+            _parent = Arrays.copyOf(_parent, n);
+            _affected = Arrays.copyOf(_affected, n);
+            Arrays.fill(_dist, old, n, Double.POSITIVE_INFINITY);
+        }
+        _dist[k] = Double.POSITIVE_INFINITY;
+        _parent[k] = null;
+        _lastRepairSize = 0;
+    }
+
+    @Override
+    public void vertexRemoved(Graph<VLabel, ELabel> G,
+                              Graph<VLabel, ELabel>.Vertex v, int index) {
+        int last = G.indexLimit();
+        if (v == _source) {
+            _source = null;
+            Arrays.fill(_dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(_parent, null);
+        } else if (index != last) {
+            _dist[index] = _dist[last];
+            _parent[index] = _parent[last];
+        }
+        _dist[last] = Double.POSITIVE_INFINITY;
+        _parent[last] = null;
+    }
+
+    @Override
+    public void edgeAdded(Graph<VLabel, ELabel> G,
+                          Graph<VLabel, ELabel>.Edge e) {
+        _lastRepairSize = 0;
+        Graph<VLabel, ELabel>.Vertex v0 = e.getV0(), v1 = e.getV1();
+        double w = _eweighter.weight(e.getLabel());
+        improve(e, v0, v1, w);
+        if (!G.isDirected()) {
+            improve(e, v1, v0, w);
+        }
+    }
+
+    @Override
+    public void edgeRemoved(Graph<VLabel, ELabel> G,
+                            Graph<VLabel, ELabel>.Edge e) {
+        _lastRepairSize = 0;
+        Graph<VLabel, ELabel>.Vertex v0 = e.getV0(), v1 = e.getV1();
+        if (parent(G.index(v1)) == e) {
+            rebuildSubtree(G.index(v1));
+        } else if (!G.isDirected() && parent(G.index(v0)) == e) {
+            rebuildSubtree(G.index(v0));
+        }
+    }
+
+    /** Repair my paths after the weight of E, followed from FROM to TO,
+     *  has become W.  Returns true iff E was the last edge of the path
+     *  to TO. */
+    private boolean reweigh(Graph<VLabel, ELabel>.Edge e,
+                            Graph<VLabel, ELabel>.Vertex from,
+                            Graph<VLabel, ELabel>.Vertex to, double w) {
+        int u = _graph.index(from), v = _graph.index(to);
+        if (parent(v) != e) {
+            improve(e, from, to, w);
+            return false;
+        }
+        double d = _dist[u] + w;
+        if (d > _dist[v]) {
+            rebuildSubtree(v);
+        } else if (d < _dist[v]) {
+            _dist[v] = d;
+            _heap.push(v, d);
+            settle();
+        }
+        return true;
+    }
+
+    /** Repair my paths after E, followed from FROM to TO with weight W,
+     *  has appeared or become lighter. */
+    private void improve(Graph<VLabel, ELabel>.Edge e,
+                         Graph<VLabel, ELabel>.Vertex from,
+                         Graph<VLabel, ELabel>.Vertex to, double w) {
+        int u = _graph.index(from), v = _graph.index(to);
+        double d = _dist[u] + w;
+        if (d < _dist[v]) {
+            _dist[v] = d;
+            _parent[v] = e;
+            _heap.push(v, d);
+            settle();
+        }
+    }
+
+    /** Recompute the distances of the vertices in the subtree of paths
+     *  rooted at the vertex with index ROOT, whose path has become
+     *  longer or been cut. */
+    private void rebuildSubtree(int root) {
+        ArrayList<Graph<VLabel, ELabel>.Vertex> subtree =
+            new ArrayList<Graph<VLabel, ELabel>.Vertex>();
+        subtree.add(_graph.vertex(root));
+        _affected[root] = true;
+        for (int k = 0; k < subtree.size(); k += 1) {
+            Graph<VLabel, ELabel>.Vertex x = subtree.get(k);
+            for (Graph<VLabel, ELabel>.Edge e : _graph.outEdges(x)) {
+                int y = _graph.index(e.getV(x));
+                if (!_affected[y] && _parent[y] == e) {
+                    _affected[y] = true;
+                    subtree.add(e.getV(x));
+                }
+            }
+        }
+        for (Graph<VLabel, ELabel>.Vertex x : subtree) {
+            int k = _graph.index(x);
+            _dist[k] = Double.POSITIVE_INFINITY;
+            _parent[k] = null;
+        }
+        for (Graph<VLabel, ELabel>.Vertex x : subtree) {
+            int k = _graph.index(x);
+            for (Graph<VLabel, ELabel>.Edge e : _graph.inEdges(x)) {
+                int u = _graph.index(e.getV(x));
+                if (!_affected[u]) {
+                    double d = _dist[u] + _eweighter.weight(e.getLabel());
+                    if (d < _dist[k]) {
+                        _dist[k] = d;
+                        _parent[k] = e;
+                    }
+                }
+            }
+            if (_dist[k] != Double.POSITIVE_INFINITY) {
+                _heap.push(k, _dist[k]);
+            }
+        }
+        for (Graph<VLabel, ELabel>.Vertex x : subtree) {
+            _affected[_graph.index(x)] = false;
+        }
+        _lastRepairSize = subtree.size();
+        settle();
+    }
+
+    /** Run Dijkstra's algorithm from the vertices in _heap, whose
+     *  tentative distances have just been lowered, until every distance
+     *  is correct again. */
+    private void settle() {
+        while (!_heap.isEmpty()) {
+            int k = _heap.pop();
+            Graph<VLabel, ELabel>.Vertex x = _graph.vertex(k);
+            _lastRepairSize += 1;
+            for (Graph<VLabel, ELabel>.Edge e : _graph.outEdges(x)) {
+                Graph<VLabel, ELabel>.Vertex y = e.getV(x);
+                int j = _graph.index(y);
+                double d = _dist[k] + _eweighter.weight(e.getLabel());
+                if (d < _dist[j]) {
+                    _dist[j] = d;
+                    _parent[j] = e;
+                    _heap.push(j, d);
+                }
+            }
+        }
+    }
+
+    /** Returns the last edge of the path to the vertex with index K. */
+    @SuppressWarnings("unchecked")
+    private Graph<VLabel, ELabel>.Edge parent(int k) {
+        return (Graph<VLabel, ELabel>.Edge) _parent[k];
+    }
+
+    /** The graph whose paths I follow. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The source of all paths, or null if it has been removed. */
+    private Graph<VLabel, ELabel>.Vertex _source;
+    /** The weights of edges. */
+    private final Weighting<? super ELabel> _eweighter;
+    /** Distance from the source, by vertex index. */
+    private double[] _dist;
+    /** Last edge of each path, by vertex index (null for the source and
+     *  unreachable vertices). */
+    private Object[] _parent;
+    /** Marks the vertices of a subtree being rebuilt. */
+    private boolean[] _affected;
+    /** Vertices whose distances have been lowered but whose out-edges
+     *  are yet to be relaxed. */
+    private final IndexedHeap _heap;
+    /** Number of vertices recomputed by the most recent repair. */
+    private int _lastRepairSize;
+
+}
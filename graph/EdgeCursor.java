@@ -0,0 +1,37 @@
+package graph;
+
+/** A reusable cursor over the edges leaving one vertex at a time of a
+ *  graph (in an undirected graph, all edges incident on it), in the
+ *  order of Graph.outEdges.  Unlike outEdges, it allocates nothing per
+ *  vertex, and it delivers the far end of each edge directly as an
+ *  index (see Graph.index), so that the inner loops of searches need no
+ *  Iteration.  Obtain one from Graph.outCursor.  A plain graph's cursors
+ *  are all of one final class, so that a loop over a plain graph calls a
+ *  single implementation; views have cursors of their own.  A cursor
+ *  must be used by one thread at a time, and the graph's edges must not
+ *  change while it is in use.
+ *  @author Conrad Shiao
+ */
+public interface EdgeCursor<VLabel, ELabel> {
+
+    /** Positions me before the first edge leaving V. */
+    void reset(Graph<VLabel, ELabel>.Vertex v);
+
+    /** Advances me to the next edge, returning false (and leaving me
+     *  at no edge) if there is none. */
+    boolean next();
+
+    /** Returns the current edge. */
+    Graph<VLabel, ELabel>.Edge edge();
+
+    /** Returns the label of the current edge. */
+    ELabel label();
+
+    /** Returns the end of the current edge away from the vertex I was
+     *  last reset to. */
+    Graph<VLabel, ELabel>.Vertex targetVertex();
+
+    /** Returns the index of targetVertex(). */
+    int target();
+
+}
@@ -2,12 +2,13 @@ package graph;
 
 import java.util.Comparator;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /* Do not add or remove public or protected members, or modify the signatures of
  * any public methods.  You may make methods in Graph abstract, if you want
@@ -50,6 +51,27 @@ public abstract class Graph<VLabel, ELabel> {
         /** The label on this vertex. */
         private final VLabel _label;
 
+        /** My position in _vertices, or -1 once I have been removed. */
+        private int _index = -1;
+
+        /** The edges leaving me, kept in _edgeOrder if there is one.  In an
+         *  undirected graph, this holds every edge incident on me (a
+         *  self-edge only once). */
+        private final ArrayList<Edge> _out = new ArrayList<Edge>();
+
+        /** The edges entering me, kept in _edgeOrder if there is one.  In
+         *  an undirected graph, this is the same list as _out. */
+        private final ArrayList<Edge> _in =
+            isDirected() ? new ArrayList<Edge>() : _out;
+
+        /** The number of edges leaving me, a self-edge in an undirected
+         *  graph counting twice. */
+        private int _outDegree;
+
+        /** The number of edges entering me.  Unused (always 0) in an
+         *  undirected graph, where this is the same as _outDegree. */
+        private int _inDegree;
+
     }
 
     /** Represents one of my edges. */
@@ -63,6 +85,14 @@ public abstract class Graph<VLabel, ELabel> {
             _v1 = v1;
         }
 
+        /** An edge running opposite to BASE, with BASE's label: the edge
+         *  a reversal of my graph shows for BASE. */
+        private Edge(Edge base) {
+            this(base._v1, base._v0, base._label);
+            _twin = base;
+            _reversal = true;
+        }
+
         /** Returns the label on this edge. */
         public ELabel getLabel() {
             return _label;
@@ -97,6 +127,30 @@ public abstract class Graph<VLabel, ELabel> {
             return String.format("(%s,%s):%s", _v0, _v1, _label);
         }
 
+        /** Returns the edge that a reversal of my graph (see
+         *  Graphs.reversed) shows for me, or, if I am such an edge, the
+         *  edge I reverse.  It is made when first needed, and is the same
+         *  edge on every call. */
+        Edge reversed() {
+            Edge twin = _twin;
+            if (twin == null) {
+                synchronized (this) {
+                    twin = _twin;
+                    if (twin == null) {
+                        twin = new Edge(this);
+                        _twin = twin;
+                    }
+                }
+            }
+            return twin;
+        }
+
+        /** Returns the edge of a graph that I stand for: the edge I
+         *  reverse if I was made by reversed(), and otherwise me. */
+        Edge unreversed() {
+            return _reversal ? _twin : this;
+        }
+
         /** Endpoints of this edge.  In directed edges, this edge exits _V0
          *  and enters _V1. */
         private final Vertex _v0, _v1;
@@ -104,13 +158,20 @@ public abstract class Graph<VLabel, ELabel> {
         /** The label on this edge. */
         private final ELabel _label;
 
+        /** My reversal or, if _REVERSAL, the edge I reverse; null until
+         *  reversed() is first called. */
+        private volatile Edge _twin;
+
+        /** True iff I was made by reversed() to stand for another edge. */
+        private boolean _reversal;
+
     }
 
     /*=====  Methods and variables of Graph =====*/
 
     /** Returns the number of vertices in me. */
     public int vertexSize() {
-        return _mappings.keySet().size();
+        return _vertices.size();
     }
 
     /** Returns the number of edges in me. */
@@ -121,6 +182,26 @@ public abstract class Graph<VLabel, ELabel> {
     /** Returns true iff I am a directed graph. */
     public abstract boolean isDirected();
 
+    /** Returns the index of V, which is one of my vertices: a number in
+     *  the range 0 .. indexLimit()-1 that no other of my vertices has.
+     *  Indices let algorithms keep data about vertices in arrays.  Adding
+     *  vertices or edges changes no index; removing a vertex may change
+     *  the index of one other vertex. */
+    public int index(Vertex v) {
+        return v._index;
+    }
+
+    /** Returns my vertex whose index is K, or null if there is none. */
+    public Vertex vertex(int k) {
+        return k >= 0 && k < _vertices.size() ? _vertices.get(k) : null;
+    }
+
+    /** Returns a bound on the indices of my vertices: all are less than
+     *  this.  For an ordinary graph, this is vertexSize(). */
+    public int indexLimit() {
+        return _vertices.size();
+    }
+
     /** Returns the number of outgoing edges incident to V. Assumes V is one of
      *  my vertices.  */
     public int outDegree(Vertex v) {
@@ -128,20 +209,7 @@ public abstract class Graph<VLabel, ELabel> {
             System.err.printf("Vertex %s is not in my graph", v.toString());
             return 0;
         } else {
-            int count = 0;
-            for (Edge e : _mappings.get(v)) {
-                if (isDirected()) {
-                    if (e.getV0() == v) {
-                        count += 1;
-                    }
-                } else {
-                    count += 1;
-                    if (e.getV0() == v && e.getV1() == v) {
-                        count += 1;
-                    }
-                }
-            }
-            return count;
+            return v._outDegree;
         }
     }
 
@@ -151,21 +219,10 @@ public abstract class Graph<VLabel, ELabel> {
         if (!contains(v)) {
             System.err.printf("Vertex %s is not in my graph", v.toString());
             return 0;
+        } else if (isDirected()) {
+            return v._inDegree;
         } else {
-            int count = 0;
-            for (Edge e : _mappings.get(v)) {
-                if (isDirected()) {
-                    if (e.getV1() == v) {
-                        count += 1;
-                    }
-                } else {
-                    count += 1;
-                    if (e.getV0() == v && e.getV1() == v) {
-                        count += 1;
-                    }
-                }
-            }
-            return count;
+            return v._outDegree;
         }
     }
 
@@ -175,14 +232,57 @@ public abstract class Graph<VLabel, ELabel> {
         return outDegree(v);
     }
 
+    /** Returns the largest outDegree of any of my vertices, or 0 if I have
+     *  none.  Takes constant time. */
+    public int maxOutDegree() {
+        return _outHistogram.max();
+    }
+
+    /** Returns the largest inDegree of any of my vertices, or 0 if I have
+     *  none.  Takes constant time. */
+    public int maxInDegree() {
+        return inHistogram().max();
+    }
+
+    /** Returns the distribution of out-degrees in me: an array of
+     *  length maxOutDegree() + 1 whose element k is the number of my
+     *  vertices with outDegree k. */
+    public int[] outDegreeHistogram() {
+        return _outHistogram.toArray();
+    }
+
+    /** Returns the distribution of in-degrees in me: an array of
+     *  length maxInDegree() + 1 whose element k is the number of my
+     *  vertices with inDegree k. */
+    public int[] inDegreeHistogram() {
+        return inHistogram().toArray();
+    }
+
+    /** Returns an iterator over all my vertices in order of decreasing
+     *  outDegree.  Takes time linear in vertexSize() + maxOutDegree(). */
+    public Iteration<Vertex> verticesByOutDegree() {
+        return byDegree(_outHistogram, false);
+    }
+
+    /** Returns an iterator over all my vertices in order of decreasing
+     *  inDegree.  Takes time linear in vertexSize() + maxInDegree(). */
+    public Iteration<Vertex> verticesByInDegree() {
+        return byDegree(inHistogram(), isDirected());
+    }
+
     /** Returns true iff there is an edge (U, V) in me with any label. */
     public boolean contains(Vertex u, Vertex v) {
-        for (Edge e : _mappings.get(u)) {
-            Vertex from = e.getV0(), to = e.getV1();
-            if (from == u && to == v) {
-                return true;
-            } else if (!isDirected() && from == v && to == u) {
-                return true;
+        if (u._out.size() <= v._in.size()) {
+            for (Edge e : u._out) {
+                if (e.getV(u) == v) {
+                    return true;
+                }
+            }
+        } else {
+            for (Edge e : v._in) {
+                if (e.getV(v) == u) {
+                    return true;
+                }
             }
         }
         return false;
@@ -191,13 +291,17 @@ public abstract class Graph<VLabel, ELabel> {
     /** Returns true iff there is an edge (U, V) in me with label LABEL. */
     public boolean contains(Vertex u, Vertex v,
                             ELabel label) {
-        for (Edge e : _mappings.get(u)) {
-            Vertex from = e.getV0(), to = e.getV1();
-            ELabel get = e.getLabel();
-            if (from == u && to == v && get == label) {
-                return true;
-            } else if (!isDirected() && from == v && to == u && get == label) {
-                return true;
+        if (u._out.size() <= v._in.size()) {
+            for (Edge e : u._out) {
+                if (e.getV(u) == v && e.getLabel() == label) {
+                    return true;
+                }
+            }
+        } else {
+            for (Edge e : v._in) {
+                if (e.getV(v) == u && e.getLabel() == label) {
+                    return true;
+                }
             }
         }
         return false;
@@ -207,13 +311,22 @@ public abstract class Graph<VLabel, ELabel> {
      *  incident edges. */
     public Vertex add(VLabel label) {
         Vertex answer = new Vertex(label);
-        _mappings.put(answer, new HashSet<Edge>());
+        answer._index = _vertices.size();
+        _vertices.add(answer);
+        _outHistogram.add();
+        if (isDirected()) {
+            _inHistogram.add();
+        }
+        for (GraphListener<VLabel, ELabel> listener : _listeners) {
+            listener.vertexAdded(this, answer);
+        }
         return answer;
     }
 
     /** Returns true iff I already contain vertex V in myself. */
     private boolean contains(Vertex v) {
-        return _mappings.containsKey(v);
+        return v._index >= 0 && v._index < _vertices.size()
+            && _vertices.get(v._index) == v;
     }
 
     /** Returns an edge incident on FROM and TO, labeled with LABEL
@@ -223,10 +336,21 @@ public abstract class Graph<VLabel, ELabel> {
     public Edge add(Vertex from, Vertex to, ELabel label) {
         if (contains(from) && contains(to)) {
             Edge answer = new Edge(from, to, label);
-            _mappings.get(from).add(answer);
+            insert(from._out, answer);
+            if (isDirected()) {
+                insert(to._in, answer);
+            } else if (to != from) {
+                insert(to._out, answer);
+            }
+            if (_edgeOrder != null && !_edges.isEmpty()
+                && _edgeOrder.compare(_edges.get(_edges.size() - 1),
+                                      answer) > 0) {
+                _edgesSorted = false;
+            }
             _edges.add(answer);
-            if (to != from) {
-                _mappings.get(to).add(answer);
+            countDegrees(answer, 1);
+            for (GraphListener<VLabel, ELabel> listener : _listeners) {
+                listener.edgeAdded(this, answer);
             }
             return answer;
         } else {
@@ -245,27 +369,48 @@ public abstract class Graph<VLabel, ELabel> {
 
     /** Remove V and all adjacent edges, if present. */
     public void remove(Vertex v) {
-        _mappings.remove(v);
-        for (Set<Edge> edges : _mappings.values()) {
-            Iterator<Edge> temp = edges.iterator();
-            while (temp.hasNext()) {
-                Edge edge = temp.next();
-                if (edge.getV0() == v || edge.getV1() == v) {
-                    temp.remove();
-                    _edges.remove(edge);
-                }
-            }
+        if (!contains(v)) {
+            return;
+        }
+        Set<Edge> doomed = new HashSet<Edge>(v._out);
+        doomed.addAll(v._in);
+        for (Edge e : doomed) {
+            detach(e);
+        }
+        _edges.removeAll(doomed);
+        edgesRemoved(doomed);
+        _outHistogram.remove(v._outDegree);
+        if (isDirected()) {
+            _inHistogram.remove(v._inDegree);
+        }
+        int index = v._index;
+        Vertex last = _vertices.remove(_vertices.size() - 1);
+        if (last != v) {
+            last._index = index;
+            _vertices.set(index, last);
+        }
+        v._index = -1;
+        for (GraphListener<VLabel, ELabel> listener : _listeners) {
+            listener.vertexRemoved(this, v, index);
         }
     }
 
     /** Remove E from me, if present. E must be between my vertices,
-     *  or the result is undefined. */
+     *  or the result is undefined.  E may also be an edge delivered by a
+     *  reversal of me (see Graphs.reversed), which stands for the edge of
+     *  mine that it reverses. */
     public void remove(Edge e) {
+        e = e.unreversed();
         Vertex from = e.getV0(), to = e.getV1();
         if (contains(from) && contains(to)) {
-            _mappings.get(from).remove(e);
-            _mappings.get(to).remove(e);
-            _edges.remove(e);
+            int k = _edges.lastIndexOf(e);
+            if (k >= 0) {
+                _edges.remove(k);
+                detach(e);
+                for (GraphListener<VLabel, ELabel> listener : _listeners) {
+                    listener.edgeRemoved(this, e);
+                }
+            }
         } else {
             System.err.printf("Edge %s is not between my vertices, as"
                 + "Vertex %s is not in my graph.", e.toString(),
@@ -277,18 +422,17 @@ public abstract class Graph<VLabel, ELabel> {
      *  undefined if V1 and V2 are not among my vertices.  */
     public void remove(Vertex v1, Vertex v2) {
         if (contains(v1) && contains(v2)) {
-            Set<Edge> alternates = _mappings.get(v1);
-            Iterator<Edge> edges = _mappings.get(v2).iterator();
-            while (edges.hasNext()) {
-                Edge temp = edges.next();
-                Vertex from = temp.getV0(), to = temp.getV1();
-                if ((from == v1 && to == v2)
-                        || (!isDirected() && from == v2 && to == v1)) {
-                    edges.remove();
-                    _edges.remove(temp);
-                    alternates.remove(temp);
+            Set<Edge> doomed = new HashSet<Edge>();
+            for (Edge e : v1._out) {
+                if (e.getV(v1) == v2) {
+                    doomed.add(e);
                 }
             }
+            for (Edge e : doomed) {
+                detach(e);
+            }
+            _edges.removeAll(doomed);
+            edgesRemoved(doomed);
         } else {
             System.err.printf("Vertex %s is not in my graph",
                     !contains(v1) ? v1.toString() : v2.toString());
@@ -297,35 +441,17 @@ public abstract class Graph<VLabel, ELabel> {
 
     /** Returns an Iterator over all vertices in arbitrary order. */
     public Iteration<Vertex> vertices() {
-        return Iteration.iteration(_mappings.keySet());
+        return Iteration.iteration(_vertices);
     }
 
     /** Returns an iterator over all successors of V. */
     public Iteration<Vertex> successors(Vertex v) {
-        List<Vertex> successors = new ArrayList<Vertex>();
-        for (Edge e : _mappings.get(v)) {
-            Vertex from = e.getV0(), to = e.getV1();
-            if (from == v) {
-                successors.add(to);
-            } else if (!isDirected() && to == v) {
-                successors.add(from);
-            }
-        }
-        return Iteration.iteration(successors);
+        return new EndpointIteration(v, v._out);
     }
 
     /** Returns an iterator over all predecessors of V. */
     public Iteration<Vertex> predecessors(Vertex v) {
-        List<Vertex> predecessors = new ArrayList<Vertex>();
-        for (Edge e : _mappings.get(v)) {
-            Vertex from = e.getV0(), to = e.getV1();
-            if (to == v) {
-                predecessors.add(from);
-            } else if (!isDirected() && from == v) {
-                predecessors.add(to);
-            }
-        }
-        return Iteration.iteration(predecessors);
+        return new EndpointIteration(v, v._in);
     }
 
     /** Returns successors(V).  This is a synonym typically used on
@@ -336,29 +462,38 @@ public abstract class Graph<VLabel, ELabel> {
 
     /** Returns an iterator over all edges in me. */
     public Iteration<Edge> edges() {
-        return Iteration.iteration(_edges);
+        return Iteration.iteration(sortedEdges());
     }
 
     /** Returns iterator over all outgoing edges from V. */
     public Iteration<Edge> outEdges(Vertex v) {
-        List<Edge> outgoing = new ArrayList<Edge>();
-        for (Edge e : _mappings.get(v)) {
-            if ((e.getV0() == v) || (!isDirected() && e.getV1() == v)) {
-                outgoing.add(e);
-            }
-        }
-        return Iteration.iteration(outgoing);
+        return Iteration.iteration(v._out);
+    }
+
+    /** Returns an iterator over the first K outgoing edges from V (all of
+     *  them if there are fewer than K), in the order set by orderEdges.
+     *  Without an edge ordering, which K edges are delivered is
+     *  arbitrary. */
+    public Iteration<Edge> outEdges(Vertex v, int k) {
+        return Iteration.iteration(v._out.subList(0,
+                Math.max(0, Math.min(k, v._out.size()))));
+    }
+
+    /** Returns a new cursor over outgoing edges, for use in place of
+     *  outEdges in inner loops.  Reset it to each vertex in turn. */
+    public EdgeCursor<VLabel, ELabel> outCursor() {
+        return new ListCursor(false);
+    }
+
+    /** Returns a new cursor over incoming edges, as for outCursor but
+     *  running through inEdges. */
+    EdgeCursor<VLabel, ELabel> inCursor() {
+        return new ListCursor(true);
     }
 
     /** Returns iterator over all incoming edges to V. */
     public Iteration<Edge> inEdges(Vertex v) {
-        List<Edge> incomingEdges = new ArrayList<Edge>();
-        for (Edge e : _mappings.get(v)) {
-            if ((e.getV1() == v) || (!isDirected() && e.getV0() == v)) {
-                incomingEdges.add(e);
-            }
-        }
-        return Iteration.iteration(incomingEdges);
+        return Iteration.iteration(v._in);
     }
 
     /** Returns outEdges(V). This is a synonym typically used
@@ -367,6 +502,45 @@ public abstract class Graph<VLabel, ELabel> {
         return outEdges(v);
     }
 
+    /** Returns a stream of all my vertices.  Its spliterator knows its
+     *  exact size and splits evenly, so that the stream may usefully be
+     *  made parallel.  I must not change while it is in use. */
+    public Stream<Vertex> vertexStream() {
+        return StreamSupport.stream(new ListSpliterator<Vertex>(_vertices),
+                                    false);
+    }
+
+    /** Returns a stream of all my edges, splittable as for
+     *  vertexStream(). */
+    public Stream<Edge> edgeStream() {
+        return StreamSupport.stream(new ListSpliterator<Edge>(sortedEdges()),
+                                    false);
+    }
+
+    /** Returns a stream of the outgoing edges from V, splittable as for
+     *  vertexStream(). */
+    public Stream<Edge> outEdgeStream(Vertex v) {
+        return StreamSupport.stream(new ListSpliterator<Edge>(v._out),
+                                    false);
+    }
+
+    /** Returns a stream of the incoming edges to V, splittable as for
+     *  vertexStream(). */
+    public Stream<Edge> inEdgeStream(Vertex v) {
+        return StreamSupport.stream(new ListSpliterator<Edge>(v._in), false);
+    }
+
+    /** Cause LISTENER to be told of each subsequent change to my vertices
+     *  and edges, until it is removed with removeListener. */
+    public void addListener(GraphListener<VLabel, ELabel> listener) {
+        _listeners.add(listener);
+    }
+
+    /** Stop telling LISTENER of changes to me. */
+    public void removeListener(GraphListener<VLabel, ELabel> listener) {
+        _listeners.remove(listener);
+    }
+
     /** Returns the natural ordering on T, as a Comparator.  For
      *  example, if intComp = Graph.<Integer>naturalOrder(), then
      *  intComp.compare(x1, y1) is <0 if x1<y1, ==0 if x1=y1, and >0
@@ -381,30 +555,278 @@ public abstract class Graph<VLabel, ELabel> {
         };
     }
 
-    /** Cause subsequent traversals and calls to edges() to visit or deliver
-     *  edges in sorted order, according to COMPARATOR. Subsequent
-     *  addition of edges may cause the edges to be reordered
-     *  arbitrarily.  */
+    /** Cause subsequent traversals and calls to edges(), outEdges(), and
+     *  inEdges() to visit or deliver edges in sorted order, according to
+     *  COMPARATOR.  The ordering stays in force as edges are added: each
+     *  new edge is inserted into place in the edge lists of its end
+     *  points, after any edges that compare equal to it, and the list of
+     *  all edges is re-sorted when next requested from edges() or
+     *  edgeStream(), so that adding an edge costs time proportional to
+     *  the degrees of its end points, not to edgeSize().  Edges that
+     *  compare equal are delivered in the order they were added. */
     public void orderEdges(Comparator<ELabel> comparator) {
         final Comparator<ELabel> temp = comparator;
-        Comparator<Edge> edgeComparator = new Comparator<Edge>() {
+        _edgeOrder = new Comparator<Edge>() {
             @Override
             public int compare(Edge e1, Edge e2) {
                 return temp.compare(e1.getLabel(), e2.getLabel());
             }
         };
-        Collections.sort(_edges, edgeComparator);
+        _edgesSorted = false;
+        for (Vertex v : _vertices) {
+            Collections.sort(v._out, _edgeOrder);
+            if (v._in != v._out) {
+                Collections.sort(v._in, _edgeOrder);
+            }
+        }
+    }
+
+    /** Returns _edges, first sorting it by _edgeOrder if edges have
+     *  been added out of order since it was last sorted.  Synchronized,
+     *  since it may change _edges on behalf of concurrent readers. */
+    private synchronized List<Edge> sortedEdges() {
+        if (!_edgesSorted) {
+            Collections.sort(_edges, _edgeOrder);
+            _edgesSorted = true;
+        }
+        return _edges;
+    }
+
+    /** Tell my listeners that the edges in DOOMED have been removed. */
+    private void edgesRemoved(Set<Edge> doomed) {
+        if (!_listeners.isEmpty()) {
+            for (Edge e : doomed) {
+                for (GraphListener<VLabel, ELabel> listener : _listeners) {
+                    listener.edgeRemoved(this, e);
+                }
+            }
+        }
+    }
+
+    /** Removes E from the adjacency lists and degrees of its end points. */
+    private void detach(Edge e) {
+        Vertex from = e.getV0(), to = e.getV1();
+        countDegrees(e, -1);
+        delete(from._out, e);
+        if (isDirected()) {
+            delete(to._in, e);
+        } else if (to != from) {
+            delete(to._out, e);
+        }
+    }
+
+    /** Adds DELTA to the degrees of the end points of E on account of E,
+     *  keeping my degree histograms in step. */
+    private void countDegrees(Edge e, int delta) {
+        Vertex from = e.getV0(), to = e.getV1();
+        if (isDirected()) {
+            _outHistogram.move(from._outDegree, from._outDegree + delta);
+            from._outDegree += delta;
+            _inHistogram.move(to._inDegree, to._inDegree + delta);
+            to._inDegree += delta;
+        } else {
+            _outHistogram.move(from._outDegree, from._outDegree + delta);
+            from._outDegree += delta;
+            _outHistogram.move(to._outDegree, to._outDegree + delta);
+            to._outDegree += delta;
+        }
+    }
+
+    /** Returns the distribution of my vertices' in-degrees. */
+    private DegreeHistogram inHistogram() {
+        return isDirected() ? _inHistogram : _outHistogram;
+    }
+
+    /** Returns my vertices in decreasing order of degree, as counted by
+     *  HISTOGRAM: in-degree if INCOMING, else out-degree. */
+    private Iteration<Vertex> byDegree(DegreeHistogram histogram,
+                                       boolean incoming) {
+        int max = histogram.max();
+        int[] start = new int[max + 2];
+        for (int d = max; d > 0; d -= 1) {
+            start[d - 1] = start[d] + histogram.count(d);
+        }
+        ArrayList<Vertex> sorted =
+            new ArrayList<Vertex>(Collections.nCopies(_vertices.size(),
+                                                      (Vertex) null));
+        for (Vertex v : _vertices) {
+            int d = incoming ? v._inDegree : v._outDegree;
+            sorted.set(start[d], v);
+            start[d] += 1;
+        }
+        return Iteration.iteration(sorted);
+    }
+
+    /** Inserts E into EDGES, which is in _edgeOrder if there is one, so as
+     *  to keep it that way. E goes after any edges equal to it. */
+    private void insert(List<Edge> edges, Edge e) {
+        if (_edgeOrder == null) {
+            edges.add(e);
+        } else {
+            int lo = 0, hi = edges.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (_edgeOrder.compare(edges.get(mid), e) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            edges.add(lo, e);
+        }
+    }
+
+    /** Removes E from EDGES, which is in _edgeOrder if there is one.
+     *  Returns true iff E was present. */
+    private boolean delete(List<Edge> edges, Edge e) {
+        int k = -1;
+        if (_edgeOrder != null) {
+            int lo = 0, hi = edges.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (_edgeOrder.compare(edges.get(mid), e) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            for (int i = lo; i < edges.size()
+                     && _edgeOrder.compare(edges.get(i), e) == 0; i += 1) {
+                if (edges.get(i) == e) {
+                    k = i;
+                    break;
+                }
+            }
+        }
+        if (k < 0) {
+            k = edges.lastIndexOf(e);
+        }
+        if (k < 0) {
+            return false;
+        }
+        edges.remove(k);
+        return true;
+    }
+
+    /** The cursor over my vertices' edge lists. */
+    private final class ListCursor implements EdgeCursor<VLabel, ELabel> {
+
+        /** A cursor over edges entering vertices iff INCOMING, else over
+         *  edges leaving them.  It is at no vertex until reset. */
+        ListCursor(boolean incoming) {
+            _incoming = incoming;
+        }
+
+        @Override
+        public void reset(Vertex v) {
+            _from = v;
+            _edge = null;
+            _list = _incoming ? v._in : v._out;
+            _k = -1;
+        }
+
+        @Override
+        public boolean next() {
+            _k += 1;
+            if (_k < _list.size()) {
+                _edge = _list.get(_k);
+                return true;
+            }
+            _k = _list.size();
+            _edge = null;
+            return false;
+        }
+
+        @Override
+        public Edge edge() {
+            return _edge;
+        }
+
+        @Override
+        public ELabel label() {
+            return _edge._label;
+        }
+
+        @Override
+        public Vertex targetVertex() {
+            return _edge._v0 == _from ? _edge._v1 : _edge._v0;
+        }
+
+        @Override
+        public int target() {
+            return targetVertex()._index;
+        }
+
+        /** True iff I run through edges entering vertices. */
+        private final boolean _incoming;
+
+        /** The vertex whose edges I deliver. */
+        private Vertex _from;
+
+        /** The current edge, or null if there is none. */
+        private Edge _edge;
+
+        /** The edges I am running through. */
+        private List<Edge> _list = Collections.emptyList();
+
+        /** The position of _edge in _list. */
+        private int _k;
+
     }
 
-    /** A Map that maps all the vertices in me to a set of all edges that
-     *  are incident to their associated key.
-     *  Note that in this structure, the same edge, as long as it is not a
-     *  self-edge, will appear twice, each time in separate key values.
-     *  If the same edge is somehow added to me, I will only keep one copy
-     *  in the set. */
-    private HashMap<Vertex, Set<Edge>> _mappings =
-            new HashMap<Vertex, Set<Edge>>();
+    /** An iteration over the vertices at the other end of a list of
+     *  edges from a given vertex. */
+    private class EndpointIteration extends Iteration<Vertex> {
 
-    /** The list of edges that I contain. */
+        /** An iteration over the ends of EDGES opposite to V. */
+        EndpointIteration(Vertex v, List<Edge> edges) {
+            _from = v;
+            _iter = edges.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _iter.hasNext();
+        }
+
+        @Override
+        public Vertex next() {
+            return _iter.next().getV(_from);
+        }
+
+        /** The vertex whose neighbors I deliver. */
+        private final Vertex _from;
+
+        /** The edges leading to those neighbors. */
+        private final Iterator<Edge> _iter;
+    }
+
+    /** All of my vertices.  Each vertex's _index is its position here;
+     *  removing a vertex moves the last vertex into its place. */
+    private ArrayList<Vertex> _vertices = new ArrayList<Vertex>();
+
+    /** The list of edges that I contain, in _edgeOrder if there is one
+     *  and _edgesSorted. */
     private List<Edge> _edges = new ArrayList<Edge>();
+
+    /** False iff _edges may be out of _edgeOrder, because edges have been
+     *  added out of order since it was last sorted. */
+    private boolean _edgesSorted = true;
+
+    /** The distribution of my vertices' out-degrees (of all degrees, in an
+     *  undirected graph). */
+    private final DegreeHistogram _outHistogram = new DegreeHistogram();
+
+    /** The distribution of my vertices' in-degrees.  Unused (always
+     *  empty) in an undirected graph. */
+    private final DegreeHistogram _inHistogram = new DegreeHistogram();
+
+    /** The listeners to be told of changes to me. */
+    private final ArrayList<GraphListener<VLabel, ELabel>> _listeners =
+        new ArrayList<GraphListener<VLabel, ELabel>>();
+
+    /** The order on edges installed by orderEdges, or null if none has
+     *  been.  The vertices' edge lists are kept sorted by it, and _edges
+     *  is sorted by it lazily. */
+    private Comparator<Edge> _edgeOrder;
 }
@@ -0,0 +1,28 @@
+package graph;
+
+/** An object that is told of each change to the structure of a graph
+ *  to which it has been added with Graph.addListener.  Each method is
+ *  called after the change is complete.
+ *  @author Conrad Shiao
+ */
+public interface GraphListener<VLabel, ELabel> {
+
+    /** Called after V has been added to G. */
+    void vertexAdded(Graph<VLabel, ELabel> G,
+                     Graph<VLabel, ELabel>.Vertex v);
+
+    /** Called after V, whose index was INDEX, has been removed from G,
+     *  following calls of edgeRemoved for each of its incident edges.
+     *  If V did not have the highest index in G, the vertex that did now
+     *  has index INDEX. */
+    void vertexRemoved(Graph<VLabel, ELabel> G,
+                       Graph<VLabel, ELabel>.Vertex v, int index);
+
+    /** Called after E has been added to G. */
+    void edgeAdded(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Edge e);
+
+    /** Called after E has been removed from G. */
+    void edgeRemoved(Graph<VLabel, ELabel> G,
+                     Graph<VLabel, ELabel>.Edge e);
+
+}
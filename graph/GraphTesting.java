@@ -1,7 +1,12 @@
 package graph;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Spliterator;
 import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -330,4 +335,236 @@ public class GraphTesting {
         assertEquals(errorMessage, two, temp.next());
         assertEquals(errorMessage, one, temp.next());
     }
+
+    @Test
+    public void testorderEdgesAdjacency() {
+        String errorMessage = "orderEdges does not order adjacency";
+        Graph<String, Integer> graph = new DirectedGraph<String, Integer>();
+        Graph<String, Integer>.Vertex hub = graph.add("hub"),
+                a = graph.add("a"), b = graph.add("b"), c = graph.add("c");
+        Graph<String, Integer>.Edge ab = graph.add(hub, a, 7),
+                bb = graph.add(hub, b, 3);
+        graph.orderEdges(testorderEdgesHelper());
+        Graph<String, Integer>.Edge cc = graph.add(hub, c, 5),
+                first = graph.add(hub, a, 1);
+        Iterator<Graph<String, Integer>.Edge> out = graph.outEdges(hub);
+        assertEquals(errorMessage, first, out.next());
+        assertEquals(errorMessage, bb, out.next());
+        assertEquals(errorMessage, cc, out.next());
+        assertEquals(errorMessage, ab, out.next());
+        assertFalse(errorMessage, out.hasNext());
+        Iterator<Graph<String, Integer>.Edge> cheapest =
+            graph.outEdges(hub, 2);
+        assertEquals(errorMessage, first, cheapest.next());
+        assertEquals(errorMessage, bb, cheapest.next());
+        assertFalse(errorMessage, cheapest.hasNext());
+        graph.remove(bb);
+        Iterator<Graph<String, Integer>.Vertex> succ = graph.successors(hub);
+        assertEquals(errorMessage, a, succ.next());
+        assertEquals(errorMessage, c, succ.next());
+        assertEquals(errorMessage, a, succ.next());
+        assertEquals(errorMessage, 3, graph.edgeSize());
+        assertEquals(errorMessage, first, graph.edges().next());
+        Graph<String, Integer>.Edge tie = graph.add(c, a, 5);
+        Iterator<Graph<String, Integer>.Edge> all = graph.edges();
+        assertEquals(errorMessage, first, all.next());
+        assertEquals(errorMessage, cc, all.next());
+        assertEquals(errorMessage, tie, all.next());
+        assertEquals(errorMessage, ab, all.next());
+        assertFalse(errorMessage, all.hasNext());
+    }
+
+    @Test
+    public void testDegreeDistribution() {
+        String errorMessage = "degree distribution wrong";
+        Graph<String, Integer> graph = new DirectedGraph<String, Integer>();
+        Graph<String, Integer>.Vertex one = graph.add("one"),
+                two = graph.add("two"), three = graph.add("three");
+        graph.add(one, two);
+        graph.add(one, three);
+        graph.add(one, one);
+        graph.add(two, three);
+        assertEquals(errorMessage, 3, graph.maxOutDegree());
+        assertEquals(errorMessage, 2, graph.maxInDegree());
+        assertArrayEquals(errorMessage, new int[] {1, 1, 0, 1},
+                          graph.outDegreeHistogram());
+        assertArrayEquals(errorMessage, new int[] {0, 2, 1},
+                          graph.inDegreeHistogram());
+        Iterator<Graph<String, Integer>.Vertex> order =
+            graph.verticesByOutDegree();
+        assertEquals(errorMessage, one, order.next());
+        assertEquals(errorMessage, two, order.next());
+        assertEquals(errorMessage, three, order.next());
+        graph.remove(one);
+        assertEquals(errorMessage, 1, graph.maxOutDegree());
+        assertArrayEquals(errorMessage, new int[] {1, 1},
+                          graph.inDegreeHistogram());
+        Graph<String, Integer> G = new UndirectedGraph<String, Integer>();
+        Graph<String, Integer>.Vertex a = G.add("a"), b = G.add("b");
+        Graph<String, Integer>.Edge loop = G.add(a, a);
+        G.add(a, b);
+        assertEquals(errorMessage, 3, G.maxInDegree());
+        assertArrayEquals(errorMessage, new int[] {0, 1, 0, 1},
+                          G.outDegreeHistogram());
+        G.remove(loop);
+        assertEquals(errorMessage, 1, G.maxOutDegree());
+        assertEquals(errorMessage, 1, G.inDegree(a));
+    }
+
+    @Test
+    public void testSubgraphViews() {
+        DirectedGraph<String, Integer> g = new DirectedGraph<String, Integer>();
+        Graph<String, Integer>.Vertex a = g.add("a"), b = g.add("b"),
+            c = g.add("c"), d = g.add("d");
+        final Graph<String, Integer>.Edge ab = g.add(a, b, 1);
+        g.add(b, c, 2);
+        g.add(a, c, 3);
+        g.add(c, d, 4);
+        g.add(d, a, 5);
+        final HashSet<Graph<String, Integer>.Edge> failed =
+            new HashSet<Graph<String, Integer>.Edge>();
+        Graph<String, Integer> up = Graphs.filtered(g, null,
+            new Predicate<Graph<String, Integer>.Edge>() {
+                @Override
+                public boolean test(Graph<String, Integer>.Edge e) {
+                    return !failed.contains(e);
+                }
+            });
+        assertEquals("wrong edge count", 5, up.edgeSize());
+        failed.add(ab);
+        assertEquals("failure not seen", 4, up.edgeSize());
+        assertFalse("failed edge present", up.contains(a, b));
+        assertEquals("wrong outDegree", 1, up.outDegree(a));
+        assertEquals("wrong inDegree", 0, up.inDegree(b));
+        assertEquals("wrong index limit", 4, up.indexLimit());
+        assertEquals("wrong index", g.index(c), up.index(c));
+        HashSet<Graph<String, Integer>.Vertex> region =
+            new HashSet<Graph<String, Integer>.Vertex>();
+        region.add(a);
+        region.add(b);
+        region.add(c);
+        Graph<String, Integer> sub = Graphs.induced(g, region);
+        assertEquals("wrong vertex count", 3, sub.vertexSize());
+        assertEquals("wrong edge count", 3, sub.edgeSize());
+        assertNull("vertex outside region", sub.vertex(g.index(d)));
+        assertEquals("wrong maxInDegree", 2, sub.maxInDegree());
+        assertArrayEquals("wrong histogram", new int[] { 1, 1, 1 },
+                          sub.inDegreeHistogram());
+        assertEquals("wrong order", c, sub.verticesByInDegree().next());
+        Iterator<Graph<String, Integer>.Vertex> preds = sub.predecessors(a);
+        assertFalse("edge from outside region", preds.hasNext());
+        Graph<String, Integer> both = Graphs.induced(up, region);
+        assertEquals("wrong edge count", 2, both.edgeSize());
+        try {
+            sub.add("e");
+            fail("view changed");
+        } catch (UnsupportedOperationException excp) {
+            /* Ignore UnsupportedOperationException */
+        }
+        try {
+            sub.removeListener(null);
+            fail("listener removed from view");
+        } catch (UnsupportedOperationException excp) {
+            /* Ignore UnsupportedOperationException */
+        }
+        g.add(b, a, 6);
+        assertEquals("change not seen", 4, sub.edgeSize());
+    }
+
+    @Test
+    public void testStreams() {
+        UndirectedGraph<Integer, Integer> g =
+            new UndirectedGraph<Integer, Integer>();
+        ArrayList<Graph<Integer, Integer>.Vertex> v =
+            new ArrayList<Graph<Integer, Integer>.Vertex>();
+        for (int i = 0; i < 1000; i += 1) {
+            v.add(g.add(i));
+        }
+        long expected = 0;
+        for (int i = 0; i < 3000; i += 1) {
+            g.add(v.get(i % 1000), v.get((7 * i) % 1000), i);
+            expected += i;
+        }
+        Spliterator<Graph<Integer, Integer>.Edge> split =
+            g.edgeStream().spliterator();
+        assertTrue("not sized", split.hasCharacteristics(
+            Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.DISTINCT));
+        assertEquals("wrong size", 3000, split.estimateSize());
+        assertEquals("wrong split", 1500, split.trySplit().estimateSize());
+        long total = g.edgeStream().parallel().mapToLong(
+            new ToLongFunction<Graph<Integer, Integer>.Edge>() {
+                @Override
+                public long applyAsLong(Graph<Integer, Integer>.Edge e) {
+                    return e.getLabel();
+                }
+            }).sum();
+        assertEquals("wrong label total", expected, total);
+        assertEquals("wrong vertex count", 1000,
+                     g.vertexStream().parallel().count());
+        assertEquals("wrong adjacency", g.outDegree(v.get(3)),
+                     g.outEdgeStream(v.get(3)).count());
+        assertEquals("wrong self-edges", 3, g.outEdgeStream(v.get(0)).count());
+        final Graph<Integer, Integer> view =
+            Graphs.filtered(g, new Predicate<Graph<Integer, Integer>.Vertex>() {
+                @Override
+                public boolean test(Graph<Integer, Integer>.Vertex x) {
+                    return x.getLabel() % 2 == 0;
+                }
+            }, null);
+        assertEquals("wrong view vertex count", 500,
+                     view.vertexStream().parallel().count());
+        assertEquals("wrong view edge count", view.edgeSize(),
+                     view.edgeStream().parallel().count());
+        long degrees = view.vertexStream().parallel().mapToLong(
+            new ToLongFunction<Graph<Integer, Integer>.Vertex>() {
+                @Override
+                public long applyAsLong(Graph<Integer, Integer>.Vertex x) {
+                    return view.outDegree(x);
+                }
+            }).sum();
+        assertEquals("wrong degree total", 2 * view.edgeSize(), degrees);
+    }
+
+    @Test
+    public void testEdgeCursor() {
+        UndirectedGraph<Integer, Integer> g =
+            new UndirectedGraph<Integer, Integer>();
+        ArrayList<Graph<Integer, Integer>.Vertex> v =
+            new ArrayList<Graph<Integer, Integer>.Vertex>();
+        for (int i = 0; i < 50; i += 1) {
+            v.add(g.add(i));
+        }
+        for (int i = 0; i < 200; i += 1) {
+            g.add(v.get(i % 50), v.get((3 * i) % 50), i);
+        }
+        Graph<Integer, Integer> view =
+            Graphs.filtered(g, new Predicate<Graph<Integer, Integer>.Vertex>() {
+                @Override
+                public boolean test(Graph<Integer, Integer>.Vertex x) {
+                    return x.getLabel() % 3 != 0;
+                }
+            }, null);
+        ArrayList<Graph<Integer, Integer>> graphs =
+            new ArrayList<Graph<Integer, Integer>>();
+        graphs.add(g);
+        graphs.add(view);
+        for (Graph<Integer, Integer> h : graphs) {
+            EdgeCursor<Integer, Integer> cursor = h.outCursor();
+            for (Graph<Integer, Integer>.Vertex x : h.vertices()) {
+                cursor.reset(x);
+                for (Graph<Integer, Integer>.Edge e : h.outEdges(x)) {
+                    assertTrue("cursor ended early", cursor.next());
+                    assertSame("wrong edge", e, cursor.edge());
+                    assertEquals("wrong label", e.getLabel(), cursor.label());
+                    assertSame("wrong target", e.getV(x),
+                               cursor.targetVertex());
+                    assertEquals("wrong index", h.index(e.getV(x)),
+                                 cursor.target());
+                }
+                assertFalse("cursor ran on", cursor.next());
+                assertFalse("cursor restarted", cursor.next());
+            }
+        }
+    }
+
 }
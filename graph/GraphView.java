@@ -0,0 +1,465 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/** A read-only graph presented on the fly from another (its base),
+ *  without copying.  Its vertices are vertices of the base graph, with
+ *  the same indices, so that indexLimit() is the base's and algorithms
+ *  that keep per-vertex arrays work unchanged.  A view reflects changes
+ *  made to its base; it cannot itself be changed, and it sends no
+ *  change notifications.
+ *
+ *  Subclasses supply vertices(), vertex(int), edges(), outEdges(V), and
+ *  inEdges(V), which are abstract here so that none can be left to the
+ *  (empty) storage of Graph.  Counts and degrees are computed from these
+ *  when asked for, in time proportional to what they count.
+ *  @author Conrad Shiao
+ */
+public abstract class GraphView<VLabel, ELabel> extends Graph<VLabel, ELabel> {
+
+    /** A view of BASE. */
+    GraphView(Graph<VLabel, ELabel> base) {
+        _base = base;
+    }
+
+    /** Returns the graph I view. */
+    public Graph<VLabel, ELabel> base() {
+        return _base;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return _base.isDirected();
+    }
+
+    @Override
+    public int index(Vertex v) {
+        return _base.index(v);
+    }
+
+    @Override
+    public int indexLimit() {
+        return _base.indexLimit();
+    }
+
+    /** Returns an iteration over my vertices. */
+    @Override
+    public abstract Iteration<Vertex> vertices();
+
+    /** Returns my vertex whose index is K, or null if there is none. */
+    @Override
+    public abstract Vertex vertex(int k);
+
+    /** Returns an iteration over my edges. */
+    @Override
+    public abstract Iteration<Edge> edges();
+
+    /** Returns an iteration over my edges leaving V. */
+    @Override
+    public abstract Iteration<Edge> outEdges(Vertex v);
+
+    /** Returns an iteration over my edges entering V. */
+    @Override
+    public abstract Iteration<Edge> inEdges(Vertex v);
+
+    @Override
+    public int vertexSize() {
+        return count(vertices());
+    }
+
+    @Override
+    public int edgeSize() {
+        return count(edges());
+    }
+
+    @Override
+    public int outDegree(Vertex v) {
+        int count = 0;
+        for (Edge e : outEdges(v)) {
+            count += 1;
+            if (!isDirected() && e.getV0() == e.getV1()) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int inDegree(Vertex v) {
+        return isDirected() ? count(inEdges(v)) : outDegree(v);
+    }
+
+    @Override
+    public int maxOutDegree() {
+        return outDegreeHistogram().length - 1;
+    }
+
+    @Override
+    public int maxInDegree() {
+        return inDegreeHistogram().length - 1;
+    }
+
+    @Override
+    public int[] outDegreeHistogram() {
+        return histogram(false);
+    }
+
+    @Override
+    public int[] inDegreeHistogram() {
+        return histogram(true);
+    }
+
+    @Override
+    public Iteration<Vertex> verticesByOutDegree() {
+        return byDegree(false);
+    }
+
+    @Override
+    public Iteration<Vertex> verticesByInDegree() {
+        return byDegree(true);
+    }
+
+    @Override
+    public boolean contains(Vertex u, Vertex v) {
+        for (Edge e : outEdges(u)) {
+            if (e.getV(u) == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Vertex u, Vertex v, ELabel label) {
+        for (Edge e : outEdges(u)) {
+            if (e.getV(u) == v && e.getLabel() == label) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iteration<Vertex> successors(Vertex v) {
+        return ends(v, outEdges(v));
+    }
+
+    @Override
+    public Iteration<Vertex> predecessors(Vertex v) {
+        return ends(v, inEdges(v));
+    }
+
+    @Override
+    public Iteration<Edge> outEdges(Vertex v, int k) {
+        final Iteration<Edge> edges = outEdges(v);
+        final int limit = k;
+        return new Iteration<Edge>() {
+            @Override
+            public boolean hasNext() {
+                return _delivered < limit && edges.hasNext();
+            }
+
+            @Override
+            public Edge next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _delivered += 1;
+                return edges.next();
+            }
+
+            /** The number of edges delivered so far. */
+            private int _delivered;
+        };
+    }
+
+    /** Returns a stream of my vertices, which splits evenly by index
+     *  range (though its size is not known in advance). */
+    @Override
+    public Stream<Vertex> vertexStream() {
+        return IntStream.range(0, indexLimit())
+            .mapToObj(new IntFunction<Vertex>() {
+                @Override
+                public Vertex apply(int k) {
+                    return vertex(k);
+                }
+            })
+            .filter(new Predicate<Vertex>() {
+                @Override
+                public boolean test(Vertex v) {
+                    return v != null;
+                }
+            });
+    }
+
+    @Override
+    public Stream<Edge> edgeStream() {
+        return stream(edges());
+    }
+
+    @Override
+    public Stream<Edge> outEdgeStream(Vertex v) {
+        return stream(outEdges(v));
+    }
+
+    @Override
+    public Stream<Edge> inEdgeStream(Vertex v) {
+        return stream(inEdges(v));
+    }
+
+    /** Returns a cursor that runs through outEdges(V) for each vertex V
+     *  it is reset to. */
+    @Override
+    public EdgeCursor<VLabel, ELabel> outCursor() {
+        return new IterationCursor<VLabel, ELabel>(this, false);
+    }
+
+    /** Returns a cursor that runs through inEdges(V) for each vertex V
+     *  it is reset to. */
+    @Override
+    EdgeCursor<VLabel, ELabel> inCursor() {
+        return new IterationCursor<VLabel, ELabel>(this, true);
+    }
+
+    /** Unsupported: views are read-only.  Change the base graph
+     *  instead. */
+    @Override
+    public Vertex add(VLabel label) {
+        throw readOnly();
+    }
+
+    /** Unsupported: views are read-only. */
+    @Override
+    public Edge add(Vertex from, Vertex to, ELabel label) {
+        throw readOnly();
+    }
+
+    /** Unsupported: views are read-only. */
+    @Override
+    public void remove(Vertex v) {
+        throw readOnly();
+    }
+
+    /** Unsupported: views are read-only. */
+    @Override
+    public void remove(Edge e) {
+        throw readOnly();
+    }
+
+    /** Unsupported: views are read-only. */
+    @Override
+    public void remove(Vertex v1, Vertex v2) {
+        throw readOnly();
+    }
+
+    /** Unsupported: a view does not order its base's edges.  Order the
+     *  base graph's edges instead. */
+    @Override
+    public void orderEdges(Comparator<ELabel> comparator) {
+        throw readOnly();
+    }
+
+    /** Unsupported: views send no change notifications.  Listen to the
+     *  base graph instead. */
+    @Override
+    public void addListener(GraphListener<VLabel, ELabel> listener) {
+        throw readOnly();
+    }
+
+    /** Unsupported: views send no change notifications. */
+    @Override
+    public void removeListener(GraphListener<VLabel, ELabel> listener) {
+        throw readOnly();
+    }
+
+    /** A cursor for any graph, running through the Iterations that its
+     *  outEdges or inEdges methods deliver. */
+    static final class IterationCursor<VLabel, ELabel>
+        implements EdgeCursor<VLabel, ELabel> {
+
+        /** A cursor over the edges of G entering vertices iff INCOMING,
+         *  else over those leaving them. */
+        IterationCursor(Graph<VLabel, ELabel> G, boolean incoming) {
+            _graph = G;
+            _incoming = incoming;
+        }
+
+        @Override
+        public void reset(Graph<VLabel, ELabel>.Vertex v) {
+            _from = v;
+            _edge = null;
+            _iter = _incoming ? _graph.inEdges(v) : _graph.outEdges(v);
+        }
+
+        @Override
+        public boolean next() {
+            _edge = _iter != null && _iter.hasNext() ? _iter.next() : null;
+            return _edge != null;
+        }
+
+        @Override
+        public Graph<VLabel, ELabel>.Edge edge() {
+            return _edge;
+        }
+
+        @Override
+        public ELabel label() {
+            return _edge.getLabel();
+        }
+
+        @Override
+        public Graph<VLabel, ELabel>.Vertex targetVertex() {
+            return _edge.getV(_from);
+        }
+
+        @Override
+        public int target() {
+            return _graph.index(targetVertex());
+        }
+
+        /** The graph whose edges I deliver. */
+        private final Graph<VLabel, ELabel> _graph;
+        /** True iff I run through edges entering vertices. */
+        private final boolean _incoming;
+        /** The vertex whose edges I deliver. */
+        private Graph<VLabel, ELabel>.Vertex _from;
+        /** The current edge, or null if there is none. */
+        private Graph<VLabel, ELabel>.Edge _edge;
+        /** The edges I am running through. */
+        private Iteration<Graph<VLabel, ELabel>.Edge> _iter;
+    }
+
+    /** An iteration over those items delivered by another iteration that
+     *  satisfy accept. */
+    abstract static class FilteredIteration<T> extends Iteration<T> {
+
+        /** The items of ITEMS that satisfy accept. */
+        FilteredIteration(Iterator<T> items) {
+            _items = items;
+        }
+
+        /** Returns true iff X is to be delivered. */
+        abstract boolean accept(T x);
+
+        @Override
+        public boolean hasNext() {
+            while (!_ready && _items.hasNext()) {
+                T x = _items.next();
+                if (accept(x)) {
+                    _next = x;
+                    _ready = true;
+                }
+            }
+            return _ready;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            _ready = false;
+            return _next;
+        }
+
+        /** The underlying items. */
+        private final Iterator<T> _items;
+        /** The next item to deliver, if _ready. */
+        private T _next;
+        /** True iff _next holds an undelivered item. */
+        private boolean _ready;
+    }
+
+    /** Returns a sequential stream of the distinct items delivered by
+     *  ITEMS. */
+    static <T> Stream<T> stream(Iterator<T> items) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            items, Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /** Returns the number of items delivered by ITEMS. */
+    private static int count(Iterator<?> items) {
+        int count = 0;
+        while (items.hasNext()) {
+            items.next();
+            count += 1;
+        }
+        return count;
+    }
+
+    /** Returns an iteration over the ends opposite V of EDGES. */
+    private Iteration<Vertex> ends(final Vertex v,
+                                   final Iteration<Edge> edges) {
+        return new Iteration<Vertex>() {
+            @Override
+            public boolean hasNext() {
+                return edges.hasNext();
+            }
+
+            @Override
+            public Vertex next() {
+                return edges.next().getV(v);
+            }
+        };
+    }
+
+    /** Returns the degree distribution of my vertices: of in-degrees iff
+     *  INCOMING. */
+    private int[] histogram(boolean incoming) {
+        int[] counts = new int[1];
+        for (Vertex v : vertices()) {
+            int d = incoming ? inDegree(v) : outDegree(v);
+            if (d >= counts.length) {
+                int[] larger = new int[Math.max(d + 1, 2 * counts.length)];
+                System.arraycopy(counts, 0, larger, 0, counts.length);
+                counts = larger;
+            }
+            counts[d] += 1;
+        }
+        int max = counts.length - 1;
+        while (max > 0 && counts[max] == 0) {
+            max -= 1;
+        }
+        int[] result = new int[max + 1];
+        System.arraycopy(counts, 0, result, 0, max + 1);
+        return result;
+    }
+
+    /** Returns my vertices in decreasing order of in-degree iff
+     *  INCOMING, else of out-degree. */
+    private Iteration<Vertex> byDegree(final boolean incoming) {
+        ArrayList<Vertex> sorted = new ArrayList<Vertex>();
+        for (Vertex v : vertices()) {
+            sorted.add(v);
+        }
+        Collections.sort(sorted, new Comparator<Vertex>() {
+            @Override
+            public int compare(Vertex v0, Vertex v1) {
+                return incoming ? inDegree(v1) - inDegree(v0)
+                    : outDegree(v1) - outDegree(v0);
+            }
+        });
+        return Iteration.iteration(sorted);
+    }
+
+    /** Returns the exception thrown by attempts to change me. */
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("graph views are "
+                                                 + "read-only");
+    }
+
+    /** The graph I view. */
+    private final Graph<VLabel, ELabel> _base;
+
+}
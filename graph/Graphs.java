@@ -3,16 +3,68 @@ package graph;
 import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.PriorityQueue;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Predicate;
+import jdk.jfr.EventType;
 
 /** Assorted graph algorithms.
  *  @author Conrad Shiao
  */
 public final class Graphs {
 
+    /* Views */
+
+    /** Returns a view of G containing only the vertices that satisfy
+     *  VERTEXFILTER and the edges between them that satisfy EDGEFILTER
+     *  (either of which may be null to admit everything).  Nothing is
+     *  copied: the view consults G and the filters as it is used, and
+     *  so follows later changes to G.  Vertices keep their indices in
+     *  G. */
+    public static <VLabel, ELabel> SubgraphView<VLabel, ELabel>
+    filtered(Graph<VLabel, ELabel> G,
+             Predicate<? super Graph<VLabel, ELabel>.Vertex> vertexFilter,
+             Predicate<? super Graph<VLabel, ELabel>.Edge> edgeFilter) {
+        return new SubgraphView<VLabel, ELabel>(G, vertexFilter,
+                                                edgeFilter);
+    }
+
+    /** Returns a view of the subgraph of G induced by VERTICES: the
+     *  vertices of G in VERTICES and all edges of G between them.  The
+     *  view consults VERTICES (which should have a fast contains
+     *  method) as it is used, and so follows changes to it and to G. */
+    public static <VLabel, ELabel> SubgraphView<VLabel, ELabel>
+    induced(Graph<VLabel, ELabel> G,
+            final Collection<? extends Graph<VLabel, ELabel>.Vertex>
+                vertices) {
+        return new SubgraphView<VLabel, ELabel>(G,
+            new Predicate<Graph<VLabel, ELabel>.Vertex>() {
+                @Override
+                public boolean test(Graph<VLabel, ELabel>.Vertex v) {
+                    return vertices.contains(v);
+                }
+            }, null);
+    }
+
+    /** Returns the reversal (transpose) of G: a view in which each edge
+     *  of G runs the other way, built in constant time without copying
+     *  (see ReversedView).  The reversal of an undirected graph is the
+     *  graph itself, and the reversal of a reversal is the original
+     *  graph. */
+    public static <VLabel, ELabel> Graph<VLabel, ELabel>
+    reversed(Graph<VLabel, ELabel> G) {
+        if (!G.isDirected()) {
+            return G;
+        }
+        if (G instanceof ReversedView) {
+            return ((ReversedView<VLabel, ELabel>) G).base();
+        }
+        return new ReversedView<VLabel, ELabel>(G);
+    }
+
     /* A* Search Algorithms */
 
     /** Returns a path from V0 to V1 in G of minimum weight, according
@@ -39,51 +91,137 @@ public final class Graphs {
                  Distancer<? super VLabel> h,
                  Weighter<? super VLabel> vweighter,
                  Weighting<? super ELabel> eweighter) {
-        HashMap<Graph<VLabel, ELabel>.Vertex, Double> fScores =
-                new HashMap<Graph<VLabel, ELabel>.Vertex, Double>();
-        ArrayList<Graph<VLabel, ELabel>.Vertex> closed =
-                new ArrayList<Graph<VLabel, ELabel>.Vertex>();
-        PriorityQueue<Graph<VLabel, ELabel>.Vertex> openList = new
-            PriorityQueue<Graph<VLabel, ELabel>.Vertex>(
-                    G.vertexSize(), helper(fScores));
-        HashMap<Graph<VLabel, ELabel>.Vertex,
-        Graph<VLabel, ELabel>.Edge> path =
-               new HashMap<Graph<VLabel, ELabel>.Vertex,
-               Graph<VLabel, ELabel>.Edge>();
+        return aStar(G, V0, V1,
+                     new Estimate<VLabel>(h, V1.getLabel(), 0),
+                     vweighter, eweighter);
+    }
+
+    /** Returns shortestPath(G, V0, V1, H, VWEIGHTER, EWEIGHTER), with
+     *  the same side effects, but calls H at most once for each vertex
+     *  examined, however many edges reach it.  This pays when H is
+     *  expensive (as, for example, great-circle distances are). */
+    public static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    memoizedShortestPath(Graph<VLabel, ELabel> G,
+                         Graph<VLabel, ELabel>.Vertex V0,
+                         Graph<VLabel, ELabel>.Vertex V1,
+                         Distancer<? super VLabel> h,
+                         Weighter<? super VLabel> vweighter,
+                         Weighting<? super ELabel> eweighter) {
+        return aStar(G, V0, V1,
+                     new Estimate<VLabel>(h, V1.getLabel(),
+                                          Math.max(G.indexLimit(), 1)),
+                     vweighter, eweighter);
+    }
+
+    /** Returns shortestPath(G, V0, V1, H, VWEIGHTER, EWEIGHTER), with
+     *  the same side effects, where H.dist(v, V1) is replaced by
+     *  POTENTIAL.applyAsDouble(k) for the vertex v with index k (see
+     *  Graph.index), and must satisfy the same conditions.  The
+     *  potential might look up precomputed values or compute from
+     *  coordinates kept in arrays, avoiding labels altogether. */
+    public static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    shortestPath(Graph<VLabel, ELabel> G,
+                 Graph<VLabel, ELabel>.Vertex V0,
+                 Graph<VLabel, ELabel>.Vertex V1,
+                 IntToDoubleFunction potential,
+                 Weighter<? super VLabel> vweighter,
+                 Weighting<? super ELabel> eweighter) {
+        return aStar(G, V0, V1, new Estimate<VLabel>(potential),
+                     vweighter, eweighter);
+    }
+
+    /** Returns shortestPath(G, V0, V1, POTENTIAL, VWEIGHTER, EWEIGHTER),
+     *  where POTENTIAL[k] estimates the distance to V1 from the vertex
+     *  whose index is k. */
+    public static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    shortestPath(Graph<VLabel, ELabel> G,
+                 Graph<VLabel, ELabel>.Vertex V0,
+                 Graph<VLabel, ELabel>.Vertex V1,
+                 final double[] potential,
+                 Weighter<? super VLabel> vweighter,
+                 Weighting<? super ELabel> eweighter) {
+        return shortestPath(G, V0, V1, new IntToDoubleFunction() {
+            @Override
+            public double applyAsDouble(int k) {
+                return potential[k];
+            }
+        }, vweighter, eweighter);
+    }
+
+    /** Returns a path from V0 to V1 in G of minimum weight according to
+     *  EWEIGHTER, found by A* search guided by ESTIMATE, with the side
+     *  effects on VWEIGHTER described for shortestPath. */
+    private static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    aStar(Graph<VLabel, ELabel> G,
+          Graph<VLabel, ELabel>.Vertex V0,
+          Graph<VLabel, ELabel>.Vertex V1,
+          Estimate<VLabel> estimate,
+          Weighter<? super VLabel> vweighter,
+          Weighting<? super ELabel> eweighter) {
+        int limit = Math.max(G.indexLimit(), 1);
+        double[] gScores = new double[limit];
+        double[] fScores = new double[limit];
+        boolean[] closed = new boolean[limit];
+        Object[] path = new Object[limit];
+        IndexedHeap openList = new IndexedHeap(limit);
+        EdgeCursor<VLabel, ELabel> cursor = G.outCursor();
+        SearchEvent event = startSearch();
+        boolean instrumented = event != null;
+        long startTime = instrumented ? System.nanoTime() : 0;
+        long settled = 0, relaxed = 0, pushes = 1, decreaseKeys = 0;
         initializeVertexValues(G, vweighter);
-        openList.add(V0);
+        int start = G.index(V0), goal = G.index(V1);
         vweighter.setWeight(V0.getLabel(), 0.0);
-        double fScoreOfV0 = h.dist(V0.getLabel(), V1.getLabel());
-        fScores.put(V0, fScoreOfV0);
+        fScores[start] = estimate.at(start, V0.getLabel());
+        openList.push(start, fScores[start]);
+        List<Graph<VLabel, ELabel>.Edge> result = null;
         while (!openList.isEmpty()) {
-            Graph<VLabel, ELabel>.Vertex curr = openList.element();
-            if (curr == V1) {
-                return reconstructPath(path, V1);
+            int curr = openList.pop();
+            if (curr == goal) {
+                result = reconstructPath(G, path, V1);
+                break;
             }
-            openList.remove();
-            closed.add(curr);
-            for (Graph<VLabel, ELabel>.Edge e : G.isDirected()
-                    ? G.outEdges(curr) : G.edges(curr)) {
-                Graph<VLabel, ELabel>.Vertex neighbor = e.getV(curr);
-                double tempGScore = vweighter.weight(curr.getLabel())
-                        + eweighter.weight(e.getLabel());
-                double tempFScore = tempGScore
-                        + h.dist(neighbor.getLabel(), V1.getLabel());
-                if (closed.contains(neighbor)
-                        && tempFScore >= fScores.get(neighbor)) {
+            closed[curr] = true;
+            settled += 1;
+            double gScore = gScores[curr];
+            cursor.reset(G.vertex(curr));
+            while (cursor.next()) {
+                int neighbor = cursor.target();
+                if (neighbor >= closed.length) {
+                    int size = Math.max(neighbor + 1, 2 * closed.length);
+                    gScores = Arrays.copyOf(gScores, size);
+                    fScores = Arrays.copyOf(fScores, size);
+                    closed = Arrays.copyOf(closed, size);
+                    path = Arrays.copyOf(path, size);
+                }
+                VLabel label = cursor.targetVertex().getLabel();
+                double tempGScore = gScore + eweighter.weight(cursor.label());
+                double tempFScore = tempGScore + estimate.at(neighbor, label);
+                relaxed += 1;
+                boolean open = openList.contains(neighbor);
+                if (closed[neighbor] && tempFScore >= fScores[neighbor]) {
                     continue;
-                } else if (!openList.contains(neighbor)
-                        || tempFScore < fScores.get(neighbor)) {
-                    path.put(neighbor, e);
-                    fScores.put(neighbor,  tempFScore);
-                    vweighter.setWeight(neighbor.getLabel(), tempGScore);
-                    if (!openList.contains(neighbor)) {
-                        openList.add(neighbor);
+                } else if (!open || tempFScore < fScores[neighbor]) {
+                    path[neighbor] = cursor.edge();
+                    fScores[neighbor] = tempFScore;
+                    gScores[neighbor] = tempGScore;
+                    vweighter.setWeight(label, tempGScore);
+                    openList.push(neighbor, tempFScore);
+                    if (!open) {
+                        pushes += 1;
+                    } else {
+                        decreaseKeys += 1;
                     }
                 }
             }
         }
-        return null;
+        if (instrumented) {
+            report(event, new SearchStats("shortestPath",
+                                          System.nanoTime() - startTime,
+                                          settled, relaxed, pushes,
+                                          decreaseKeys, estimate.calls()));
+        }
+        return result;
     }
 
     /** Initializes all the vertices of graph G of with edge labels of type
@@ -97,45 +235,96 @@ public final class Graphs {
     }
 
     /** Returns a list of edges that correspond to the minimum and best path
-     *  to END for the shortestPath method, grabbing edges from PATH
-     *  in a Graph whose vertices' labels are of type VLABEL and whose
-     *  edges' labels are of type ELABEL. */
+     *  to END for the shortestPath method, grabbing edges from PATH (indexed
+     *  by vertex index in G) in a Graph whose vertices' labels are of type
+     *  VLABEL and whose edges' labels are of type ELABEL. */
+    @SuppressWarnings("unchecked")
     private static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
-    reconstructPath(Map<Graph<VLabel, ELabel>.Vertex,
-            Graph<VLabel, ELabel>.Edge> path,
-            Graph<VLabel, ELabel>.Vertex end) {
+    reconstructPath(Graph<VLabel, ELabel> G, Object[] path,
+                    Graph<VLabel, ELabel>.Vertex end) {
         List<Graph<VLabel, ELabel>.Edge> best =
                 new ArrayList<Graph<VLabel, ELabel>.Edge>();
-        Graph<VLabel, ELabel>.Edge from = path.get(end);
-        Graph<VLabel, ELabel>.Vertex prev = from.getV(end);
-        while (true) {
+        Graph<VLabel, ELabel>.Vertex prev = end;
+        Graph<VLabel, ELabel>.Edge from =
+            (Graph<VLabel, ELabel>.Edge) path[G.index(prev)];
+        while (from != null) {
             best.add(from);
-            from = path.get(prev);
-            if (from == null) {
-                break;
-            }
             prev = from.getV(prev);
+            from = (Graph<VLabel, ELabel>.Edge) path[G.index(prev)];
         }
         Collections.reverse(best);
         return best;
     }
 
-    /** Returns a comparator used for the priority queue in shortestPath to
-     *  help find the next element, which will have the lowest F score on a
-     *  VLABEL, according to the formula F = G + H, where G is the actual
-     *  distance traveled using an edge's ELABEL and H is
-     *  the heuristic we use. This method references the mappings of FSCORES
-     *  to find the appropriate F score values for a given vertex of the graph.
-     *  Assumes that all vertices used as arguments will be keys in FSCORES. */
-    private static <VLabel, ELabel> Comparator<Graph<VLabel, ELabel>.Vertex>
-    helper(final Map<Graph<VLabel, ELabel>.Vertex, Double> fScores) {
-        return new Comparator<Graph<VLabel, ELabel>.Vertex>() {
-            @Override
-            public int compare(Graph<VLabel, ELabel>.Vertex x,
-                    Graph<VLabel, ELabel>.Vertex y) {
-                return Double.compare(fScores.get(x), fScores.get(y));
+    /** The heuristic of an A* search toward one goal, as a function of
+     *  vertex index (and label). */
+    private static final class Estimate<VLabel> {
+
+        /** Estimates given by H.dist(label, GOAL).  If LIMIT is positive,
+         *  they are remembered by vertex index (in an array of initial
+         *  size LIMIT), so that H is called at most once for each vertex;
+         *  otherwise H is called on every request. */
+        Estimate(Distancer<? super VLabel> h, VLabel goal, int limit) {
+            _h = h;
+            _goal = goal;
+            _potential = null;
+            if (limit > 0) {
+                _cache = new double[limit];
+                Arrays.fill(_cache, Double.NaN);
+            } else {
+                _cache = null;
             }
-        };
+        }
+
+        /** Estimates given by POTENTIAL on vertex indices. */
+        Estimate(IntToDoubleFunction potential) {
+            _h = null;
+            _goal = null;
+            _potential = potential;
+            _cache = null;
+        }
+
+        /** Returns the estimated distance to the goal from the vertex with
+         *  index K and label LABEL. */
+        double at(int k, VLabel label) {
+            if (_potential != null) {
+                return _potential.applyAsDouble(k);
+            } else if (_cache == null) {
+                _calls += 1;
+                return _h.dist(label, _goal);
+            } else if (k >= _cache.length) {
+                int size = _cache.length;
+                _cache = Arrays.copyOf(_cache, Math.max(k + 1, 2 * size));
+                Arrays.fill(_cache, size, _cache.length, Double.NaN);
+            }
+            double result = _cache[k];
+            if (Double.isNaN(result)) {
+                _calls += 1;
+                result = _cache[k] = _h.dist(label, _goal);
+            }
+            return result;
+        }
+
+        /** Returns the number of calls made on the Distancer. */
+        long calls() {
+            return _calls;
+        }
+
+        /** The Distancer consulted, or null. */
+        private final Distancer<? super VLabel> _h;
+
+        /** The label of the goal vertex, for _h. */
+        private final VLabel _goal;
+
+        /** The potential function consulted, or null. */
+        private final IntToDoubleFunction _potential;
+
+        /** Remembered estimates by vertex index (NaN if not yet known), or
+         *  null if estimates are not remembered. */
+        private double[] _cache;
+
+        /** The number of calls made on _h. */
+        private long _calls;
     }
 
     /** Returns a path from V0 to V1 in G of minimum weight, according
@@ -166,63 +355,497 @@ public final class Graphs {
                  Graph<VLabel, ELabel>.Vertex V0,
                  Graph<VLabel, ELabel>.Vertex V1,
                  Distancer<? super VLabel> h) {
-        HashMap<Graph<VLabel, ELabel>.Vertex, Double> fScores =
-                new HashMap<Graph<VLabel, ELabel>.Vertex, Double>();
-        PriorityQueue<Graph<VLabel, ELabel>.Vertex> openList =
-                new PriorityQueue<Graph<VLabel, ELabel>.Vertex>
-            (G.vertexSize(), helper(fScores));
-        List<Graph<VLabel, ELabel>.Vertex> closed =
-                new ArrayList<Graph<VLabel, ELabel>.Vertex>();
-        HashMap<Graph<VLabel, ELabel>.Vertex,
-        Graph<VLabel, ELabel>.Edge> path =
-                new HashMap<Graph<VLabel, ELabel>.Vertex,
-                Graph<VLabel, ELabel>.Edge>();
-        initializeVertexValues(G);
-        openList.add(V0);
-        double gScore = 0.0;
-        double fScore = gScore + h.dist(V0.getLabel(), V1.getLabel());
-        V0.getLabel().setWeight(gScore);
-        fScores.put(V0, fScore);
-        while (!openList.isEmpty()) {
-            Graph<VLabel, ELabel>.Vertex curr = openList.element();
-            if (curr == V1) {
-                return reconstructPath(path, V1);
+        return shortestPath(G, V0, V1, h, new Weighter<VLabel>() {
+            @Override
+            public double weight(VLabel x) {
+                return x.weight();
             }
-            openList.remove();
-            closed.add(curr);
-            for (Graph<VLabel, ELabel>.Edge e : G.outEdges(curr)) {
-                Graph<VLabel, ELabel>.Vertex neighbor = e.getV(curr);
-                double tempGScore = curr.getLabel().weight()
-                        + e.getLabel().weight();
-                double tempFScore = tempGScore + h.dist(neighbor.getLabel(),
-                        V1.getLabel());
-                if (closed.contains(neighbor)
-                        && tempFScore >= fScores.get(neighbor)) {
-                    continue;
-                } else if (!openList.contains(neighbor)
-                        || tempFScore < fScores.get(neighbor)) {
-                    path.put(neighbor, e);
-                    fScores.put(neighbor, tempFScore);
-                    neighbor.getLabel().setWeight(tempGScore);
-                    if (!openList.contains(neighbor)) {
-                        openList.add(neighbor);
-                    }
-                }
+
+            @Override
+            public void setWeight(VLabel x, double v) {
+                x.setWeight(v);
             }
+        }, new Weighting<ELabel>() {
+            @Override
+            public double weight(ELabel x) {
+                return x.weight();
+            }
+        });
+    }
+
+    /* Memory-Bounded Searches */
+
+    /** Returns a path from V0 to V1 in G of minimum weight according to
+     *  the non-negative edge weighter EWEIGHTER, or null if there is
+     *  none, where H satisfies condition (a) of shortestPath.  Uses
+     *  IDA*: repeated depth-first searches, each abandoning paths whose
+     *  weight plus estimate exceeds a bound that rises from search to
+     *  search.  Memory is proportional to the length of the path, but
+     *  vertices may be expanded many times; integral (or few distinct)
+     *  weights keep the number of searches down.  Proving that there is
+     *  no path means trying every simple path from V0, which takes time
+     *  exponential in the size of the part of G reachable from V0; when
+     *  V1 may be unreachable and O(V) memory is affordable, check first
+     *  (for example with withinHops). */
+    public static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    idaStar(Graph<VLabel, ELabel> G,
+            Graph<VLabel, ELabel>.Vertex V0,
+            Graph<VLabel, ELabel>.Vertex V1,
+            Distancer<? super VLabel> h,
+            Weighting<? super ELabel> eweighter) {
+        return MemoryBoundedSearch.idaStar(G, V0, V1, h, eweighter);
+    }
+
+    /** Returns a path from V0 to V1 in G of minimum weight according to
+     *  the non-negative edge weighter EWEIGHTER among those with fewer
+     *  than MAXNODES vertices, or null if there is none, where H
+     *  satisfies condition (a) of shortestPath.  Uses SMA*, which
+     *  behaves like A* until it holds MAXNODES search nodes, and then
+     *  makes room by forgetting its least promising leaves, keeping
+     *  their best estimates in their parents so that they are
+     *  regenerated only when nothing better remains. */
+    public static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    smaStar(Graph<VLabel, ELabel> G,
+            Graph<VLabel, ELabel>.Vertex V0,
+            Graph<VLabel, ELabel>.Vertex V1,
+            Distancer<? super VLabel> h,
+            Weighting<? super ELabel> eweighter, int maxNodes) {
+        return MemoryBoundedSearch.smaStar(G, V0, V1, h, eweighter,
+                                           maxNodes);
+    }
+
+    /* Bounded Searches */
+
+    /** Returns the vertices of G within distance RADIUS of SOURCE
+     *  according to the non-negative edge weighter EWEIGHTER (an
+     *  isochrone), each mapped to its distance, in order of increasing
+     *  distance.  The search stops at the radius, so that its cost
+     *  depends on the number of vertices returned and their edges, not
+     *  on the size of G. */
+    public static <VLabel, ELabel>
+    LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Double>
+    withinDistance(Graph<VLabel, ELabel> G,
+                   Graph<VLabel, ELabel>.Vertex source, double radius,
+                   Weighting<? super ELabel> eweighter) {
+        return boundedShortestPaths(G, source, radius, Integer.MAX_VALUE,
+                                    eweighter);
+    }
+
+    /** Returns the COUNT vertices of G nearest to SOURCE (fewer if fewer
+     *  are reachable), including SOURCE itself, according to the
+     *  non-negative edge weighter EWEIGHTER, mapped to their distances
+     *  as for withinDistance. */
+    public static <VLabel, ELabel>
+    LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Double>
+    nearest(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex source,
+            int count, Weighting<? super ELabel> eweighter) {
+        return boundedShortestPaths(G, source, Double.POSITIVE_INFINITY,
+                                    count, eweighter);
+    }
+
+    /** Returns the vertices of G within distance RADIUS of SOURCE
+     *  according to the non-negative edge weighter EWEIGHTER, as for
+     *  withinDistance, but at most COUNT of them (the nearest). */
+    public static <VLabel, ELabel>
+    LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Double>
+    boundedShortestPaths(Graph<VLabel, ELabel> G,
+                         Graph<VLabel, ELabel>.Vertex source,
+                         double radius, int count,
+                         Weighting<? super ELabel> eweighter) {
+        return BoundedSearch.dijkstra(G, source, eweighter, radius, count);
+    }
+
+    /** Returns the vertices of G that can be reached from SOURCE by
+     *  paths of at most HOPS edges, each mapped to the least number of
+     *  edges on such a path, in order of increasing number. */
+    public static <VLabel, ELabel>
+    LinkedHashMap<Graph<VLabel, ELabel>.Vertex, Integer>
+    withinHops(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex source,
+               int hops) {
+        return BoundedSearch.breadthFirst(G, source, hops);
+    }
+
+    /* K Shortest Paths */
+
+    /** Returns up to K paths from V0 to V1 in G that visit no vertex
+     *  twice, in order of increasing weight according to the
+     *  non-negative edge weighter EWEIGHTER: the shortest such path, the
+     *  next shortest, and so on.  Fewer than K are returned only if
+     *  there are no more.  Uses Yen's algorithm with the spur searches
+     *  of each round running in parallel on Parallel.threads()
+     *  threads. */
+    public static <VLabel, ELabel> List<List<Graph<VLabel, ELabel>.Edge>>
+    kShortestPaths(Graph<VLabel, ELabel> G,
+                   Graph<VLabel, ELabel>.Vertex V0,
+                   Graph<VLabel, ELabel>.Vertex V1, int k,
+                   Weighting<? super ELabel> eweighter) {
+        return kShortestPaths(G, V0, V1, k, eweighter, Parallel.threads());
+    }
+
+    /** Returns up to K shortest loopless paths from V0 to V1 in G, as for
+     *  kShortestPaths(G, V0, V1, K, EWEIGHTER), using THREADS
+     *  threads. */
+    public static <VLabel, ELabel> List<List<Graph<VLabel, ELabel>.Edge>>
+    kShortestPaths(Graph<VLabel, ELabel> G,
+                   Graph<VLabel, ELabel>.Vertex V0,
+                   Graph<VLabel, ELabel>.Vertex V1, int k,
+                   Weighting<? super ELabel> eweighter, int threads) {
+        return KShortestPaths.yen(G, V0, V1, k, eweighter, threads);
+    }
+
+    /* Minimum Spanning Forests */
+
+    /** Returns a minimum spanning forest of G according to the edge
+     *  weighter EWEIGHTER: for each connected component of G, a set of
+     *  edges of least total weight connecting its vertices.  Directions
+     *  of edges are ignored.  Uses Kruskal's algorithm, which takes
+     *  O(E lg E) time. */
+    public static <VLabel, ELabel> SpanningForest<VLabel, ELabel>
+    minimumSpanningForest(Graph<VLabel, ELabel> G,
+                          Weighting<? super ELabel> eweighter) {
+        return SpanningForest.kruskal(G, eweighter);
+    }
+
+    /** Returns a minimum spanning forest of G according to the edge
+     *  weighter EWEIGHTER, as for minimumSpanningForest, using Boruvka's
+     *  algorithm with THREADS threads.  EWEIGHTER is called only from
+     *  the calling thread.  For large graphs on multiple processors. */
+    public static <VLabel, ELabel> SpanningForest<VLabel, ELabel>
+    parallelMinimumSpanningForest(Graph<VLabel, ELabel> G,
+                                  Weighting<? super ELabel> eweighter,
+                                  int threads) {
+        return SpanningForest.boruvka(G, eweighter, threads);
+    }
+
+    /* Strongly Connected Components */
+
+    /** Returns the strongly connected components of G, found by Tarjan's
+     *  algorithm in O(V+E) time and space, without recursion.  Components
+     *  are numbered in topological order: each edge between components
+     *  goes from a lower-numbered to a higher-numbered one. */
+    public static <VLabel, ELabel> StrongComponents<VLabel, ELabel>
+    strongComponents(Graph<VLabel, ELabel> G) {
+        return StrongComponents.tarjan(G);
+    }
+
+    /** Returns the strongly connected components of G, found by the
+     *  parallel forward-backward method as tasks on the common fork-join
+     *  pool, or in the calling thread alone if THREADS is 1.  THREADS
+     *  also sets how many chunks the first, trimming pass is divided
+     *  into.  The components are the same as those of
+     *  strongComponents(G), but are numbered arbitrarily.  For very
+     *  large graphs on multiple processors. */
+    public static <VLabel, ELabel> StrongComponents<VLabel, ELabel>
+    parallelStrongComponents(Graph<VLabel, ELabel> G, int threads) {
+        return StrongComponents.forwardBackward(G, threads);
+    }
+
+    /* Connected Components */
+
+    /** Returns the connected components of G, ignoring the directions of
+     *  edges (so for a directed graph, its weakly connected components).
+     *  The end points of all edges are united in a lock-free union-find
+     *  structure, with the edges divided into chunks processed by
+     *  Parallel.threads() threads. */
+    public static <VLabel, ELabel> ConnectedComponents<VLabel, ELabel>
+    connectedComponents(Graph<VLabel, ELabel> G) {
+        return connectedComponents(G, Parallel.threads());
+    }
+
+    /** Returns the connected components of G, as for
+     *  connectedComponents(G), using THREADS threads. */
+    public static <VLabel, ELabel> ConnectedComponents<VLabel, ELabel>
+    connectedComponents(Graph<VLabel, ELabel> G, int threads) {
+        return ConnectedComponents.find(G, threads);
+    }
+
+    /** Returns the connected components of G, ignoring the directions of
+     *  edges, kept up to date as vertices and edges are added to G until
+     *  they are detached.  Each addition costs nearly constant time;
+     *  a removal causes a full recomputation at the next query. */
+    public static <VLabel, ELabel> IncrementalComponents<VLabel, ELabel>
+    incrementalComponents(Graph<VLabel, ELabel> G) {
+        return new IncrementalComponents<VLabel, ELabel>(G);
+    }
+
+    /* Hop Distances */
+
+    /** Returns the number of edges on shortest paths from each of
+     *  SOURCES to every vertex of G.  Up to 64 sources share each
+     *  breadth-first search, so one scan of the graph's edges serves
+     *  them all, and batches of sources are searched in parallel on
+     *  Parallel.threads() threads. */
+    public static <VLabel, ELabel> HopDistances<VLabel, ELabel>
+    hopDistances(Graph<VLabel, ELabel> G,
+                 List<? extends Graph<VLabel, ELabel>.Vertex> sources) {
+        return hopDistances(G, sources, Parallel.threads());
+    }
+
+    /** Returns hopDistances(G, SOURCES), searching on THREADS
+     *  threads. */
+    public static <VLabel, ELabel> HopDistances<VLabel, ELabel>
+    hopDistances(Graph<VLabel, ELabel> G,
+                 List<? extends Graph<VLabel, ELabel>.Vertex> sources,
+                 int threads) {
+        return HopDistances.compute(G, sources, threads);
+    }
+
+    /* Directed Acyclic Graphs */
+
+    /** Returns the vertices of the directed graph G in topological order,
+     *  so that every edge leaves a vertex earlier in the list than the
+     *  one it enters, or null if G has a cycle.  Uses Kahn's algorithm,
+     *  which takes O(V+E) time. */
+    public static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Vertex>
+    topologicalOrder(Graph<VLabel, ELabel> G) {
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        int[] order = compact.topologicalOrder();
+        if (order == null) {
+            return null;
+        }
+        List<Graph<VLabel, ELabel>.Vertex> result =
+            new ArrayList<Graph<VLabel, ELabel>.Vertex>(order.length);
+        for (int v : order) {
+            result.add(compact.vertex(v));
         }
-        return null;
+        return result;
     }
 
-    /** Initializes all the vertices of graph G with vertex labels of type
-     *  VLABEL and edge labels of type ELABEL to have weight labels of
-     *  Double.POSITIVE_INFINITY. */
-    private static <VLabel extends Weightable, ELabel extends Weighted>
-    void initializeVertexValues(Graph<VLabel, ELabel> G) {
-        for (Graph<VLabel, ELabel>.Vertex v : G.vertices()) {
-            v.getLabel().setWeight(Double.POSITIVE_INFINITY);
+    /** Returns the paths of minimum weight from SOURCE to every vertex
+     *  of the directed acyclic graph G, according to the edge weighter
+     *  EWEIGHTER, which may give negative weights.  Takes O(V+E) time,
+     *  with no priority queue.  Returns null if G has a cycle. */
+    public static <VLabel, ELabel> PathTree<VLabel, ELabel>
+    dagShortestPaths(Graph<VLabel, ELabel> G,
+                     Graph<VLabel, ELabel>.Vertex source,
+                     Weighting<? super ELabel> eweighter) {
+        return PathTree.dag(G, source, eweighter, false);
+    }
+
+    /** Returns the paths of maximum weight from SOURCE to every vertex of
+     *  the directed acyclic graph G, according to the edge weighter
+     *  EWEIGHTER: for a graph of tasks, the critical paths.  Takes
+     *  O(V+E) time.  Returns null if G has a cycle. */
+    public static <VLabel, ELabel> PathTree<VLabel, ELabel>
+    dagLongestPaths(Graph<VLabel, ELabel> G,
+                    Graph<VLabel, ELabel>.Vertex source,
+                    Weighting<? super ELabel> eweighter) {
+        return PathTree.dag(G, source, eweighter, true);
+    }
+
+    /* All-Pairs Shortest Paths */
+
+    /** Returns the shortest paths between all pairs of vertices of G,
+     *  according to the edge weighter EWEIGHTER, which may give negative
+     *  weights.  Uses floydWarshall if G is dense (at least one edge for
+     *  every 16 pairs of vertices), and johnson otherwise, with
+     *  Parallel.threads() threads.  Returns null if G has a cycle of
+     *  negative weight. */
+    public static <VLabel, ELabel> DistanceMatrix<VLabel, ELabel>
+    allPairsShortestPaths(Graph<VLabel, ELabel> G,
+                          Weighting<? super ELabel> eweighter) {
+        long n = G.vertexSize();
+        if (16L * G.edgeSize() >= n * n) {
+            return floydWarshall(G, eweighter, Parallel.threads());
+        } else {
+            return johnson(G, eweighter, Parallel.threads());
+        }
+    }
+
+    /** Returns the shortest paths between all pairs of vertices of G,
+     *  according to the edge weighter EWEIGHTER, using Johnson's
+     *  algorithm: Bellman-Ford reweighting followed by Dijkstra's
+     *  algorithm from each vertex, the searches running on THREADS
+     *  threads.  Takes O(VE lg V) time.  Returns null if G has a cycle
+     *  of negative weight. */
+    public static <VLabel, ELabel> DistanceMatrix<VLabel, ELabel>
+    johnson(Graph<VLabel, ELabel> G, Weighting<? super ELabel> eweighter,
+            int threads) {
+        return DistanceMatrix.johnson(G, eweighter, threads);
+    }
+
+    /** Returns the shortest paths between all pairs of vertices of G,
+     *  according to the edge weighter EWEIGHTER, using a cache-blocked
+     *  Floyd-Warshall algorithm on THREADS threads.  Takes O(V^3) time.
+     *  Returns null if G has a cycle of negative weight. */
+    public static <VLabel, ELabel> DistanceMatrix<VLabel, ELabel>
+    floydWarshall(Graph<VLabel, ELabel> G,
+                  Weighting<? super ELabel> eweighter, int threads) {
+        return DistanceMatrix.floydWarshall(G, eweighter, threads);
+    }
+
+    /** Returns the weights of shortest paths in G, according to the
+     *  non-negative edge weighter EWEIGHTER, from each of SOURCES to each
+     *  of TARGETS, as for distanceTable(G, SOURCES, TARGETS, EWEIGHTER,
+     *  Parallel.threads()). */
+    public static <VLabel, ELabel> double[]
+    distanceTable(Graph<VLabel, ELabel> G,
+                  List<? extends Graph<VLabel, ELabel>.Vertex> sources,
+                  List<? extends Graph<VLabel, ELabel>.Vertex> targets,
+                  Weighting<? super ELabel> eweighter) {
+        return distanceTable(G, sources, targets, eweighter,
+                             Parallel.threads());
+    }
+
+    /** Returns the weights of shortest paths in G, according to the
+     *  non-negative edge weighter EWEIGHTER, from each of the N SOURCES
+     *  to each of the M TARGETS, as an array of N * M elements in which
+     *  element i * M + j is the weight from source i to target j, or
+     *  Double.POSITIVE_INFINITY if there is no path.  Runs one search
+     *  per source or per target, whichever are fewer, on THREADS
+     *  threads, each stopping once it has reached all the vertices at
+     *  the other end.  Takes space proportional to N * M plus the size
+     *  of G, rather than the square of the number of vertices.  Throws
+     *  IllegalArgumentException if N * M is too large for an array. */
+    public static <VLabel, ELabel> double[]
+    distanceTable(Graph<VLabel, ELabel> G,
+                  List<? extends Graph<VLabel, ELabel>.Vertex> sources,
+                  List<? extends Graph<VLabel, ELabel>.Vertex> targets,
+                  Weighting<? super ELabel> eweighter, int threads) {
+        return DistanceMatrix.table(G, sources, targets, eweighter, threads);
+    }
+
+    /* Dynamic Shortest Paths */
+
+    /** Returns the shortest paths from SOURCE to every vertex of G,
+     *  according to the non-negative edge weighter EWEIGHTER, kept up to
+     *  date as edges and vertices are added to and removed from G, and
+     *  as edge weights change (which must be reported through
+     *  DynamicShortestPaths.weightChanged).  Each change is repaired by
+     *  visiting only the vertices whose paths it affects. */
+    public static <VLabel, ELabel> DynamicShortestPaths<VLabel, ELabel>
+    dynamicShortestPaths(Graph<VLabel, ELabel> G,
+                         Graph<VLabel, ELabel>.Vertex source,
+                         Weighting<? super ELabel> eweighter) {
+        return new DynamicShortestPaths<VLabel, ELabel>(G, source,
+                                                        eweighter);
+    }
+
+    /* PageRank */
+
+    /** Returns the PageRank of each vertex of G with damping factor
+     *  DAMPING (commonly 0.85), iterating until the ranks change by a
+     *  total of less than TOLERANCE in one iteration, or for at most
+     *  MAXITERATIONS iterations.  Rank held by vertices with no outgoing
+     *  edges is spread over all vertices.  Each iteration is a pass over
+     *  the incoming edges of every vertex, in parallel using
+     *  Parallel.threads() threads. */
+    public static <VLabel, ELabel> PageRank<VLabel, ELabel>
+    pageRank(Graph<VLabel, ELabel> G, double damping, double tolerance,
+             int maxIterations) {
+        return PageRank.compute(G, damping, tolerance, maxIterations, null,
+                                Parallel.threads());
+    }
+
+    /** Returns the personalized PageRank of each vertex of G, as for
+     *  pageRank, except that random jumps (and the rank of vertices with
+     *  no outgoing edges) go to each vertex v with probability
+     *  proportional to PERSONALIZATION.get(v), or to none if v is
+     *  absent.  Uses THREADS threads. */
+    public static <VLabel, ELabel> PageRank<VLabel, ELabel>
+    personalizedPageRank(Graph<VLabel, ELabel> G,
+                         Map<Graph<VLabel, ELabel>.Vertex, ? extends Number>
+                             personalization,
+                         double damping, double tolerance,
+                         int maxIterations, int threads) {
+        return PageRank.compute(G, damping, tolerance, maxIterations,
+                                personalization, threads);
+    }
+
+    /* Partitioning and Distributed Searches */
+
+    /** Returns a partitioning of G into PARTS parts of nearly equal size,
+     *  assigning vertices by a hash of their indices.  PARTS must be
+     *  positive. */
+    public static <VLabel, ELabel> Partitioning<VLabel, ELabel>
+    hashPartition(Graph<VLabel, ELabel> G, int parts) {
+        return Partitioning.hash(G, parts);
+    }
+
+    /** Returns a partitioning of G into PARTS parts, each at most 5%
+     *  larger than average, chosen to cut few edges by label
+     *  propagation from an initial division of G in breadth-first
+     *  order.  PARTS must be positive. */
+    public static <VLabel, ELabel> Partitioning<VLabel, ELabel>
+    partition(Graph<VLabel, ELabel> G, int parts) {
+        return Partitioning.labelPropagation(G, parts, 0.05, 10);
+    }
+
+    /** Returns the shortest paths from SOURCE in the graph partitioned
+     *  by PARTS, according to the non-negative edge weighter EWEIGHTER,
+     *  computed by one worker JVM per part, each started on this machine
+     *  with the options JVMOPTIONS (e.g., "-Xmx8g") and holding only its
+     *  own part.  Workers exchange distances of vertices on the
+     *  boundaries of their parts through this JVM over loopback
+     *  sockets.  Throws IllegalStateException if the graph has changed
+     *  since it was partitioned. */
+    public static <VLabel, ELabel> PathTree<VLabel, ELabel>
+    distributedShortestPaths(Partitioning<VLabel, ELabel> parts,
+                             Graph<VLabel, ELabel>.Vertex source,
+                             Weighting<? super ELabel> eweighter,
+                             String... jvmOptions) {
+        return DistributedSearch.shortestPaths(parts, source, eweighter,
+                                               Arrays.asList(jvmOptions));
+    }
+
+    /** Returns the paths with fewest edges from SOURCE in the graph
+     *  partitioned by PARTS, computed by worker JVMs as for
+     *  distributedShortestPaths.  The distance to each vertex is its
+     *  number of edges from SOURCE. */
+    public static <VLabel, ELabel> PathTree<VLabel, ELabel>
+    distributedBreadthFirst(Partitioning<VLabel, ELabel> parts,
+                            Graph<VLabel, ELabel>.Vertex source,
+                            String... jvmOptions) {
+        return DistributedSearch.shortestPaths(parts, source, null,
+                                               Arrays.asList(jvmOptions));
+    }
+
+    /* Instrumentation */
+
+    /** Cause LISTENER to be told the statistics of every subsequent
+     *  shortestPath search and Traversal traversal, or stop reporting
+     *  them to any listener if LISTENER is null.  There is one listener
+     *  for the whole JVM: it replaces any set before, and it hears of
+     *  searches run by any thread, so it must be thread-safe if
+     *  searches run concurrently.  The same statistics go to Java Flight
+     *  Recorder as graph.Search events when those are enabled.  With no
+     *  listener and no such recording, searches do not time themselves,
+     *  allocate no event, and report nothing. */
+    public static void setSearchListener(SearchListener listener) {
+        _searchListener = listener;
+    }
+
+    /** Returns a begun flight-recorder event for a search that should
+     *  time itself and report its statistics, or null if there is no
+     *  search listener and graph.Search events are not being
+     *  recorded. */
+    static SearchEvent startSearch() {
+        if (_searchListener == null && !SEARCH_EVENT_TYPE.isEnabled()) {
+            return null;
         }
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
     }
 
+    /** Report STATS to the current search listener, if any, and commit
+     *  them through EVENT, if it is enabled. */
+    static void report(SearchEvent event, SearchStats stats) {
+        SearchListener listener = _searchListener;
+        if (listener != null) {
+            listener.searchFinished(stats);
+        }
+        event.commit(stats);
+    }
+
+    /** The listener installed by setSearchListener, or null. */
+    private static volatile SearchListener _searchListener;
+    /** The type of SearchEvent, which tells whether any recording
+     *  wants such events. */
+    private static final EventType SEARCH_EVENT_TYPE =
+        EventType.getEventType(SearchEvent.class);
+
     /** Returns a distancer whose dist method always returns 0. */
     public static final Distancer<Object> ZERO_DISTANCER =
         new Distancer<Object>() {
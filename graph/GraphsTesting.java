@@ -3,8 +3,15 @@ package graph;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 /** Unit Tests for the graphs.java class.
  * @author Conrad Shiao
@@ -96,4 +103,1214 @@ public class GraphsTesting {
         assertTrue(sideEffectError, test8);
     }
 
+    @Test
+    public void testSearchListener() {
+        final List<SearchStats> reports = new ArrayList<SearchStats>();
+        Graph<String, Double> G = new DirectedGraph<String, Double>();
+        Graph<String, Double>.Vertex a = G.add("a"), b = G.add("b"),
+                goal = G.add("goal");
+        G.add(a, b, 1.0);
+        G.add(b, goal, 1.0);
+        G.add(a, goal, 5.0);
+        Graphs.setSearchListener(new SearchListener() {
+            @Override
+            public void searchFinished(SearchStats stats) {
+                reports.add(stats);
+            }
+        });
+        try {
+            Graphs.shortestPath(G, a, goal, Graphs.ZERO_DISTANCER,
+                                new Vweighter<String>(),
+                                new Eweighter<Double>());
+            new Traversal<String, Double>() {
+                @Override
+                protected void postVisit(Graph<String, Double>.Vertex v) {
+                }
+            }.breadthFirstTraverse(G, a);
+        } finally {
+            Graphs.setSearchListener(null);
+        }
+        assertEquals("wrong number of reports", 2, reports.size());
+        SearchStats search = reports.get(0), traversal = reports.get(1);
+        assertEquals("wrong kind", "shortestPath", search.kind());
+        assertEquals("wrong settled count", 2, search.settled());
+        assertEquals("wrong relaxed count", 3, search.relaxed());
+        assertEquals("wrong push count", 3, search.pushes());
+        assertEquals("wrong decrease-key count", 1, search.decreaseKeys());
+        assertEquals("wrong dist count", 4, search.distCalls());
+        assertEquals("wrong kind", "breadthFirstTraverse", traversal.kind());
+        assertEquals("wrong settled count", 3, traversal.settled());
+        Graphs.shortestPath(G, a, goal, Graphs.ZERO_DISTANCER,
+                            new Vweighter<String>(), new Eweighter<Double>());
+        assertEquals("listener not removed", 2, reports.size());
+    }
+
+    @Test
+    public void testMinimumSpanningForest() {
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        Graph<String, Double> G = new UndirectedGraph<String, Double>();
+        Graph<String, Double>.Vertex a = G.add("a"), b = G.add("b"),
+                c = G.add("c"), d = G.add("d"), x = G.add("x"),
+                y = G.add("y");
+        G.add(a, b, 4.0);
+        G.add(b, c, 1.0);
+        G.add(a, c, 2.0);
+        G.add(c, d, 5.0);
+        G.add(b, d, 3.0);
+        G.add(d, d, 0.0);
+        Graph<String, Double>.Edge xy = G.add(x, y, 7.0);
+        SpanningForest<String, Double> kruskal =
+            Graphs.minimumSpanningForest(G, eweighter);
+        SpanningForest<String, Double> boruvka =
+            Graphs.parallelMinimumSpanningForest(G, eweighter, 4);
+        assertEquals("wrong forest size", 4, kruskal.edges().size());
+        assertEquals("wrong forest weight", 13.0, kruskal.weight(), 1e-9);
+        assertTrue("missing edge", kruskal.edges().contains(xy));
+        assertEquals("wrong forest size", 4, boruvka.edges().size());
+        assertEquals("wrong forest weight", 13.0, boruvka.weight(), 1e-9);
+        Graph<Integer, Double> H = randomGraph(false, 500, 3000, 61, 100);
+        Eweighter<Double> weights = new Eweighter<Double>();
+        SpanningForest<Integer, Double> sequential =
+            Graphs.minimumSpanningForest(H, weights),
+            parallel = Graphs.parallelMinimumSpanningForest(H, weights, 8);
+        assertEquals("forests differ", sequential.edges().size(),
+                     parallel.edges().size());
+        assertEquals("forests differ", sequential.weight(),
+                     parallel.weight(), 1e-9);
+    }
+
+    @Test
+    public void testStrongComponents() {
+        DirectedGraph<Integer, String> G = new DirectedGraph<Integer, String>();
+        List<Graph<Integer, String>.Vertex> v =
+            new ArrayList<Graph<Integer, String>.Vertex>();
+        for (int i = 0; i < 8; i += 1) {
+            v.add(G.add(i));
+        }
+        G.add(v.get(0), v.get(1));
+        G.add(v.get(1), v.get(2));
+        G.add(v.get(2), v.get(0));
+        G.add(v.get(2), v.get(3));
+        G.add(v.get(3), v.get(4));
+        G.add(v.get(4), v.get(3));
+        G.add(v.get(1), v.get(4));
+        G.add(v.get(5), v.get(5));
+        G.add(v.get(6), v.get(0));
+        G.add(v.get(4), v.get(7));
+        StrongComponents<Integer, String> scc = Graphs.strongComponents(G);
+        assertEquals("wrong component count", 5, scc.count());
+        assertEquals("not one component", scc.component(v.get(0)),
+                     scc.component(v.get(2)));
+        assertEquals("not one component", scc.component(v.get(3)),
+                     scc.component(v.get(4)));
+        assertTrue("not topological",
+                   scc.component(v.get(6)) < scc.component(v.get(0))
+                   && scc.component(v.get(0)) < scc.component(v.get(3))
+                   && scc.component(v.get(3)) < scc.component(v.get(7)));
+        DirectedGraph<Integer, Integer> dag = scc.condensation();
+        assertEquals("wrong condensation", 5, dag.vertexSize());
+        assertEquals("wrong condensation", 3, dag.edgeSize());
+        Graph<Integer, Integer>.Vertex c0 =
+            dag.vertex(scc.component(v.get(0)));
+        Graph<Integer, Integer>.Vertex c3 =
+            dag.vertex(scc.component(v.get(3)));
+        assertTrue("wrong condensation", dag.contains(c0, c3, 2));
+        G.add(v.get(7), G.add(8));
+        G.remove(v.get(1), v.get(4));
+        G.remove(v.get(6));
+        DirectedGraph<Integer, Integer> later = scc.condensation();
+        assertEquals("condensation changed", 5, later.vertexSize());
+        assertEquals("condensation changed", 3, later.edgeSize());
+        assertTrue("condensation changed",
+                   later.contains(later.vertex(c0.getLabel()),
+                                  later.vertex(c3.getLabel()), 2));
+        Graph<Integer, Double> H = randomGraph(true, 20000, 30000, 61, 1);
+        StrongComponents<Integer, Double> sequential =
+            Graphs.strongComponents(H),
+            parallel = Graphs.parallelStrongComponents(H, 4);
+        assertEquals("component counts differ", sequential.count(),
+                     parallel.count());
+        Random random = new Random(62);
+        for (int i = 0; i < 20000; i += 1) {
+            Graph<Integer, Double>.Vertex x = H.vertex(i),
+                y = H.vertex(random.nextInt(20000));
+            assertEquals("components differ",
+                         sequential.component(x) == sequential.component(y),
+                         parallel.component(x) == parallel.component(y));
+        }
+        Graph<Integer, Double> chain = randomGraph(true, 12000, 0, 61, 1);
+        for (int i = 0; i < 12000; i += 2) {
+            chain.add(chain.vertex(i), chain.vertex(i + 1));
+            chain.add(chain.vertex(i + 1), chain.vertex(i));
+            if (i + 2 < 12000) {
+                chain.add(chain.vertex(i + 1), chain.vertex(i + 2));
+            }
+        }
+        assertEquals("wrong chain components", 6000,
+                     Graphs.parallelStrongComponents(chain, 4).count());
+        assertEquals("wrong chain components", 6000,
+                     Graphs.parallelStrongComponents(chain, 1).count());
+    }
+
+    @Test
+    public void testConnectedComponents() {
+        UndirectedGraph<Integer, String> G =
+            new UndirectedGraph<Integer, String>();
+        List<Graph<Integer, String>.Vertex> v =
+            new ArrayList<Graph<Integer, String>.Vertex>();
+        for (int i = 0; i < 6; i += 1) {
+            v.add(G.add(i));
+        }
+        G.add(v.get(0), v.get(1));
+        G.add(v.get(2), v.get(1));
+        G.add(v.get(3), v.get(4));
+        ConnectedComponents<Integer, String> cc =
+            Graphs.connectedComponents(G, 2);
+        assertEquals("wrong component count", 3, cc.count());
+        assertTrue("not connected", cc.connected(v.get(0), v.get(2)));
+        assertFalse("connected", cc.connected(v.get(2), v.get(3)));
+        IncrementalComponents<Integer, String> live =
+            Graphs.incrementalComponents(G);
+        assertEquals("wrong component count", 3, live.count());
+        Graph<Integer, String>.Vertex x = G.add(6);
+        assertEquals("vertex not counted", 4, live.count());
+        G.add(x, v.get(5));
+        Graph<Integer, String>.Edge bridge = G.add(v.get(2), v.get(3));
+        assertEquals("edges not counted", 2, live.count());
+        assertTrue("not connected", live.connected(v.get(0), v.get(4)));
+        G.remove(bridge);
+        assertFalse("still connected", live.connected(v.get(0), v.get(4)));
+        G.remove(v.get(1));
+        assertEquals("removal not seen", 4, live.count());
+        assertFalse("still connected", live.connected(v.get(0), v.get(2)));
+        live.detach();
+        G.add(v.get(0), v.get(2));
+        assertEquals("still listening", 4, live.count());
+        Graph<Integer, String>.Vertex y = G.add(7);
+        G.add(y, v.get(0));
+        G.remove(v.get(3));
+        assertEquals("still listening", 4, live.count());
+        assertFalse("still listening", live.connected(v.get(0), v.get(2)));
+        assertTrue("removed vertex forgotten",
+                   live.connected(v.get(3), v.get(4)));
+        assertTrue("moved vertex forgotten", live.connected(x, v.get(5)));
+        assertFalse("wrong after detach", live.connected(v.get(4), x));
+        try {
+            live.connected(y, v.get(0));
+            fail("vertex added after detach");
+        } catch (IllegalArgumentException excp) {
+            /* Ignore IllegalArgumentException */
+        }
+        ConnectedComponents<Integer, String> frozen = live.components();
+        assertEquals("wrong snapshot", 4, frozen.count());
+        assertEquals("wrong snapshot", 6, frozen.componentIds().length);
+        Graph<Integer, Double> source = randomGraph(true, 20000, 15000, 37, 1),
+            H = randomGraph(true, 20000, 0, 37, 1);
+        IncrementalComponents<Integer, Double> grown =
+            Graphs.incrementalComponents(H);
+        for (Graph<Integer, Double>.Edge e : source.edges()) {
+            H.add(H.vertex(source.index(e.getV0())),
+                  H.vertex(source.index(e.getV1())), e.getLabel());
+        }
+        ConnectedComponents<Integer, Double> parallel =
+            Graphs.connectedComponents(H, 4),
+            incremental = grown.components();
+        assertEquals("component counts differ", incremental.count(),
+                     parallel.count());
+        for (int i = 0; i < 20000; i += 1) {
+            assertEquals("components differ",
+                         incremental.component(H.vertex(i)),
+                         parallel.component(H.vertex(i)));
+        }
+    }
+
+    @Test
+    public void testDagPaths() {
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        Graph<String, Double> G = new DirectedGraph<String, Double>();
+        Graph<String, Double>.Vertex a = G.add("a"), b = G.add("b"),
+                c = G.add("c"), d = G.add("d"), e = G.add("e");
+        Graph<String, Double>.Edge ab = G.add(a, b, 2.0),
+                bd = G.add(b, d, 4.0), ac = G.add(a, c, 1.0),
+                cd = G.add(c, d, 1.0), cb = G.add(c, b, 3.0);
+        G.add(e, a, 1.0);
+        List<Graph<String, Double>.Vertex> order = Graphs.topologicalOrder(G);
+        assertEquals("wrong order size", 5, order.size());
+        for (Graph<String, Double>.Edge edge : G.edges()) {
+            assertTrue("not topological", order.indexOf(edge.getV0())
+                       < order.indexOf(edge.getV1()));
+        }
+        PathTree<String, Double> shortest =
+            Graphs.dagShortestPaths(G, a, eweighter);
+        assertEquals("wrong distance", 2.0, shortest.distance(d), 1e-9);
+        assertEquals("wrong path", Arrays.asList(ac, cd), shortest.pathTo(d));
+        assertFalse("reached", shortest.reachable(e));
+        assertNull("path found", shortest.pathTo(e));
+        assertEquals("wrong distance", Double.POSITIVE_INFINITY,
+                     shortest.distance(e), 0.0);
+        PathTree<String, Double> longest =
+            Graphs.dagLongestPaths(G, a, eweighter);
+        assertEquals("wrong distance", 8.0, longest.distance(d), 1e-9);
+        assertEquals("wrong path", Arrays.asList(ac, cb, bd),
+                     longest.pathTo(d));
+        assertEquals("wrong path", Arrays.asList(ab), shortest.pathTo(b));
+        G.add(d, e, 1.0);
+        assertNull("cycle not found", Graphs.topologicalOrder(G));
+        assertNull("cycle not found", Graphs.dagShortestPaths(G, a, eweighter));
+    }
+
+    @Test
+    public void testPageRank() {
+        DirectedGraph<String, String> G = new DirectedGraph<String, String>();
+        Graph<String, String>.Vertex a = G.add("a"), b = G.add("b"),
+            c = G.add("c"), d = G.add("d");
+        G.add(a, b);
+        G.add(a, c);
+        G.add(b, c);
+        G.add(c, a);
+        G.add(d, c);
+        PageRank<String, String> ranks = Graphs.pageRank(G, 0.85, 1e-12, 200);
+        assertTrue("did not converge", ranks.converged());
+        assertEquals("wrong timing count", ranks.iterations(),
+                     ranks.iterationNanos().length);
+        double total = 0.0;
+        for (double r : ranks.ranks()) {
+            total += r;
+        }
+        assertEquals("ranks do not sum to 1", 1.0, total, 1e-9);
+        assertEquals("wrong rank", 0.0375, ranks.rank(d), 1e-9);
+        assertEquals("not balanced", ranks.rank(c),
+                     0.0375 + 0.85 * (ranks.rank(a) / 2 + ranks.rank(b)
+                                      + ranks.rank(d)), 1e-9);
+        assertTrue("wrong order", ranks.rank(c) > ranks.rank(a)
+                   && ranks.rank(a) > ranks.rank(b)
+                   && ranks.rank(b) > ranks.rank(d));
+        G.add(G.add("e"), a);
+        HashMap<Graph<String, String>.Vertex, Double> home =
+            new HashMap<Graph<String, String>.Vertex, Double>();
+        home.put(d, 1.0);
+        PageRank<String, String> personal =
+            Graphs.personalizedPageRank(G, home, 0.85, 1e-12, 200, 3);
+        assertTrue("did not converge", personal.converged());
+        assertEquals("wrong rank", 0.15, personal.rank(d), 1e-9);
+        assertEquals("rank teleported", 0.0, personal.rank(G.vertex(4)),
+                     0.0);
+    }
+
+    @Test
+    public void testDynamicShortestPaths() {
+        Weighting<double[]> weight = new Weighting<double[]>() {
+            @Override
+            public double weight(double[] x) {
+                return x[0];
+            }
+        };
+        Random random = new Random(29);
+        for (int trial = 0; trial < 2; trial += 1) {
+            Graph<Integer, double[]> G = trial == 0
+                ? new DirectedGraph<Integer, double[]>()
+                : new UndirectedGraph<Integer, double[]>();
+            List<Graph<Integer, double[]>.Vertex> v =
+                new ArrayList<Graph<Integer, double[]>.Vertex>();
+            List<Graph<Integer, double[]>.Edge> e =
+                new ArrayList<Graph<Integer, double[]>.Edge>();
+            for (int i = 0; i < 60; i += 1) {
+                v.add(G.add(i));
+            }
+            for (int i = 0; i < 150; i += 1) {
+                e.add(G.add(v.get(random.nextInt(60)),
+                            v.get(random.nextInt(60)),
+                            new double[] { random.nextInt(10) }));
+            }
+            DynamicShortestPaths<Integer, double[]> paths =
+                Graphs.dynamicShortestPaths(G, v.get(0), weight);
+            for (int step = 0; step < 300; step += 1) {
+                int choice = random.nextInt(4);
+                if (choice == 0 && !e.isEmpty()) {
+                    G.remove(e.remove(random.nextInt(e.size())));
+                } else if (choice == 1 && !e.isEmpty()) {
+                    Graph<Integer, double[]>.Edge changed =
+                        e.get(random.nextInt(e.size()));
+                    changed.getLabel()[0] = random.nextInt(10);
+                    paths.weightChanged(changed);
+                } else if (choice == 2 && v.size() > 40) {
+                    G.remove(v.remove(1 + random.nextInt(v.size() - 1)));
+                    e.clear();
+                    for (Graph<Integer, double[]>.Edge edge : G.edges()) {
+                        e.add(edge);
+                    }
+                } else if (random.nextInt(8) == 0) {
+                    v.add(G.add(step));
+                } else {
+                    e.add(G.add(v.get(random.nextInt(v.size())),
+                                v.get(random.nextInt(v.size())),
+                                new double[] { random.nextInt(10) }));
+                }
+                DynamicShortestPaths<Integer, double[]> fresh =
+                    Graphs.dynamicShortestPaths(G, v.get(0), weight);
+                fresh.detach();
+                for (Graph<Integer, double[]>.Vertex x : v) {
+                    assertEquals("wrong distance", fresh.distance(x),
+                                 paths.distance(x), 1e-9);
+                    if (paths.reachable(x)) {
+                        double total = 0.0;
+                        for (Graph<Integer, double[]>.Edge edge
+                                 : paths.pathTo(x)) {
+                            total += edge.getLabel()[0];
+                        }
+                        assertEquals("wrong path", paths.distance(x),
+                                     total, 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAllPairsShortestPaths() {
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        Graph<Integer, Double> source = randomGraph(true, 150, 900, 17, 20),
+            G = randomGraph(true, 150, 0, 17, 1);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(G);
+        Random random = new Random(17);
+        int[] potential = new int[150];
+        for (int i = 0; i < 150; i += 1) {
+            potential[i] = random.nextInt(10);
+        }
+        for (Graph<Integer, Double>.Edge e : source.edges()) {
+            int a = source.index(e.getV0()), b = source.index(e.getV1());
+            G.add(v.get(a), v.get(b),
+                  e.getLabel() + potential[a] - potential[b]);
+        }
+        DistanceMatrix<Integer, Double> johnson =
+            Graphs.johnson(G, eweighter, 4),
+            floyd = Graphs.floydWarshall(G, eweighter, 4);
+        for (Graph<Integer, Double>.Vertex x : v) {
+            for (Graph<Integer, Double>.Vertex y : v) {
+                assertEquals("distances differ", floyd.distance(x, y),
+                             johnson.distance(x, y), 1e-9);
+                for (DistanceMatrix<Integer, Double> d
+                         : Arrays.asList(johnson, floyd)) {
+                    List<Graph<Integer, Double>.Edge> path = d.path(x, y);
+                    if (path == null) {
+                        assertFalse("no path", d.reachable(x, y));
+                        continue;
+                    }
+                    double total = 0.0;
+                    Graph<Integer, Double>.Vertex at = x;
+                    for (Graph<Integer, Double>.Edge e : path) {
+                        assertEquals("not a path", at, e.getV0());
+                        at = e.getV1();
+                        total += e.getLabel();
+                    }
+                    assertEquals("path ends wrongly", y, at);
+                    assertEquals("wrong path weight", d.distance(x, y),
+                                 total, 1e-9);
+                }
+            }
+        }
+        G.add(v.get(3), v.get(3), -1.0);
+        assertNull("negative cycle", Graphs.johnson(G, eweighter, 2));
+        assertNull("negative cycle", Graphs.floydWarshall(G, eweighter, 2));
+    }
+
+    @Test
+    public void testKShortestPaths() {
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        Graph<String, Double> G = new DirectedGraph<String, Double>();
+        Graph<String, Double>.Vertex c = G.add("c"), d = G.add("d"),
+            e = G.add("e"), f = G.add("f"), g = G.add("g"), h = G.add("h");
+        G.add(c, d, 3.0);
+        G.add(c, e, 2.0);
+        G.add(d, f, 4.0);
+        G.add(e, d, 1.0);
+        G.add(e, f, 2.0);
+        G.add(e, g, 3.0);
+        G.add(f, g, 2.0);
+        G.add(f, h, 1.0);
+        G.add(g, h, 2.0);
+        List<List<Graph<String, Double>.Edge>> paths =
+            Graphs.kShortestPaths(G, c, h, 3, eweighter, 2);
+        assertEquals("wrong path count", 3, paths.size());
+        double[] expected = { 5.0, 7.0, 8.0 };
+        for (int i = 0; i < 3; i += 1) {
+            assertEquals("wrong weight", expected[i],
+                         pathWeight(paths.get(i)), 1e-9);
+        }
+        assertEquals("too many paths", 7,
+                     Graphs.kShortestPaths(G, c, h, 20, eweighter).size());
+        Graph<Integer, Double> H = randomGraph(false, 9, 16, 3, 5);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(H);
+        List<Double> all = new ArrayList<Double>();
+        simplePathWeights(H, v.get(0), v.get(8), 0.0,
+                          new ArrayList<Graph<Integer, Double>.Vertex>(),
+                          all);
+        Collections.sort(all);
+        List<List<Graph<Integer, Double>.Edge>> found =
+            Graphs.kShortestPaths(H, v.get(0), v.get(8), 12, eweighter, 3);
+        assertEquals("wrong path count", Math.min(12, all.size()),
+                     found.size());
+        for (int i = 0; i < found.size(); i += 1) {
+            assertEquals("wrong weight", all.get(i),
+                         pathWeight(found.get(i)), 1e-9);
+        }
+    }
+
+    /** Returns a graph, directed iff DIRECTED, of N vertices labeled 0
+     *  through N-1 in order of index, and M edges between randomly chosen
+     *  ends, weighted with random whole numbers in [0 .. MAXWEIGHT).  SEED
+     *  seeds the choices. */
+    private static Graph<Integer, Double> randomGraph(boolean directed,
+                                                      int n, int m, long seed,
+                                                      int maxWeight) {
+        Random random = new Random(seed);
+        Graph<Integer, Double> G = directed
+            ? new DirectedGraph<Integer, Double>()
+            : new UndirectedGraph<Integer, Double>();
+        for (int i = 0; i < n; i += 1) {
+            G.add(i);
+        }
+        for (int i = 0; i < m; i += 1) {
+            G.add(G.vertex(random.nextInt(n)), G.vertex(random.nextInt(n)),
+                  (double) random.nextInt(maxWeight));
+        }
+        return G;
+    }
+
+    /** Returns an undirected N x N grid whose vertices are labeled by
+     *  index, row by row, and whose edges join horizontal and vertical
+     *  neighbors with random whole weights in [1 .. MAXWEIGHT].  SEED
+     *  seeds the weights. */
+    private static Graph<String, Double> randomGrid(int n, long seed,
+                                                    int maxWeight) {
+        Random random = new Random(seed);
+        Graph<String, Double> G = new UndirectedGraph<String, Double>();
+        for (int i = 0; i < n * n; i += 1) {
+            G.add(String.valueOf(i));
+        }
+        for (int i = 0; i < n * n; i += 1) {
+            if (i % n + 1 < n) {
+                G.add(G.vertex(i), G.vertex(i + 1),
+                      1.0 + random.nextInt(maxWeight));
+            }
+            if (i + n < n * n) {
+                G.add(G.vertex(i), G.vertex(i + n),
+                      1.0 + random.nextInt(maxWeight));
+            }
+        }
+        return G;
+    }
+
+    /** Returns the vertices of G in order of index. */
+    private static <V, E> List<Graph<V, E>.Vertex> byIndex(Graph<V, E> G) {
+        List<Graph<V, E>.Vertex> result = new ArrayList<Graph<V, E>.Vertex>();
+        for (int i = 0; i < G.indexLimit(); i += 1) {
+            result.add(G.vertex(i));
+        }
+        return result;
+    }
+
+    /** Returns the total weight of PATH. */
+    private static <V> double pathWeight(List<Graph<V, Double>.Edge> path) {
+        double total = 0.0;
+        for (Graph<V, Double>.Edge e : path) {
+            total += e.getLabel();
+        }
+        return total;
+    }
+
+    /** Add to RESULT the weight of every path from FROM to TO in G that
+     *  visits no vertex in VISITED or any vertex twice, plus WEIGHT. */
+    private static void simplePathWeights(
+        Graph<Integer, Double> G, Graph<Integer, Double>.Vertex from,
+        Graph<Integer, Double>.Vertex to, double weight,
+        List<Graph<Integer, Double>.Vertex> visited, List<Double> result) {
+        if (from == to) {
+            result.add(weight);
+            return;
+        }
+        visited.add(from);
+        for (Graph<Integer, Double>.Edge e : G.outEdges(from)) {
+            Graph<Integer, Double>.Vertex next = e.getV(from);
+            if (!visited.contains(next)) {
+                simplePathWeights(G, next, to, weight + e.getLabel(),
+                                  visited, result);
+            }
+        }
+        visited.remove(visited.size() - 1);
+    }
+
+    @Test
+    public void testPregel() {
+        final Graph<Integer, Double> G = randomGraph(true, 300, 900, 11, 10);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(G);
+        final Graph<Integer, Double>.Vertex source = v.get(0);
+        Pregel<Integer, Double, Double, Double> sssp =
+            new Pregel<Integer, Double, Double, Double>(G,
+                new VertexProgram<Integer, Double, Double, Double>() {
+                    @Override
+                    public Double initialValue(
+                        Graph<Integer, Double>.Vertex x) {
+                        return Double.POSITIVE_INFINITY;
+                    }
+
+                    @Override
+                    public void compute(
+                        Pregel<Integer, Double, Double, Double>.Context c,
+                        Iterable<Double> messages) {
+                        double best = c.vertex() == source
+                            && c.superstep() == 0 ? 0.0 : c.value();
+                        for (double m : messages) {
+                            best = Math.min(best, m);
+                        }
+                        if (best < c.value()) {
+                            c.setValue(best);
+                            c.aggregate("updates", 1);
+                            for (Graph<Integer, Double>.Edge e
+                                     : c.outEdges()) {
+                                c.send(e.getV1(), best + e.getLabel());
+                            }
+                        }
+                        c.voteToHalt();
+                    }
+                }, 4);
+        sssp.setCombiner(new Pregel.Combiner<Double>() {
+            @Override
+            public Double combine(Double m0, Double m1) {
+                return Math.min(m0, m1);
+            }
+        });
+        sssp.addAggregator("updates", new Pregel.Aggregator<Integer>() {
+            @Override
+            public Integer identity() {
+                return 0;
+            }
+
+            @Override
+            public Integer combine(Integer a0, Integer a1) {
+                return a0 + a1;
+            }
+        });
+        int steps = sssp.run(1000);
+        assertTrue("did not halt", steps < 1000);
+        assertEquals("updates in last step", 0, sssp.aggregated("updates"));
+        DistanceMatrix<Integer, Double> oracle =
+            Graphs.johnson(G, new Eweighter<Double>(), 1);
+        for (Graph<Integer, Double>.Vertex x : v) {
+            assertEquals("wrong distance", oracle.distance(source, x),
+                         sssp.value(x), 1e-9);
+        }
+        Pregel<Integer, Double, Integer, Integer> labels =
+            new Pregel<Integer, Double, Integer, Integer>(G,
+                new VertexProgram<Integer, Double, Integer, Integer>() {
+                    @Override
+                    public Integer initialValue(
+                        Graph<Integer, Double>.Vertex x) {
+                        return G.index(x);
+                    }
+
+                    @Override
+                    public void compute(
+                        Pregel<Integer, Double, Integer, Integer>.Context c,
+                        Iterable<Integer> messages) {
+                        int least = c.value();
+                        for (int m : messages) {
+                            least = Math.min(least, m);
+                        }
+                        if (c.superstep() == 0 || least < c.value()) {
+                            c.setValue(least);
+                            c.sendToSuccessors(least);
+                            for (Graph<Integer, Double>.Edge e
+                                     : c.graph().inEdges(c.vertex())) {
+                                c.send(e.getV0(), least);
+                            }
+                        }
+                        c.voteToHalt();
+                    }
+                }, 3);
+        labels.run(1000);
+        ConnectedComponents<Integer, Double> components =
+            Graphs.connectedComponents(G, 1);
+        Random random = new Random(11);
+        for (int i = 0; i < 300; i += 1) {
+            Graph<Integer, Double>.Vertex x = v.get(i),
+                y = v.get(random.nextInt(300));
+            assertEquals("wrong labels", components.connected(x, y),
+                         labels.value(x).equals(labels.value(y)));
+        }
+    }
+
+    @Test
+    public void testPartitioning() {
+        Graph<Integer, Double> G = new UndirectedGraph<Integer, Double>();
+        List<Graph<Integer, Double>.Vertex> v =
+            new ArrayList<Graph<Integer, Double>.Vertex>();
+        for (int i = 0; i < 400; i += 1) {
+            v.add(G.add(i));
+        }
+        for (int r = 0; r < 20; r += 1) {
+            for (int c = 0; c < 20; c += 1) {
+                if (c + 1 < 20) {
+                    G.add(v.get(20 * r + c), v.get(20 * r + c + 1),
+                          (double) ((r * 7 + c * 3) % 5));
+                }
+                if (r + 1 < 20) {
+                    G.add(v.get(20 * r + c), v.get(20 * r + c + 20),
+                          (double) ((r * 3 + c * 7) % 5));
+                }
+            }
+        }
+        Partitioning<Integer, Double> hashed = Graphs.hashPartition(G, 4),
+            grown = Graphs.partition(G, 4);
+        for (int size : grown.sizes()) {
+            assertTrue("unbalanced", size <= 105);
+        }
+        for (int size : hashed.sizes()) {
+            assertTrue("unbalanced", size >= 50 && size <= 150);
+        }
+        assertTrue("large cut", grown.edgeCut() < hashed.edgeCut() / 4);
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        PathTree<Integer, Double> paths =
+            Graphs.distributedShortestPaths(grown, v.get(0), eweighter),
+            hops = Graphs.distributedBreadthFirst(hashed, v.get(0));
+        DistanceMatrix<Integer, Double> oracle =
+            Graphs.johnson(G, eweighter, 1);
+        for (int i = 0; i < 400; i += 1) {
+            Graph<Integer, Double>.Vertex x = v.get(i);
+            assertEquals("wrong distance", oracle.distance(v.get(0), x),
+                         paths.distance(x), 1e-9);
+            assertEquals("wrong path", paths.distance(x),
+                         pathWeight(paths.pathTo(x)), 1e-9);
+            assertEquals("wrong hops", i / 20 + i % 20, hops.distance(x),
+                         0.0);
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Graphs.distributedBreadthFirst(hashed, v.get(0),
+                                           "-XX:+NoSuchOption");
+            fail("dead workers not noticed");
+        } catch (UncheckedIOException excp) {
+            assertTrue("no exit status",
+                       excp.getMessage().contains("exited with status"));
+        }
+        assertTrue("slow to notice dead workers",
+                   System.currentTimeMillis() - start < 30000);
+        int cut = hashed.edgeCut();
+        G.add(v.get(0), v.get(399), 1.0);
+        try {
+            hashed.edgeCut();
+            fail("changed graph not noticed");
+        } catch (IllegalStateException excp) {
+            /* Ignore IllegalStateException */
+        }
+        try {
+            Graphs.distributedBreadthFirst(hashed, v.get(0));
+            fail("changed graph not noticed");
+        } catch (IllegalStateException excp) {
+            /* Ignore IllegalStateException */
+        }
+        G.remove(v.get(0), v.get(399));
+        assertEquals("wrong cut after undoing change", cut,
+                     hashed.edgeCut());
+        G.remove(v.get(399));
+        try {
+            hashed.part(v.get(0));
+            fail("removed vertex not noticed");
+        } catch (IllegalStateException excp) {
+            /* Ignore IllegalStateException */
+        }
+        for (int parts = -1; parts < 1; parts += 1) {
+            try {
+                Graphs.hashPartition(G, parts);
+                fail("bad number of parts accepted");
+            } catch (IllegalArgumentException excp) {
+                /* Ignore IllegalArgumentException */
+            }
+            try {
+                Graphs.partition(G, parts);
+                fail("bad number of parts accepted");
+            } catch (IllegalArgumentException excp) {
+                /* Ignore IllegalArgumentException */
+            }
+        }
+    }
+
+    @Test
+    public void testReversed() {
+        Graph<Integer, Double> G = randomGraph(true, 80, 200, 5, 10);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(G);
+        Graph<Integer, Double> R = Graphs.reversed(G);
+        assertSame("not an involution", G, Graphs.reversed(R));
+        assertEquals("wrong edge count", G.edgeSize(), R.edgeSize());
+        Graph<Integer, Double>.Edge first = R.outEdges(v.get(0)).hasNext()
+            ? R.outEdges(v.get(0)).next() : null;
+        if (first != null) {
+            Graph<Integer, Double>.Edge base = G.inEdges(v.get(0)).next();
+            assertSame("wrong base edge", base,
+                       ((ReversedView<Integer, Double>) R).baseEdge(first));
+            assertSame("not reversed", v.get(0), first.getV0());
+            assertSame("not reversed", base.getV0(), first.getV1());
+            assertSame("reversal not kept", first,
+                       R.outEdges(v.get(0)).next());
+            EdgeCursor<Integer, Double> cursor = R.outCursor();
+            cursor.reset(v.get(0));
+            assertTrue("cursor empty", cursor.next());
+            assertSame("wrong cursor edge", first, cursor.edge());
+            assertSame("wrong cursor target", first.getV1(),
+                       cursor.targetVertex());
+        }
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        DistanceMatrix<Integer, Double> forward =
+            Graphs.johnson(G, eweighter, 2),
+            backward = Graphs.johnson(R, eweighter, 2);
+        for (Graph<Integer, Double>.Vertex x : v) {
+            assertEquals("wrong outDegree", G.inDegree(x), R.outDegree(x));
+            for (Graph<Integer, Double>.Vertex y : v) {
+                assertEquals("wrong distance", forward.distance(x, y),
+                             backward.distance(y, x), 1e-9);
+            }
+            List<Graph<Integer, Double>.Edge> path = backward.path(x, v.get(0));
+            if (path != null) {
+                Graph<Integer, Double>.Vertex at = x;
+                for (Graph<Integer, Double>.Edge e : path) {
+                    assertSame("not a reversed path", at, e.getV0());
+                    at = e.getV1();
+                }
+            }
+        }
+        StrongComponents<Integer, Double> scc = Graphs.strongComponents(G),
+            rscc = Graphs.strongComponents(R);
+        assertEquals("wrong component count", scc.count(), rscc.count());
+        Random random = new Random(5);
+        for (int i = 0; i < 80; i += 1) {
+            Graph<Integer, Double>.Vertex x = v.get(i),
+                y = v.get(random.nextInt(80));
+            assertEquals("components differ",
+                         scc.component(x) == scc.component(y),
+                         rscc.component(x) == rscc.component(y));
+        }
+        if (first != null) {
+            int degree = R.outDegree(v.get(0));
+            G.remove(first);
+            assertEquals("edge not removed", degree - 1,
+                         R.outDegree(v.get(0)));
+        }
+        Graph<Integer, Double> U = randomGraph(false, 5, 5, 5, 10);
+        assertSame("undirected graph not its own reversal", U,
+                   Graphs.reversed(U));
+    }
+
+    /** Returns the labels delivered by the first N elements of ITER (all
+     *  of them if N is negative). */
+    private static List<Integer> firstLabels(
+            Iteration<Graph<Integer, String>.Vertex> iter, int n) {
+        List<Integer> result = new ArrayList<Integer>();
+        while (n != 0 && iter.hasNext()) {
+            result.add(iter.next().getLabel());
+            n -= 1;
+        }
+        return result;
+    }
+
+    @Test
+    public void testLazyTraversals() {
+        DirectedGraph<Integer, String> g = new DirectedGraph<Integer, String>();
+        List<Graph<Integer, String>.Vertex> v =
+            new ArrayList<Graph<Integer, String>.Vertex>();
+        for (int i = 0; i < 7; i += 1) {
+            v.add(g.add(i));
+        }
+        int[][] edges = { {0, 1}, {0, 2}, {1, 3}, {1, 4}, {2, 5}, {5, 0} };
+        for (int[] e : edges) {
+            g.add(v.get(e[0]), v.get(e[1]), "");
+        }
+        Iteration<Graph<Integer, String>.Vertex> bfs =
+            Traversal.breadthFirst(g, v.get(0));
+        assertEquals(Arrays.asList(0, 1, 2), firstLabels(bfs, 3));
+        assertEquals(Arrays.asList(3, 4, 5), firstLabels(bfs, -1));
+        assertFalse(bfs.hasNext());
+        assertEquals(Arrays.asList(0, 1, 3, 4, 2, 5),
+                     firstLabels(Traversal.preorder(g, v.get(0)), -1));
+        assertEquals(Arrays.asList(3, 4, 1, 5, 2, 0),
+                     firstLabels(Traversal.postorder(g, v.get(0)), -1));
+        assertEquals(Arrays.asList(0, 2, 5, 1, 4, 3),
+                     firstLabels(Traversal.ordered(g, v.get(0),
+                         Collections.reverseOrder(
+                             Graph.<Integer>naturalOrder())), -1));
+        assertEquals(Arrays.asList(6),
+                     firstLabels(Traversal.preorder(g, v.get(6)), -1));
+    }
+
+    @Test
+    public void testHopDistances() {
+        Graph<Integer, Double> g = randomGraph(true, 300, 700, 45, 1);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(g);
+        List<Graph<Integer, Double>.Vertex> sources = v.subList(0, 150);
+        HopDistances<Integer, Double> hops =
+            Graphs.hopDistances(g, sources, 4);
+        assertEquals(150, hops.sourceCount());
+        for (int i = 0; i < 150; i += 1) {
+            int[] expected = new int[300];
+            Arrays.fill(expected, -1);
+            expected[g.index(v.get(i))] = 0;
+            ArrayDeque<Graph<Integer, Double>.Vertex> queue =
+                new ArrayDeque<Graph<Integer, Double>.Vertex>();
+            queue.add(v.get(i));
+            int max = 0, reached = 0;
+            while (!queue.isEmpty()) {
+                Graph<Integer, Double>.Vertex x = queue.remove();
+                reached += 1;
+                max = Math.max(max, expected[g.index(x)]);
+                for (Graph<Integer, Double>.Vertex y : g.successors(x)) {
+                    if (expected[g.index(y)] < 0) {
+                        expected[g.index(y)] = expected[g.index(x)] + 1;
+                        queue.add(y);
+                    }
+                }
+            }
+            assertArrayEquals("wrong distances from " + i, expected,
+                              hops.distances(i));
+            assertEquals(max, hops.eccentricity(i));
+            assertEquals(reached, hops.reached(i));
+        }
+    }
+
+    @Test
+    public void testHeuristicModes() {
+        final int n = 12;
+        Graph<String, Double> g = randomGrid(n, 46, 3);
+        List<Graph<String, Double>.Vertex> v = byIndex(g);
+        final int[] calls = new int[1];
+        Distancer<String> manhattan = new Distancer<String>() {
+            @Override
+            public double dist(String x, String y) {
+                calls[0] += 1;
+                int i = Integer.parseInt(x), j = Integer.parseInt(y);
+                return Math.abs(i / n - j / n) + Math.abs(i % n - j % n);
+            }
+        };
+        Graph<String, Double>.Vertex start = v.get(0), goal = v.get(n * n - 1);
+        double[] potential = new double[g.indexLimit()];
+        for (Graph<String, Double>.Vertex x : g.vertices()) {
+            potential[g.index(x)] =
+                manhattan.dist(x.getLabel(), goal.getLabel());
+        }
+        calls[0] = 0;
+        List<Graph<String, Double>.Edge> plain =
+            Graphs.shortestPath(g, start, goal, manhattan,
+                                new Vweighter<String>(),
+                                new Eweighter<Double>());
+        int plainCalls = calls[0];
+        calls[0] = 0;
+        List<Graph<String, Double>.Edge> memoized =
+            Graphs.memoizedShortestPath(g, start, goal, manhattan,
+                                        new Vweighter<String>(),
+                                        new Eweighter<Double>());
+        int memoizedCalls = calls[0];
+        calls[0] = 0;
+        Vweighter<String> weights = new Vweighter<String>();
+        List<Graph<String, Double>.Edge> fromPotentials =
+            Graphs.shortestPath(g, start, goal, potential, weights,
+                                new Eweighter<Double>());
+        assertEquals(0, calls[0]);
+        assertTrue("too many heuristic calls", memoizedCalls <= n * n);
+        assertTrue("heuristic not memoized", memoizedCalls < plainCalls);
+        double expected = 0;
+        for (Graph<String, Double>.Edge e : plain) {
+            expected += e.getLabel();
+        }
+        for (List<Graph<String, Double>.Edge> path
+                 : Arrays.asList(memoized, fromPotentials)) {
+            double total = 0;
+            for (Graph<String, Double>.Edge e : path) {
+                total += e.getLabel();
+            }
+            assertEquals(expected, total, 1e-9);
+        }
+        assertEquals(expected, weights.weight(goal.getLabel()), 1e-9);
+    }
+
+    @Test
+    public void testBoundedSearches() {
+        Graph<Integer, Double> g = randomGraph(true, 80, 300, 47, 10);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(g);
+        Eweighter<Double> w = new Eweighter<Double>();
+        Graph<Integer, Double>.Vertex source = v.get(0);
+        DistanceMatrix<Integer, Double> exact = Graphs.floydWarshall(g, w, 1);
+        Map<Graph<Integer, Double>.Vertex, Double> all =
+            Graphs.withinDistance(g, source, Double.POSITIVE_INFINITY, w);
+        List<Double> order = new ArrayList<Double>(all.values());
+        List<Double> sorted = new ArrayList<Double>(order);
+        Collections.sort(sorted);
+        assertEquals("not in order of distance", sorted, order);
+        for (Graph<Integer, Double>.Vertex x : v) {
+            if (exact.reachable(source, x)) {
+                assertEquals(exact.distance(source, x), all.get(x), 1e-9);
+            } else {
+                assertFalse(all.containsKey(x));
+            }
+        }
+        double radius = sorted.get(sorted.size() / 2);
+        Map<Graph<Integer, Double>.Vertex, Double> near =
+            Graphs.withinDistance(g, source, radius, w);
+        for (Map.Entry<Graph<Integer, Double>.Vertex, Double> e
+                 : all.entrySet()) {
+            assertEquals(e.getValue() <= radius, near.containsKey(e.getKey()));
+        }
+        List<Double> nearest =
+            new ArrayList<Double>(Graphs.nearest(g, source, 5, w).values());
+        assertEquals(sorted.subList(0, 5), nearest);
+        HopDistances<Integer, Double> hops =
+            Graphs.hopDistances(g, v.subList(0, 1));
+        Map<Graph<Integer, Double>.Vertex, Integer> twoHops =
+            Graphs.withinHops(g, source, 2);
+        for (Graph<Integer, Double>.Vertex x : v) {
+            int d = hops.distance(0, x);
+            if (d >= 0 && d <= 2) {
+                assertEquals(Integer.valueOf(d), twoHops.get(x));
+            } else {
+                assertFalse(twoHops.containsKey(x));
+            }
+        }
+    }
+
+    /** A 10x10 grid whose states are labeled "x,y", generated on
+     *  demand, with edges of weight 1 between horizontal and vertical
+     *  neighbors. */
+    private static class ImplicitGrid extends ImplicitGraph<String, Double> {
+
+        /** A grid keeping about CAPACITY states. */
+        ImplicitGrid(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        protected void expand(String state, Successors successors) {
+            String[] xy = state.split(",");
+            int x = Integer.parseInt(xy[0]), y = Integer.parseInt(xy[1]);
+            int[][] moves = { {1, 0}, {-1, 0}, {0, 1}, {0, -1} };
+            for (int[] m : moves) {
+                int x1 = x + m[0], y1 = y + m[1];
+                if (x1 >= 0 && x1 < 10 && y1 >= 0 && y1 < 10) {
+                    successors.add(x1 + "," + y1, 1.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testImplicitGraph() {
+        ImplicitGrid g = new ImplicitGrid(50);
+        Distancer<String> manhattan = new Distancer<String>() {
+            @Override
+            public double dist(String a, String b) {
+                String[] p = a.split(","), q = b.split(",");
+                return Math.abs(Integer.parseInt(p[0]) - Integer.parseInt(q[0]))
+                    + Math.abs(Integer.parseInt(p[1])
+                               - Integer.parseInt(q[1]));
+            }
+        };
+        Graph<String, Double>.Vertex start = g.vertexOf("0,0");
+        assertEquals(1, g.vertexSize());
+        List<Graph<String, Double>.Edge> path =
+            Graphs.shortestPath(g, start, g.vertexOf("5,7"), manhattan,
+                                new Vweighter<String>(),
+                                new Eweighter<Double>());
+        assertEquals(12, path.size());
+        assertSame(g.vertexOf("5,7"), g.vertexOf("5,7"));
+        final int[] visited = new int[1];
+        new Traversal<String, Double>() {
+            @Override
+            protected void visit(Graph<String, Double>.Vertex v) {
+                visited[0] += 1;
+            }
+
+            @Override
+            protected void postVisit(Graph<String, Double>.Vertex v) {
+            }
+        }.breadthFirstTraverse(g, g.vertexOf("9,9"));
+        assertEquals(100, visited[0]);
+        assertEquals(100, g.vertexSize());
+        start = g.vertexOf("9,0");
+        assertTrue("cache not trimmed", g.vertexSize() <= 51);
+        path = Graphs.memoizedShortestPath(g, start, g.vertexOf("0,9"),
+                                           manhattan, new Vweighter<String>(),
+                                           new Eweighter<Double>());
+        assertEquals(18, path.size());
+        for (Graph<String, Double>.Edge e : path) {
+            assertTrue("forgotten vertex on path", g.index(e.getV1()) >= 0);
+        }
+        int near = 0;
+        for (Graph<String, Double>.Vertex v
+                 : Traversal.breadthFirst(g, g.vertexOf("5,5"))) {
+            assertTrue(manhattan.dist(v.getLabel(), "5,5") <= 2);
+            near += 1;
+            if (near == 13) {
+                break;
+            }
+        }
+    }
+
+    @Test
+    public void testMemoryBoundedSearches() {
+        final int n = 6;
+        Graph<String, Double> g = randomGrid(n, 49, 3);
+        List<Graph<String, Double>.Vertex> v = byIndex(g);
+        Distancer<String> manhattan = new Distancer<String>() {
+            @Override
+            public double dist(String x, String y) {
+                int i = Integer.parseInt(x), j = Integer.parseInt(y);
+                return Math.abs(i / n - j / n) + Math.abs(i % n - j % n);
+            }
+        };
+        Eweighter<Double> w = new Eweighter<Double>();
+        Graph<String, Double>.Vertex start = v.get(0), goal = v.get(n * n - 1);
+        double best = 0;
+        for (Graph<String, Double>.Edge e
+                 : Graphs.shortestPath(g, start, goal, manhattan,
+                                       new Vweighter<String>(), w)) {
+            best += e.getLabel();
+        }
+        List<List<Graph<String, Double>.Edge>> paths =
+            new ArrayList<List<Graph<String, Double>.Edge>>();
+        paths.add(Graphs.idaStar(g, start, goal, manhattan, w));
+        paths.add(Graphs.smaStar(g, start, goal, manhattan, w, 1000));
+        paths.add(Graphs.smaStar(g, start, goal, manhattan, w, 25));
+        for (List<Graph<String, Double>.Edge> path : paths) {
+            assertNotNull(path);
+            double total = 0;
+            Graph<String, Double>.Vertex at = start;
+            for (Graph<String, Double>.Edge e : path) {
+                total += e.getLabel();
+                at = e.getV(at);
+            }
+            assertSame("path does not reach goal", goal, at);
+            assertEquals("path not shortest", best, total, 1e-9);
+        }
+        assertNull(Graphs.smaStar(g, start, goal, manhattan, w, 5));
+        /* IDA* can only prove that there is no path by trying every
+         * simple path, so check that on a grid small enough to finish. */
+        Graph<String, Double> small = randomGrid(3, 49, 3);
+        Graph<String, Double>.Vertex island = small.add("9");
+        assertNull(Graphs.idaStar(small, small.vertex(0), island,
+                                  Graphs.ZERO_DISTANCER, w));
+        assertEquals(0, Graphs.idaStar(g, start, start, manhattan, w).size());
+    }
+
+    @Test
+    public void testDistanceTable() {
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        Graph<Integer, Double> G = randomGraph(true, 60, 200, 50, 10);
+        List<Graph<Integer, Double>.Vertex> v = byIndex(G);
+        DistanceMatrix<Integer, Double> all =
+            Graphs.floydWarshall(G, eweighter, 1);
+        List<Graph<Integer, Double>.Vertex> few =
+            new ArrayList<Graph<Integer, Double>.Vertex>(),
+            many = new ArrayList<Graph<Integer, Double>.Vertex>();
+        Random random = new Random(50);
+        for (int i = 0; i < 5; i += 1) {
+            few.add(v.get(random.nextInt(60)));
+        }
+        few.add(few.get(0));
+        for (int i = 0; i < 25; i += 1) {
+            many.add(v.get(random.nextInt(60)));
+        }
+        for (int threads = 1; threads <= 3; threads += 2) {
+            for (int k = 0; k < 2; k += 1) {
+                List<Graph<Integer, Double>.Vertex>
+                    sources = k == 0 ? few : many,
+                    targets = k == 0 ? many : few;
+                double[] table =
+                    Graphs.distanceTable(G, sources, targets, eweighter,
+                                         threads);
+                assertEquals(sources.size() * targets.size(), table.length);
+                for (int i = 0; i < sources.size(); i += 1) {
+                    for (int j = 0; j < targets.size(); j += 1) {
+                        assertEquals("wrong distance",
+                                     all.distance(sources.get(i),
+                                                  targets.get(j)),
+                                     table[i * targets.size() + j], 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testOrderedTraversalOfCycle() {
+        Graph<String, Double> G = new DirectedGraph<String, Double>();
+        Graph<String, Double>.Vertex a = G.add("a"), b = G.add("b"),
+                c = G.add("c"), d = G.add("d");
+        G.add(a, b);
+        G.add(b, c);
+        G.add(c, a);
+        G.add(c, d);
+        G.add(d, b);
+        final List<String> visited = new ArrayList<String>();
+        new Traversal<String, Double>() {
+            @Override
+            protected void visit(Graph<String, Double>.Vertex v) {
+                visited.add(v.getLabel());
+            }
+        }.traverse(G, a, Graph.<String>naturalOrder());
+        assertEquals("cyclic traversal wrong",
+                     Arrays.asList("a", "b", "c", "d"), visited);
+        visited.clear();
+        Traversal<String, Double> stopped = new Traversal<String, Double>() {
+            @Override
+            protected void visit(Graph<String, Double>.Vertex v) {
+                visited.add(v.getLabel());
+                if (v.getLabel().equals("c")) {
+                    throw new StopException();
+                }
+            }
+        };
+        stopped.traverse(G, a, Graph.<String>naturalOrder());
+        assertEquals("traversal not stopped",
+                     Arrays.asList("a", "b", "c"), visited);
+        assertSame("wrong final vertex", c, stopped.finalVertex());
+    }
+
+    @Test
+    public void testDistanceMatrixLimits() {
+        Eweighter<Double> eweighter = new Eweighter<Double>();
+        Graph<Integer, Double> G = new DirectedGraph<Integer, Double>();
+        for (int i = 0; i <= 46340; i += 1) {
+            G.add(i);
+        }
+        try {
+            Graphs.floydWarshall(G, eweighter, 1);
+            fail("matrix too large for an array");
+        } catch (IllegalArgumentException excp) {
+            /* Ignore IllegalArgumentException */
+        }
+        try {
+            Graphs.johnson(G, eweighter, 1);
+            fail("matrix too large for an array");
+        } catch (IllegalArgumentException excp) {
+            /* Ignore IllegalArgumentException */
+        }
+        List<Graph<Integer, Double>.Vertex> many =
+            Collections.nCopies(46341, G.vertex(0));
+        try {
+            Graphs.distanceTable(G, many, many, eweighter, 1);
+            fail("table too large for an array");
+        } catch (IllegalArgumentException excp) {
+            /* Ignore IllegalArgumentException */
+        }
+        Graph<Integer, Double> small = new DirectedGraph<Integer, Double>();
+        Graph<Integer, Double>.Vertex a = small.add(0), b = small.add(1);
+        small.add(a, b, 2.0);
+        DistanceMatrix<Integer, Double> d =
+            Graphs.floydWarshall(small, eweighter, 1);
+        assertEquals(2.0, d.distance(a, b), 0.0);
+        Graph<Integer, Double>.Vertex c = small.add(2);
+        try {
+            d.distance(a, c);
+            fail("vertex newer than matrix");
+        } catch (IllegalArgumentException excp) {
+            /* Ignore IllegalArgumentException */
+        }
+    }
+
 }
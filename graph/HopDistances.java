@@ -0,0 +1,168 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** The hop counts (numbers of edges on shortest unweighted paths) from
+ *  each of a list of source vertices to every vertex of a graph,
+ *  following edges forward.  Sources are numbered 0 .. sourceCount()-1
+ *  in the order given.  Produced by Graphs.hopDistances.
+ *  @author Conrad Shiao
+ */
+public final class HopDistances<VLabel, ELabel> {
+
+    /** The distances in G from SOURCES, where DIST[i][v] is the distance
+     *  from source i to the vertex with index v, or -1. */
+    private HopDistances(Graph<VLabel, ELabel> G,
+                         List<Graph<VLabel, ELabel>.Vertex> sources,
+                         int[][] dist) {
+        _graph = G;
+        _sources = sources;
+        _dist = dist;
+    }
+
+    /** Returns the number of sources. */
+    public int sourceCount() {
+        return _sources.size();
+    }
+
+    /** Returns source number I. */
+    public Graph<VLabel, ELabel>.Vertex source(int i) {
+        return _sources.get(i);
+    }
+
+    /** Returns the number of edges on a shortest path from source I to
+     *  V, or -1 if V is unreachable from it. */
+    public int distance(int i, Graph<VLabel, ELabel>.Vertex v) {
+        return _dist[i][_graph.index(v)];
+    }
+
+    /** Returns the distances from source I to all vertices: element k is
+     *  the distance to the vertex whose index (see Graph.index) is k, or
+     *  -1 if it is unreachable or there is no such vertex. */
+    public int[] distances(int i) {
+        return _dist[i].clone();
+    }
+
+    /** Returns the number of vertices reachable from source I,
+     *  including itself. */
+    public int reached(int i) {
+        int count = 0;
+        for (int d : _dist[i]) {
+            if (d >= 0) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /** Returns the greatest distance from source I to a vertex reachable
+     *  from it. */
+    public int eccentricity(int i) {
+        int max = 0;
+        for (int d : _dist[i]) {
+            max = Math.max(max, d);
+        }
+        return max;
+    }
+
+    /** Returns the sum of the distances from source I to the vertices
+     *  reachable from it (the reciprocal of its closeness). */
+    public long farness(int i) {
+        long sum = 0;
+        for (int d : _dist[i]) {
+            if (d > 0) {
+                sum += d;
+            }
+        }
+        return sum;
+    }
+
+    /** Returns the hop distances in G from each of SOURCES.  The sources
+     *  are taken in batches of Long.SIZE, each batch sharing a single
+     *  breadth-first search in which every vertex carries a bit mask of
+     *  the sources that have reached it, so that one scan of a vertex's
+     *  edges advances all the batch's searches at once.  Up to THREADS
+     *  batches run in parallel. */
+    static <VLabel, ELabel> HopDistances<VLabel, ELabel>
+    compute(Graph<VLabel, ELabel> G,
+            List<? extends Graph<VLabel, ELabel>.Vertex> sources,
+            int threads) {
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        final int[] start = compact.outStart(), target = compact.outTarget();
+        final int[] source = new int[sources.size()];
+        for (int i = 0; i < source.length; i += 1) {
+            source[i] = G.index(sources.get(i));
+        }
+        final int[][] dist = new int[source.length][];
+        int batches = (source.length + Long.SIZE - 1) / Long.SIZE;
+        Parallel.forRange(batches, threads, new Parallel.Body() {
+            @Override
+            public void run(int lo, int hi) {
+                for (int b = lo; b < hi; b += 1) {
+                    search(start, target, source, b * Long.SIZE,
+                           Math.min(source.length, (b + 1) * Long.SIZE),
+                           dist);
+                }
+            }
+        });
+        return new HopDistances<VLabel, ELabel>(
+            G, new ArrayList<Graph<VLabel, ELabel>.Vertex>(sources), dist);
+    }
+
+    /** Fills in DIST[i] for LO <= i < HI (at most Long.SIZE sources) by
+     *  a simultaneous breadth-first search from the vertices with
+     *  indices SOURCE[LO .. HI-1] over the adjacency START and TARGET (as
+     *  for CompactGraph).  Bit i-LO of a vertex's masks stands for
+     *  source i. */
+    private static void search(int[] start, int[] target, int[] source,
+                               int lo, int hi, int[][] dist) {
+        int n = start.length - 1;
+        long[] seen = new long[n], frontier = new long[n], next = new long[n];
+        for (int i = lo; i < hi; i += 1) {
+            dist[i] = new int[n];
+            Arrays.fill(dist[i], -1);
+            dist[i][source[i]] = 0;
+            seen[source[i]] |= 1L << (i - lo);
+            frontier[source[i]] |= 1L << (i - lo);
+        }
+        boolean active = true;
+        for (int level = 1; active; level += 1) {
+            for (int u = 0; u < n; u += 1) {
+                long bits = frontier[u];
+                if (bits != 0) {
+                    for (int s = start[u]; s < start[u + 1]; s += 1) {
+                        next[target[s]] |= bits;
+                    }
+                }
+            }
+            active = false;
+            for (int v = 0; v < n; v += 1) {
+                long fresh = next[v] & ~seen[v];
+                next[v] = 0;
+                frontier[v] = fresh;
+                if (fresh != 0) {
+                    active = true;
+                    seen[v] |= fresh;
+                    while (fresh != 0) {
+                        dist[lo + Long.numberOfTrailingZeros(fresh)][v] =
+                            level;
+                        fresh &= fresh - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /** The graph searched. */
+    private final Graph<VLabel, ELabel> _graph;
+
+    /** The sources, in order. */
+    private final List<Graph<VLabel, ELabel>.Vertex> _sources;
+
+    /** The distance from each source to each vertex index, or -1. */
+    private final int[][] _dist;
+
+}
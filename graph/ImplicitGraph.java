@@ -0,0 +1,218 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** A directed graph that is never built: its vertices are states
+ *  (labels) and the edges leaving a state are generated by expand when
+ *  they are first needed.  It suits searches over state spaces (puzzles,
+ *  plans) far too large to construct with Graph.add.
+ *
+ *  States are interned: equal labels (by equals and hashCode) denote
+ *  the same vertex.  The graph keeps at most capacity() states' edge
+ *  lists, discarding the least recently used (to be regenerated if
+ *  needed again).  It also keeps about capacity() vertices: when a
+ *  client asks for a vertex with vertexOf(state), as it does to begin a
+ *  search, the least recently used vertices beyond that number are
+ *  forgotten, along with every edge list that mentions them.  Vertices
+ *  are never forgotten in the middle of a search, so that searches may
+ *  keep data about them by index, as usual; the number of vertices (and
+ *  indexLimit()) grows as a search proceeds.
+ *
+ *  The graph knows only the edges leaving a state, so inEdges,
+ *  predecessors, and in-degrees are unsupported.  Like a view, it may
+ *  not be changed with add or remove.  Clients extend this class,
+ *  overriding expand.
+ *  @author Conrad Shiao
+ */
+public abstract class ImplicitGraph<VLabel, ELabel>
+    extends GraphView<VLabel, ELabel> {
+
+    /** An implicit graph keeping about CAPACITY states. */
+    public ImplicitGraph(int capacity) {
+        super(new DirectedGraph<VLabel, ELabel>());
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        _capacity = capacity;
+        _interned = new LinkedHashMap<VLabel, Vertex>(16, 0.75f, true);
+        _expansions = new LinkedHashMap<Vertex, ArrayList<Edge>>(16, 0.75f,
+                                                                 true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Vertex, ArrayList<Edge>> eldest) {
+                return size() > _capacity;
+            }
+        };
+    }
+
+    /** Generate the edges leaving STATE, by calling SUCCESSORS.add once
+     *  for each.  Must give the same edges each time it is called on
+     *  equal states. */
+    protected abstract void expand(VLabel state, Successors successors);
+
+    /** Receives the edges generated by expand. */
+    public final class Successors {
+
+        /** A receiver for the edges leaving FROM. */
+        private Successors(Vertex from) {
+            _from = from;
+        }
+
+        /** Records an edge labeled LABEL to the state NEXT. */
+        public void add(VLabel next, ELabel label) {
+            _edges.add(new Edge(_from, intern(next), label));
+        }
+
+        /** The vertex being expanded. */
+        private final Vertex _from;
+
+        /** The edges recorded. */
+        private final ArrayList<Edge> _edges = new ArrayList<Edge>();
+    }
+
+    /** Returns the number of states I try to keep. */
+    public int capacity() {
+        return _capacity;
+    }
+
+    /** Returns the vertex whose label equals STATE, first forgetting the
+     *  least recently used vertices beyond capacity().  Any vertex
+     *  obtained earlier may be forgotten (and replaced by a new vertex
+     *  for the same state when next needed), so this is to be called at
+     *  the beginning of a search, not in the middle. */
+    public Vertex vertexOf(VLabel state) {
+        trim();
+        return intern(state);
+    }
+
+    @Override
+    public Iteration<Vertex> vertices() {
+        return base().vertices();
+    }
+
+    @Override
+    public Vertex vertex(int k) {
+        return base().vertex(k);
+    }
+
+    @Override
+    public int vertexSize() {
+        return base().vertexSize();
+    }
+
+    /** Returns an iteration over the edges I currently hold (those of
+     *  the states expanded and not yet forgotten). */
+    @Override
+    public Iteration<Edge> edges() {
+        final Iterator<ArrayList<Edge>> lists =
+            new ArrayList<ArrayList<Edge>>(_expansions.values()).iterator();
+        return new Iteration<Edge>() {
+            @Override
+            public boolean hasNext() {
+                while (!_current.hasNext() && lists.hasNext()) {
+                    _current = lists.next().iterator();
+                }
+                return _current.hasNext();
+            }
+
+            @Override
+            public Edge next() {
+                hasNext();
+                return _current.next();
+            }
+
+            /** The edges of the current list. */
+            private Iterator<Edge> _current =
+                Collections.<Edge>emptyList().iterator();
+        };
+    }
+
+    @Override
+    public Iteration<Edge> outEdges(Vertex v) {
+        return Iteration.iteration(expansion(v));
+    }
+
+    @Override
+    public int outDegree(Vertex v) {
+        return expansion(v).size();
+    }
+
+    /** Unsupported: only edges leaving a state are known. */
+    @Override
+    public Iteration<Edge> inEdges(Vertex v) {
+        throw new UnsupportedOperationException(
+            "implicit graphs have no incoming edges");
+    }
+
+    /** Returns the edges leaving V, generating them if I do not hold
+     *  them. */
+    private ArrayList<Edge> expansion(Vertex v) {
+        ArrayList<Edge> edges = _expansions.get(v);
+        if (edges == null) {
+            Successors successors = new Successors(v);
+            expand(v.getLabel(), successors);
+            edges = successors._edges;
+            edges.trimToSize();
+            _expansions.put(v, edges);
+        }
+        return edges;
+    }
+
+    /** Returns the vertex for STATE, adding one if there is none. */
+    private Vertex intern(VLabel state) {
+        Vertex v = _interned.get(state);
+        if (v == null) {
+            v = base().add(state);
+            _interned.put(state, v);
+        }
+        return v;
+    }
+
+    /** Forget the least recently used vertices beyond my capacity, and
+     *  the edge lists that mention them. */
+    private void trim() {
+        if (_interned.size() <= _capacity) {
+            return;
+        }
+        HashSet<Vertex> forgotten = new HashSet<Vertex>();
+        Iterator<Vertex> oldest = _interned.values().iterator();
+        while (_interned.size() > _capacity) {
+            forgotten.add(oldest.next());
+            oldest.remove();
+        }
+        Iterator<Map.Entry<Vertex, ArrayList<Edge>>> lists =
+            _expansions.entrySet().iterator();
+        while (lists.hasNext()) {
+            Map.Entry<Vertex, ArrayList<Edge>> entry = lists.next();
+            if (forgotten.contains(entry.getKey())) {
+                lists.remove();
+                continue;
+            }
+            for (Edge e : entry.getValue()) {
+                if (forgotten.contains(e.getV1())) {
+                    lists.remove();
+                    break;
+                }
+            }
+        }
+        for (Vertex v : forgotten) {
+            base().remove(v);
+        }
+    }
+
+    /** The number of states I try to keep. */
+    private final int _capacity;
+
+    /** My vertices, by label, least recently used first. */
+    private final LinkedHashMap<VLabel, Vertex> _interned;
+
+    /** The edges leaving recently expanded vertices, least recently used
+     *  first. */
+    private final LinkedHashMap<Vertex, ArrayList<Edge>> _expansions;
+
+}
@@ -0,0 +1,175 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/** The connected components of a graph (ignoring edge directions), kept
+ *  up to date as the graph changes.  Once created by
+ *  Graphs.incrementalComponents, it listens to its graph: each added
+ *  edge is a single union of two sets and each added vertex a new
+ *  singleton, so that growing graphs never need recomputing.  Removals
+ *  cannot be undone in a union-find structure, so they merely mark the
+ *  components stale, and the next query recomputes them from scratch.
+ *  @author Conrad Shiao
+ */
+public final class IncrementalComponents<VLabel, ELabel>
+    implements GraphListener<VLabel, ELabel> {
+
+    /** The components of G, kept current until detach() is called. */
+    IncrementalComponents(Graph<VLabel, ELabel> G) {
+        _graph = G;
+        rebuild();
+        G.addListener(this);
+    }
+
+    /** Returns the current number of components. */
+    public int count() {
+        refresh();
+        return _count;
+    }
+
+    /** Returns true iff U and V are currently in the same component.
+     *  After detach, U and V must have been in the graph when detach
+     *  was called. */
+    public boolean connected(Graph<VLabel, ELabel>.Vertex u,
+                             Graph<VLabel, ELabel>.Vertex v) {
+        refresh();
+        return find(indexOf(u)) == find(indexOf(v));
+    }
+
+    /** Returns a snapshot of the current components, numbered
+     *  0 .. count()-1. */
+    public ConnectedComponents<VLabel, ELabel> components() {
+        refresh();
+        int n = _members == null ? _graph.indexLimit() : _members.size();
+        int[] representative = new int[n];
+        for (int v = 0; v < n; v += 1) {
+            boolean present = _members == null ? _graph.vertex(v) != null
+                : _members.get(v) != null;
+            representative[v] = present ? find(v) : -1;
+        }
+        return ConnectedComponents.number(_graph, representative);
+    }
+
+    /** Stop following changes to my graph.  After this, my answers
+     *  describe the graph as it was when detach was called. */
+    public void detach() {
+        if (_members != null) {
+            return;
+        }
+        refresh();
+        _graph.removeListener(this);
+        _members = new ArrayList<Graph<VLabel, ELabel>.Vertex>();
+        for (int v = 0; v < _graph.indexLimit(); v += 1) {
+            _members.add(_graph.vertex(v));
+        }
+    }
+
+    @Override
+    public void vertexAdded(Graph<VLabel, ELabel> G,
+                            Graph<VLabel, ELabel>.Vertex v) {
+        if (!_stale) {
+            int k = G.index(v);
+            if (k >= _parent.length) {
+                _parent = Arrays.copyOf(_parent,
+                                        Math.max(k + 1, 2 * _parent.length));
+            }
+            _parent[k] = k;
+            _count += 1;
+        }
+    }
+
+    @Override
+    public void vertexRemoved(Graph<VLabel, ELabel> G,
+                              Graph<VLabel, ELabel>.Vertex v, int index) {
+        _stale = true;
+    }
+
+    @Override
+    public void edgeAdded(Graph<VLabel, ELabel> G,
+                          Graph<VLabel, ELabel>.Edge e) {
+        if (!_stale) {
+            union(G.index(e.getV0()), G.index(e.getV1()));
+        }
+    }
+
+    @Override
+    public void edgeRemoved(Graph<VLabel, ELabel> G,
+                            Graph<VLabel, ELabel>.Edge e) {
+        _stale = true;
+    }
+
+    /** Returns the index of V in my graph, or, after detach, the index
+     *  it had when detach was called.  Removals move vertices to new
+     *  indices, so a vertex not found at its current index is looked
+     *  for among all of them. */
+    private int indexOf(Graph<VLabel, ELabel>.Vertex v) {
+        int k = _graph.index(v);
+        if (_members == null
+            || k >= 0 && k < _members.size() && _members.get(k) == v) {
+            return k;
+        }
+        k = _members.indexOf(v);
+        if (k >= 0) {
+            return k;
+        }
+        throw new IllegalArgumentException("vertex added after detach");
+    }
+
+    /** Recompute my sets if a removal has made them stale. */
+    private void refresh() {
+        if (_stale) {
+            rebuild();
+        }
+    }
+
+    /** Compute my sets from scratch from the edges of my graph. */
+    private void rebuild() {
+        int n = _graph.indexLimit();
+        _parent = new int[Math.max(n, 1)];
+        for (int v = 0; v < n; v += 1) {
+            _parent[v] = v;
+        }
+        _count = _graph.vertexSize();
+        for (Graph<VLabel, ELabel>.Edge e : _graph.edges()) {
+            union(_graph.index(e.getV0()), _graph.index(e.getV1()));
+        }
+        _stale = false;
+    }
+
+    /** Returns the representative (least member) of the set containing
+     *  X, halving the path to it. */
+    private int find(int x) {
+        while (_parent[x] != x) {
+            _parent[x] = _parent[_parent[x]];
+            x = _parent[x];
+        }
+        return x;
+    }
+
+    /** Merge the sets containing X and Y. */
+    private void union(int x, int y) {
+        x = find(x);
+        y = find(y);
+        if (x != y) {
+            _parent[Math.max(x, y)] = Math.min(x, y);
+            _count -= 1;
+        }
+    }
+
+    /** The graph whose components I follow. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** Parent links among vertex indices: _parent[x] == x iff x
+     *  represents its set, and a representative is the least index in
+     *  its set. */
+    private int[] _parent;
+    /** The number of sets. */
+    private int _count;
+    /** True iff something has been removed from my graph since my sets
+     *  were computed. */
+    private boolean _stale;
+    /** Once detach has been called, the vertex that had each index
+     *  then (null for none); until then, null. */
+    private ArrayList<Graph<VLabel, ELabel>.Vertex> _members;
+
+}
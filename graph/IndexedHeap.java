@@ -0,0 +1,148 @@
+package graph;
+
+import java.util.Arrays;
+
+/** A priority queue of small non-negative integers (typically vertex
+ *  indices) ordered by double keys, smallest first, that can lower the
+ *  key of an item already present in O(lg N) time.  Unlike a
+ *  PriorityQueue of objects, finding an item is a single array lookup,
+ *  and nothing is allocated per operation.
+ *  @author Conrad Shiao
+ */
+final class IndexedHeap {
+
+    /** An empty heap for items 0 .. CAPACITY-1. */
+    IndexedHeap(int capacity) {
+        _items = new int[Math.max(capacity, 1)];
+        _keys = new double[_items.length];
+        _position = new int[_items.length];
+        Arrays.fill(_position, -1);
+    }
+
+    /** Returns true iff I contain no items. */
+    boolean isEmpty() {
+        return _size == 0;
+    }
+
+    /** Returns the number of items I contain. */
+    int size() {
+        return _size;
+    }
+
+    /** Returns true iff I contain ITEM. */
+    boolean contains(int item) {
+        return item < _position.length && _position[item] >= 0;
+    }
+
+    /** Returns the key of ITEM, which I must contain. */
+    double key(int item) {
+        return _keys[item];
+    }
+
+    /** Insert ITEM with key KEY, or if ITEM is present with a larger key,
+     *  lower its key to KEY.  Returns true iff I changed. */
+    boolean push(int item, double key) {
+        if (item >= _position.length) {
+            grow(item + 1);
+        }
+        int k = _position[item];
+        if (k < 0) {
+            k = _size;
+            _size += 1;
+        } else if (key >= _keys[item]) {
+            return false;
+        }
+        _keys[item] = key;
+        siftUp(k, item);
+        return true;
+    }
+
+    /** Remove and return the item with the smallest key.  I must not be
+     *  empty. */
+    int pop() {
+        int top = _items[0];
+        _position[top] = -1;
+        _size -= 1;
+        if (_size > 0) {
+            siftDown(0, _items[_size]);
+        }
+        return top;
+    }
+
+    /** Returns the smallest key.  I must not be empty. */
+    double minKey() {
+        return _keys[_items[0]];
+    }
+
+    /** Remove all items. */
+    void clear() {
+        for (int k = 0; k < _size; k += 1) {
+            _position[_items[k]] = -1;
+        }
+        _size = 0;
+    }
+
+    /** Make room for items 0 .. CAPACITY-1. */
+    void grow(int capacity) {
+        if (capacity > _position.length) {
+            int old = _position.length;
+            int n = Math.max(capacity, 2 * old);
+            _items = Arrays.copyOf(_items, n);
+            _keys = Arrays.copyOf(_keys, n);
+            _position = Arrays.copyOf(_position, n);
+            Arrays.fill(_position, old, n, -1);
+        }
+    }
+
+    /** Place ITEM at heap position K or above, moving larger parents
+     *  down. */
+    private void siftUp(int k, int item) {
+        double key = _keys[item];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            int p = _items[parent];
+            if (_keys[p] <= key) {
+                break;
+            }
+            _items[k] = p;
+            _position[p] = k;
+            k = parent;
+        }
+        _items[k] = item;
+        _position[item] = k;
+    }
+
+    /** Place ITEM at heap position K or below, moving smaller children
+     *  up. */
+    private void siftDown(int k, int item) {
+        double key = _keys[item];
+        int half = _size >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            int c = _items[child];
+            if (child + 1 < _size && _keys[_items[child + 1]] < _keys[c]) {
+                child += 1;
+                c = _items[child];
+            }
+            if (key <= _keys[c]) {
+                break;
+            }
+            _items[k] = c;
+            _position[c] = k;
+            k = child;
+        }
+        _items[k] = item;
+        _position[item] = k;
+    }
+
+    /** The heap: _keys[_items[k]] <= the keys of its children
+     *  _items[2k+1] and _items[2k+2]. */
+    private int[] _items;
+    /** The key of each item (meaningful only for items present). */
+    private double[] _keys;
+    /** The position of each item in _items, or -1 if absent. */
+    private int[] _position;
+    /** The number of items present. */
+    private int _size;
+
+}
@@ -0,0 +1,300 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/** Yen's algorithm for the K shortest loopless paths between two
+ *  vertices.  The graph is never copied: exclusions of edges and vertices
+ *  are marks in arrays private to each search.  Every spur search is an
+ *  A* search guided by the exact distances to the target in the whole
+ *  graph (one reverse Dijkstra search, shared by all), which remain a
+ *  consistent heuristic however many edges are excluded, and the spur
+ *  searches of each round run in parallel.
+ *  @author Conrad Shiao
+ */
+final class KShortestPaths<VLabel, ELabel> {
+
+    /** Prepare to find paths from SOURCE to TARGET in G, whose edges are
+     *  weighted by the non-negative edge weighter EWEIGHTER. */
+    private KShortestPaths(Graph<VLabel, ELabel> G,
+                           Graph<VLabel, ELabel>.Vertex source,
+                           Graph<VLabel, ELabel>.Vertex target,
+                           Weighting<? super ELabel> eweighter) {
+        _compact = new CompactGraph<VLabel, ELabel>(G, true);
+        _n = _compact.size();
+        _source = G.index(source);
+        _target = G.index(target);
+        _start = _compact.outStart();
+        _head = _compact.outTarget();
+        _weight = _compact.outWeights(eweighter);
+        IdentityHashMap<Object, Integer> ids =
+            new IdentityHashMap<Object, Integer>();
+        _tail = new int[_head.length];
+        for (int v = 0; v < _n; v += 1) {
+            Arrays.fill(_tail, _start[v], _start[v + 1], v);
+        }
+        _edgeId = new int[_head.length];
+        for (int s = 0; s < _head.length; s += 1) {
+            Integer id = ids.get(_compact.outEdge(s));
+            if (id == null) {
+                id = ids.size();
+                ids.put(_compact.outEdge(s), id);
+            }
+            _edgeId[s] = id;
+        }
+        _edges = ids.size();
+        _toTarget = reverseDistances(_compact.inWeights(eweighter));
+    }
+
+    /** Returns up to K shortest loopless paths from SOURCE to TARGET in
+     *  G, whose edges are weighted by the non-negative edge weighter
+     *  EWEIGHTER, in order of increasing weight, running spur searches
+     *  on THREADS threads. */
+    static <VLabel, ELabel> List<List<Graph<VLabel, ELabel>.Edge>>
+    yen(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex source,
+        Graph<VLabel, ELabel>.Vertex target, int k,
+        Weighting<? super ELabel> eweighter, int threads) {
+        return new KShortestPaths<VLabel, ELabel>(G, source, target,
+                                                  eweighter)
+            .find(k, threads);
+    }
+
+    /** Returns up to K shortest loopless paths, using THREADS threads. */
+    private List<List<Graph<VLabel, ELabel>.Edge>> find(int k, int threads) {
+        List<List<Graph<VLabel, ELabel>.Edge>> result =
+            new ArrayList<List<Graph<VLabel, ELabel>.Edge>>();
+        if (k <= 0 || _toTarget[_source] == Double.POSITIVE_INFINITY) {
+            return result;
+        }
+        final List<int[]> accepted = new ArrayList<int[]>();
+        PriorityQueue<Candidate> candidates =
+            new PriorityQueue<Candidate>(11, new Comparator<Candidate>() {
+                @Override
+                public int compare(Candidate c0, Candidate c1) {
+                    return Double.compare(c0._weight, c1._weight);
+                }
+            });
+        Set<List<Integer>> seen = new HashSet<List<Integer>>();
+        Search first = new Search();
+        int[] path = first.spur(new int[0], 0, accepted);
+        while (path != null) {
+            accepted.add(path);
+            if (accepted.size() == k) {
+                break;
+            }
+            final int[] last = path;
+            final int[][] spurs = new int[last.length][];
+            Parallel.forRange(last.length, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    Search search = new Search();
+                    for (int i = lo; i < hi; i += 1) {
+                        spurs[i] = search.spur(last, i, accepted);
+                    }
+                }
+            });
+            for (int[] spur : spurs) {
+                if (spur != null && seen.add(ids(spur))) {
+                    candidates.add(new Candidate(spur, weight(spur)));
+                }
+            }
+            Candidate next = candidates.poll();
+            path = next == null ? null : next._slots;
+        }
+        for (int[] slots : accepted) {
+            List<Graph<VLabel, ELabel>.Edge> edges =
+                new ArrayList<Graph<VLabel, ELabel>.Edge>(slots.length);
+            for (int s : slots) {
+                edges.add(_compact.outEdge(s));
+            }
+            result.add(edges);
+        }
+        return result;
+    }
+
+    /** The state of one spur search, reused from search to search. */
+    private class Search {
+
+        /** Returns the shortest path from the source to the target
+         *  (as out-slots) that begins with the first I slots of PREVIOUS,
+         *  and then leaves vertex I of PREVIOUS by none of the edges by
+         *  which the paths in ACCEPTED that share that beginning leave
+         *  it, and visits no vertex of the beginning again, or null if
+         *  there is none. */
+        int[] spur(int[] previous, int i, List<int[]> accepted) {
+            int spurVertex = _source;
+            for (int j = 0; j < i; j += 1) {
+                _bannedVertex[spurVertex] = true;
+                spurVertex = _head[previous[j]];
+            }
+            List<Integer> banned = new ArrayList<Integer>();
+            for (int[] path : accepted) {
+                if (path.length > i && samePrefix(path, previous, i)) {
+                    banned.add(_edgeId[path[i]]);
+                    _bannedEdge[_edgeId[path[i]]] = true;
+                }
+            }
+            int[] tail = search(spurVertex);
+            int v = _source;
+            for (int j = 0; j < i; j += 1) {
+                _bannedVertex[v] = false;
+                v = _head[previous[j]];
+            }
+            for (int id : banned) {
+                _bannedEdge[id] = false;
+            }
+            if (tail == null) {
+                return null;
+            }
+            int[] path = Arrays.copyOf(previous, i + tail.length);
+            System.arraycopy(tail, 0, path, i, tail.length);
+            return path;
+        }
+
+        /** Returns the out-slots of a shortest path from vertex FROM to
+         *  the target avoiding banned vertices and edges, or null. */
+        private int[] search(int from) {
+            Arrays.fill(_dist, Double.POSITIVE_INFINITY);
+            _dist[from] = 0.0;
+            _heap.clear();
+            _heap.push(from, _toTarget[from]);
+            while (!_heap.isEmpty()) {
+                int v = _heap.pop();
+                if (v == _target) {
+                    return slotsTo(from);
+                }
+                for (int s = _start[v]; s < _start[v + 1]; s += 1) {
+                    int w = _head[s];
+                    if (_bannedVertex[w] || _bannedEdge[_edgeId[s]]
+                        || _toTarget[w] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    double d = _dist[v] + _weight[s];
+                    if (d < _dist[w]) {
+                        _dist[w] = d;
+                        _via[w] = s;
+                        _heap.push(w, d + _toTarget[w]);
+                    }
+                }
+            }
+            return null;
+        }
+
+        /** Returns the slots of the path found from FROM to the
+         *  target. */
+        private int[] slotsTo(int from) {
+            int length = 0;
+            for (int v = _target; v != from; v = _tail[_via[v]]) {
+                length += 1;
+            }
+            int[] slots = new int[length];
+            for (int v = _target; v != from; v = _tail[_via[v]]) {
+                length -= 1;
+                slots[length] = _via[v];
+            }
+            return slots;
+        }
+
+        /** Tentative distances from the spur vertex. */
+        private final double[] _dist = new double[_n];
+        /** The slot by which each vertex was last reached. */
+        private final int[] _via = new int[_n];
+        /** Marks the vertices excluded from the current search. */
+        private final boolean[] _bannedVertex = new boolean[_n];
+        /** Marks the edges (by id) excluded from the current search. */
+        private final boolean[] _bannedEdge = new boolean[_edges];
+        /** The A* open list. */
+        private final IndexedHeap _heap = new IndexedHeap(_n);
+    }
+
+    /** A path not yet accepted. */
+    private static class Candidate {
+        /** The path with out-slots SLOTS and total weight WEIGHT. */
+        Candidate(int[] slots, double weight) {
+            _slots = slots;
+            _weight = weight;
+        }
+
+        /** The path's slots. */
+        private final int[] _slots;
+        /** Its weight. */
+        private final double _weight;
+    }
+
+    /** Returns the distance from each vertex to the target, by a
+     *  Dijkstra search over incoming slots, weighted by INWEIGHT. */
+    private double[] reverseDistances(double[] inWeight) {
+        int[] inStart = _compact.inStart(), inSource = _compact.inSource();
+        double[] dist = new double[_n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[_target] = 0.0;
+        IndexedHeap heap = new IndexedHeap(_n);
+        heap.push(_target, 0.0);
+        while (!heap.isEmpty()) {
+            int v = heap.pop();
+            for (int s = inStart[v]; s < inStart[v + 1]; s += 1) {
+                int u = inSource[s];
+                double d = dist[v] + inWeight[s];
+                if (d < dist[u]) {
+                    dist[u] = d;
+                    heap.push(u, d);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /** Returns true iff the first I slots of P0 and P1 are the same
+     *  edges. */
+    private boolean samePrefix(int[] p0, int[] p1, int i) {
+        for (int j = 0; j < i; j += 1) {
+            if (_edgeId[p0[j]] != _edgeId[p1[j]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the edge ids of the path SLOTS. */
+    private List<Integer> ids(int[] slots) {
+        List<Integer> ids = new ArrayList<Integer>(slots.length);
+        for (int s : slots) {
+            ids.add(_edgeId[s]);
+        }
+        return ids;
+    }
+
+    /** Returns the total weight of the path SLOTS. */
+    private double weight(int[] slots) {
+        double total = 0.0;
+        for (int s : slots) {
+            total += _weight[s];
+        }
+        return total;
+    }
+
+    /** Snapshot of the graph. */
+    private final CompactGraph<VLabel, ELabel> _compact;
+    /** Bound on vertex indices. */
+    private final int _n;
+    /** Indices of the end points of the paths. */
+    private final int _source, _target;
+    /** Out-slot boundaries, heads, and tails. */
+    private final int[] _start, _head, _tail;
+    /** Out-slot weights. */
+    private final double[] _weight;
+    /** The edge in each out-slot, as a number in 0 .. _edges-1 (an
+     *  undirected edge occupies two slots). */
+    private final int[] _edgeId;
+    /** The number of distinct edges. */
+    private final int _edges;
+    /** Distance from each vertex to the target in the whole graph. */
+    private final double[] _toTarget;
+
+}
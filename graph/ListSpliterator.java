@@ -0,0 +1,73 @@
+package graph;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/** A Spliterator over a range of a random-access list of distinct,
+ *  non-null items that splits in halves, reporting exact sizes, so that
+ *  parallel streams divide the work evenly.  The list must not change
+ *  while the spliterator is in use.
+ *  @author Conrad Shiao
+ */
+final class ListSpliterator<T> implements Spliterator<T> {
+
+    /** A spliterator over ITEMS[LO .. HI-1]. */
+    ListSpliterator(List<T> items, int lo, int hi) {
+        _items = items;
+        _next = lo;
+        _hi = hi;
+    }
+
+    /** A spliterator over all of ITEMS. */
+    ListSpliterator(List<T> items) {
+        this(items, 0, items.size());
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (_next >= _hi) {
+            return false;
+        }
+        action.accept(_items.get(_next));
+        _next += 1;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        for (; _next < _hi; _next += 1) {
+            action.accept(_items.get(_next));
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int mid = (_next + _hi) >>> 1;
+        if (mid <= _next) {
+            return null;
+        }
+        ListSpliterator<T> prefix =
+            new ListSpliterator<T>(_items, _next, mid);
+        _next = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return _hi - _next;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL;
+    }
+
+    /** The list. */
+    private final List<T> _items;
+    /** The next item to deliver. */
+    private int _next;
+    /** The end of my range. */
+    private final int _hi;
+
+}
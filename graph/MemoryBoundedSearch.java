@@ -0,0 +1,413 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+/** Heuristic shortest-path searches whose memory is bounded, for graphs
+ *  too large for the open and closed sets of A*: iterative-deepening A*
+ *  (IDA*), which keeps only the current path, and simplified
+ *  memory-bounded A* (SMA*), which keeps a search tree of at most a
+ *  given number of nodes, forgetting the least promising leaves when it
+ *  must and remembering, in their parents, how good they were.  Both
+ *  require non-negative edge weights and an admissible heuristic, and
+ *  neither has the side effects on vertex weights of
+ *  Graphs.shortestPath.
+ *  @author Conrad Shiao
+ */
+final class MemoryBoundedSearch {
+
+    /** Returns a path from V0 to V1 in G of minimum weight according to
+     *  EWEIGHTER, or null if there is none, found by IDA* guided by H.
+     *  Each search checks only the vertices on its own path for cycles,
+     *  so when V1 is unreachable the last search tries every simple path
+     *  from V0: time exponential in the size of the region V0 reaches
+     *  (minutes for a 6x6 grid), though memory stays linear. */
+    static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    idaStar(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex V0,
+            Graph<VLabel, ELabel>.Vertex V1, Distancer<? super VLabel> h,
+            Weighting<? super ELabel> eweighter) {
+        ArrayList<Graph<VLabel, ELabel>.Edge> edges =
+            new ArrayList<Graph<VLabel, ELabel>.Edge>();
+        ArrayList<Graph<VLabel, ELabel>.Vertex> vertices =
+            new ArrayList<Graph<VLabel, ELabel>.Vertex>();
+        HashSet<Graph<VLabel, ELabel>.Vertex> onPath =
+            new HashSet<Graph<VLabel, ELabel>.Vertex>();
+        ArrayList<EdgeCursor<VLabel, ELabel>> cursors =
+            new ArrayList<EdgeCursor<VLabel, ELabel>>();
+        double[] g = new double[16];
+        SearchEvent event = Graphs.startSearch();
+        boolean instrumented = event != null;
+        long startTime = instrumented ? System.nanoTime() : 0;
+        long settled = 0, relaxed = 0, pushes = 0, distCalls = 1;
+        List<Graph<VLabel, ELabel>.Edge> result = null;
+        double bound = h.dist(V0.getLabel(), V1.getLabel());
+        if (V0 == V1) {
+            result = edges;
+        }
+        while (result == null && bound < Double.POSITIVE_INFINITY) {
+            double next = Double.POSITIVE_INFINITY;
+            edges.clear();
+            vertices.clear();
+            onPath.clear();
+            vertices.add(V0);
+            onPath.add(V0);
+            if (cursors.isEmpty()) {
+                cursors.add(G.outCursor());
+            }
+            cursors.get(0).reset(V0);
+            settled += 1;
+            int depth = 0;
+            while (depth >= 0 && result == null) {
+                EdgeCursor<VLabel, ELabel> cursor = cursors.get(depth);
+                if (!cursor.next()) {
+                    onPath.remove(vertices.remove(depth));
+                    if (depth > 0) {
+                        edges.remove(depth - 1);
+                    }
+                    depth -= 1;
+                    continue;
+                }
+                relaxed += 1;
+                Graph<VLabel, ELabel>.Vertex w = cursor.targetVertex();
+                if (onPath.contains(w)) {
+                    continue;
+                }
+                double gw = g[depth] + eweighter.weight(cursor.label());
+                double f = gw + h.dist(w.getLabel(), V1.getLabel());
+                distCalls += 1;
+                if (f > bound) {
+                    next = Math.min(next, f);
+                    continue;
+                }
+                edges.add(cursor.edge());
+                vertices.add(w);
+                onPath.add(w);
+                pushes += 1;
+                depth += 1;
+                if (w == V1) {
+                    result = new ArrayList<Graph<VLabel, ELabel>.Edge>(edges);
+                    break;
+                }
+                if (depth == g.length) {
+                    g = Arrays.copyOf(g, 2 * depth);
+                }
+                g[depth] = gw;
+                if (depth == cursors.size()) {
+                    cursors.add(G.outCursor());
+                }
+                cursors.get(depth).reset(w);
+                settled += 1;
+            }
+            bound = next;
+        }
+        if (instrumented) {
+            Graphs.report(event, new SearchStats("idaStar",
+                                                 System.nanoTime() - startTime,
+                                                 settled, relaxed, pushes,
+                                                 0, distCalls));
+        }
+        return result;
+    }
+
+    /** Returns a path from V0 to V1 in G of minimum weight according to
+     *  EWEIGHTER among those with fewer than MAXNODES vertices, or null
+     *  if there is none, found by SMA* guided by H while keeping at most
+     *  MAXNODES search nodes. */
+    static <VLabel, ELabel> List<Graph<VLabel, ELabel>.Edge>
+    smaStar(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex V0,
+            Graph<VLabel, ELabel>.Vertex V1, Distancer<? super VLabel> h,
+            Weighting<? super ELabel> eweighter, int maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("node budget must be positive");
+        }
+        return new SmaStar<VLabel, ELabel>(G, V1, h, eweighter, maxNodes)
+            .search(V0);
+    }
+
+    /** The state of one SMA* search. */
+    private static final class SmaStar<VLabel, ELabel> {
+
+        /** A search toward GOAL in G guided by H, with edges weighted by
+         *  EWEIGHTER, keeping at most MAXNODES nodes. */
+        SmaStar(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex goal,
+                Distancer<? super VLabel> h,
+                Weighting<? super ELabel> eweighter, int maxNodes) {
+            _goal = goal;
+            _h = h;
+            _eweighter = eweighter;
+            _maxNodes = maxNodes;
+            _cursor = G.outCursor();
+        }
+
+        /** Returns the best path from SOURCE, or null. */
+        List<Graph<VLabel, ELabel>.Edge> search(
+                Graph<VLabel, ELabel>.Vertex source) {
+            SearchEvent event = Graphs.startSearch();
+            boolean instrumented = event != null;
+            long startTime = instrumented ? System.nanoTime() : 0;
+            Node root = new Node(null, null, source, 0.0, 0);
+            root._f = estimate(source);
+            _nodes = 1;
+            _open.add(root);
+            List<Graph<VLabel, ELabel>.Edge> result = null;
+            while (!_open.isEmpty()) {
+                Node n = _open.first();
+                if (n._f == Double.POSITIVE_INFINITY) {
+                    break;
+                }
+                if (n._vertex == _goal) {
+                    result = n.path();
+                    break;
+                }
+                Node s = nextSuccessor(n);
+                if (s == null) {
+                    if (n._forgotten == Double.POSITIVE_INFINITY) {
+                        _open.remove(n);
+                        backUp(n);
+                    } else if (!backUp(n)) {
+                        n._next = 0;
+                        n._forgotten = Double.POSITIVE_INFINITY;
+                    }
+                    continue;
+                }
+                if (s._vertex != _goal && s._depth >= _maxNodes - 1) {
+                    s._f = Double.POSITIVE_INFINITY;
+                } else {
+                    s._f = Math.max(n._f, s._g + estimate(s._vertex));
+                }
+                if (_nodes < _maxNodes || forgetWorstLeaf(n)) {
+                    n._children.add(s);
+                    _nodes += 1;
+                    _pushes += 1;
+                    _open.add(s);
+                }
+                if (n.complete()) {
+                    if (n._forgotten == Double.POSITIVE_INFINITY) {
+                        _open.remove(n);
+                    }
+                    backUp(n);
+                }
+            }
+            if (instrumented) {
+                Graphs.report(event,
+                              new SearchStats("smaStar",
+                                              System.nanoTime() - startTime,
+                                              _settled, _relaxed, _pushes,
+                                              0, _distCalls));
+            }
+            return result;
+        }
+
+        /** Returns the next successor of N not in memory and not already
+         *  on its path, or null if its successors have all been
+         *  generated (since N last began regenerating them). */
+        private Node nextSuccessor(Node n) {
+            if (n._next == 0) {
+                _settled += 1;
+            }
+            int degree = 0;
+            _cursor.reset(n._vertex);
+            while (_cursor.next()) {
+                if (degree == n._next) {
+                    n._next += 1;
+                    _relaxed += 1;
+                    Graph<VLabel, ELabel>.Vertex w = _cursor.targetVertex();
+                    if (!n.onPath(w) && n.child(w, _cursor.edge()) == null) {
+                        return new Node(n, _cursor.edge(), w,
+                                        n._g + _eweighter.weight(
+                                            _cursor.label()),
+                                        n._depth + 1);
+                    }
+                }
+                degree += 1;
+            }
+            n._degree = degree;
+            return null;
+        }
+
+        /** Make room by forgetting the shallowest of the leaves with the
+         *  greatest f-cost, other than KEEP, and returning its parent to
+         *  the open set.  Returns false if KEEP is the only leaf, which
+         *  happens only when memory holds nothing but KEEP's path (and
+         *  so any successor of KEEP is too deep to keep). */
+        private boolean forgetWorstLeaf(Node keep) {
+            Node worst = null;
+            for (Node x : _open.descendingSet()) {
+                if (x != keep && x._children.isEmpty() && x._parent != null) {
+                    worst = x;
+                    break;
+                }
+            }
+            if (worst == null) {
+                return false;
+            }
+            _open.remove(worst);
+            Node parent = worst._parent;
+            parent._children.remove(worst);
+            parent._forgotten = Math.min(parent._forgotten, worst._f);
+            _nodes -= 1;
+            if (!_open.contains(parent)) {
+                _open.add(parent);
+            }
+            return true;
+        }
+
+        /** Having generated all successors of N, raise N's f-cost (and
+         *  its ancestors', as needed) to the least of its successors',
+         *  remembered or forgotten.  Forget N if it is a dead end.  An
+         *  ancestor that has not yet generated all its successors stops
+         *  the process, since its f-cost must cover those too.  Returns
+         *  false iff N itself is unchanged, in which case its best
+         *  successor is a forgotten one, which it must regenerate. */
+        private boolean backUp(Node n) {
+            Node first = n;
+            while (n != null && n.complete()) {
+                double f = n._forgotten;
+                for (Node c : n._children) {
+                    f = Math.min(f, c._f);
+                }
+                Node parent = n._parent;
+                if (n._children.isEmpty()
+                    && f == Double.POSITIVE_INFINITY && parent != null) {
+                    _open.remove(n);
+                    parent._children.remove(n);
+                    _nodes -= 1;
+                    n = parent;
+                    continue;
+                }
+                if (f <= n._f) {
+                    return n != first;
+                }
+                boolean queued = _open.remove(n);
+                n._f = f;
+                if (queued) {
+                    _open.add(n);
+                }
+                n = parent;
+            }
+            return true;
+        }
+
+        /** Returns the heuristic estimate from V to the goal. */
+        private double estimate(Graph<VLabel, ELabel>.Vertex v) {
+            _distCalls += 1;
+            return _h.dist(v.getLabel(), _goal.getLabel());
+        }
+
+        /** A node of the search tree: a path from the source. */
+        private final class Node {
+
+            /** A node reached from PARENT along EDGE, ending at VERTEX at
+             *  cost G and DEPTH edges from the source. */
+            Node(Node parent, Graph<VLabel, ELabel>.Edge edge,
+                 Graph<VLabel, ELabel>.Vertex vertex, double g, int depth) {
+                _parent = parent;
+                _edge = edge;
+                _vertex = vertex;
+                _g = g;
+                _depth = depth;
+                _id = _serial;
+                _serial += 1;
+            }
+
+            /** Returns true iff every successor of mine has been
+             *  generated since I last forgot one. */
+            boolean complete() {
+                return _degree >= 0 && _next >= _degree;
+            }
+
+            /** Returns true iff W is on my path. */
+            boolean onPath(Graph<VLabel, ELabel>.Vertex w) {
+                for (Node x = this; x != null; x = x._parent) {
+                    if (x._vertex == w) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            /** Returns my child at W reached along E, or null. */
+            Node child(Graph<VLabel, ELabel>.Vertex w,
+                       Graph<VLabel, ELabel>.Edge e) {
+                for (Node c : _children) {
+                    if (c._vertex == w && c._edge == e) {
+                        return c;
+                    }
+                }
+                return null;
+            }
+
+            /** Returns the edges of my path. */
+            List<Graph<VLabel, ELabel>.Edge> path() {
+                ArrayList<Graph<VLabel, ELabel>.Edge> result =
+                    new ArrayList<Graph<VLabel, ELabel>.Edge>();
+                for (Node x = this; x._parent != null; x = x._parent) {
+                    result.add(x._edge);
+                }
+                Collections.reverse(result);
+                return result;
+            }
+
+            /** The node I extend, or null for the root. */
+            private final Node _parent;
+            /** The edge from my parent's vertex to mine. */
+            private final Graph<VLabel, ELabel>.Edge _edge;
+            /** The vertex my path ends at. */
+            private final Graph<VLabel, ELabel>.Vertex _vertex;
+            /** The weight of my path. */
+            private final double _g;
+            /** The number of edges on my path. */
+            private final int _depth;
+            /** My serial number, to break ties. */
+            private final int _id;
+            /** My f-cost, backed up from my successors once known. */
+            private double _f;
+            /** The position among my vertex's edges of the next successor
+             *  to generate. */
+            private int _next;
+            /** The number of my vertex's edges, or -1 if not yet known. */
+            private int _degree = -1;
+            /** The least f-cost of my forgotten successors since I last
+             *  started regenerating them. */
+            private double _forgotten = Double.POSITIVE_INFINITY;
+            /** My successors in memory. */
+            private final ArrayList<Node> _children = new ArrayList<Node>();
+        }
+
+        /** The goal. */
+        private final Graph<VLabel, ELabel>.Vertex _goal;
+        /** The heuristic. */
+        private final Distancer<? super VLabel> _h;
+        /** The edge weights. */
+        private final Weighting<? super ELabel> _eweighter;
+        /** The most nodes I may keep. */
+        private final int _maxNodes;
+        /** A cursor for generating successors. */
+        private final EdgeCursor<VLabel, ELabel> _cursor;
+        /** The number of nodes in memory. */
+        private int _nodes;
+        /** The source of node serial numbers. */
+        private int _serial;
+        /** Statistics for the search listener. */
+        private long _settled, _relaxed, _pushes, _distCalls;
+        /** The nodes not all of whose successors are in memory, least
+         *  f-cost first, and among equals, deepest first. */
+        private final TreeSet<Node> _open = new TreeSet<Node>(
+            new Comparator<Node>() {
+                @Override
+                public int compare(Node x, Node y) {
+                    int c = Double.compare(x._f, y._f);
+                    if (c == 0) {
+                        c = Integer.compare(y._depth, x._depth);
+                    }
+                    return c != 0 ? c : Integer.compare(x._id, y._id);
+                }
+            });
+    }
+
+}
@@ -0,0 +1,186 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/** The PageRank of each vertex of a graph: the long-run probability that
+ *  a random surfer is there, if at each step the surfer follows a
+ *  random edge leaving the current vertex with probability DAMPING and
+ *  otherwise jumps to a vertex chosen from a teleport distribution
+ *  (uniform, or given by a personalization).  A surfer at a vertex with
+ *  no outgoing edges always jumps.  Produced by Graphs.pageRank and
+ *  Graphs.personalizedPageRank.
+ *  @author Conrad Shiao
+ */
+public final class PageRank<VLabel, ELabel> {
+
+    /** The ranks RANK (by vertex index) of the vertices of G, computed
+     *  in ITERATIONS iterations taking NANOS[k] nanoseconds each, which
+     *  CONVERGED iff they met the requested tolerance. */
+    private PageRank(Graph<VLabel, ELabel> G, double[] rank,
+                     long[] nanos, int iterations, boolean converged) {
+        _graph = G;
+        _rank = rank;
+        _nanos = nanos;
+        _iterations = iterations;
+        _converged = converged;
+    }
+
+    /** Returns the rank of V.  The ranks of all vertices sum to 1. */
+    public double rank(Graph<VLabel, ELabel>.Vertex v) {
+        return _rank[_graph.index(v)];
+    }
+
+    /** Returns the ranks of all vertices: element k is the rank of the
+     *  vertex whose index (see Graph.index) is k, or 0 if there is no
+     *  such vertex.  Indices refer to the graph as it was when the ranks
+     *  were computed. */
+    public double[] ranks() {
+        return _rank.clone();
+    }
+
+    /** Returns the number of iterations performed. */
+    public int iterations() {
+        return _iterations;
+    }
+
+    /** Returns the time taken by each iteration, in nanoseconds. */
+    public long[] iterationNanos() {
+        return Arrays.copyOf(_nanos, _iterations);
+    }
+
+    /** Returns true iff the iterations stopped because the ranks changed
+     *  by less than the tolerance, rather than because the limit on
+     *  iterations was reached. */
+    public boolean converged() {
+        return _converged;
+    }
+
+    /** Returns the PageRank of the vertices of G with damping factor
+     *  DAMPING, teleporting to each vertex v with probability
+     *  proportional to PERSONALIZATION.get(v) (0 if absent), or
+     *  uniformly if PERSONALIZATION is null.  Iterates until the total
+     *  change in the ranks in one iteration is less than TOLERANCE, or
+     *  for MAXITERATIONS iterations, each a parallel pass over the
+     *  incoming edges of all vertices using THREADS threads. */
+    static <VLabel, ELabel> PageRank<VLabel, ELabel>
+    compute(Graph<VLabel, ELabel> G, double damping, double tolerance,
+            int maxIterations,
+            Map<Graph<VLabel, ELabel>.Vertex, ? extends Number>
+                personalization,
+            int threads) {
+        if (damping < 0.0 || damping > 1.0) {
+            throw new IllegalArgumentException("damping not in [0, 1]");
+        }
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, true);
+        final int n = compact.size();
+        final double d = damping;
+        final int[] outStart = compact.outStart(),
+            inStart = compact.inStart(), inSource = compact.inSource();
+        final double[] teleport = teleport(compact, personalization);
+        double[] rank = teleport.clone();
+        double[] next = new double[n];
+        final double[] share = new double[n];
+        long[] nanos = new long[Math.max(maxIterations, 0)];
+        int iterations;
+        boolean converged = false;
+        for (iterations = 0; iterations < maxIterations && !converged;
+             iterations += 1) {
+            long start = System.nanoTime();
+            final double[] current = rank, updated = next;
+            final DoubleAdder dangling = new DoubleAdder(),
+                change = new DoubleAdder();
+            Parallel.forRange(n, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    double lost = 0.0;
+                    for (int v = lo; v < hi; v += 1) {
+                        int degree = outStart[v + 1] - outStart[v];
+                        if (degree == 0) {
+                            lost += current[v];
+                            share[v] = 0.0;
+                        } else {
+                            share[v] = current[v] / degree;
+                        }
+                    }
+                    dangling.add(lost);
+                }
+            });
+            final double jump = 1.0 - d + d * dangling.sum();
+            Parallel.forRange(n, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    double delta = 0.0;
+                    for (int v = lo; v < hi; v += 1) {
+                        double sum = 0.0;
+                        for (int s = inStart[v]; s < inStart[v + 1];
+                             s += 1) {
+                            sum += share[inSource[s]];
+                        }
+                        updated[v] = d * sum + jump * teleport[v];
+                        delta += Math.abs(updated[v] - current[v]);
+                    }
+                    change.add(delta);
+                }
+            });
+            rank = updated;
+            next = current;
+            nanos[iterations] = System.nanoTime() - start;
+            converged = change.sum() < tolerance;
+        }
+        return new PageRank<VLabel, ELabel>(G, rank, nanos, iterations,
+                                            converged);
+    }
+
+    /** Returns the teleport distribution over the vertices of COMPACT,
+     *  by index, given by PERSONALIZATION as for compute. */
+    private static <VLabel, ELabel> double[]
+    teleport(CompactGraph<VLabel, ELabel> compact,
+             Map<Graph<VLabel, ELabel>.Vertex, ? extends Number>
+                 personalization) {
+        Graph<VLabel, ELabel> G = compact.graph();
+        double[] teleport = new double[compact.size()];
+        double total = 0.0;
+        if (personalization == null) {
+            for (int v = 0; v < teleport.length; v += 1) {
+                if (compact.present(v)) {
+                    teleport[v] = 1.0;
+                    total += 1.0;
+                }
+            }
+        } else {
+            for (Map.Entry<Graph<VLabel, ELabel>.Vertex, ? extends Number>
+                     entry : personalization.entrySet()) {
+                double weight = entry.getValue().doubleValue();
+                if (weight < 0.0) {
+                    throw new IllegalArgumentException(
+                        "negative personalization weight");
+                }
+                teleport[G.index(entry.getKey())] += weight;
+                total += weight;
+            }
+            if (total == 0.0) {
+                throw new IllegalArgumentException(
+                    "personalization weights sum to 0");
+            }
+        }
+        for (int v = 0; v < teleport.length; v += 1) {
+            teleport[v] /= total;
+        }
+        return teleport;
+    }
+
+    /** The graph whose vertices these are. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The ranks, by vertex index. */
+    private final double[] _rank;
+    /** Time taken by each iteration. */
+    private final long[] _nanos;
+    /** The number of iterations performed. */
+    private final int _iterations;
+    /** True iff the ranks converged. */
+    private final boolean _converged;
+
+}
@@ -0,0 +1,82 @@
+package graph;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/** Support for running loops in parallel on the common fork-join pool.
+ *  Parallel loops may be nested: a loop body may itself run a parallel
+ *  loop without tying up the pool.
+ *  @author Conrad Shiao
+ */
+final class Parallel {
+
+    /** The body of a loop over a range of integers. */
+    interface Body {
+        /** Perform the iterations for LO .. HI-1. */
+        void run(int lo, int hi);
+    }
+
+    /** Returns a reasonable default number of threads: the number of
+     *  available processors. */
+    static int threads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Perform BODY over 0 .. N-1, divided into about THREADS equal
+     *  chunks that run in parallel, returning when all are done.  An
+     *  unchecked exception thrown by BODY is rethrown. */
+    static void forRange(int n, int threads, Body body) {
+        int chunks = Math.min(n, threads);
+        if (chunks <= 1) {
+            body.run(0, n);
+        } else {
+            new Chunks(body, n, chunks, 0, chunks).invoke();
+        }
+    }
+
+    /** A task running a group of consecutive chunks of a loop. */
+    private static class Chunks extends RecursiveAction {
+
+        /** A task running chunks FIRST .. LAST-1 of BODY over 0 .. N-1,
+         *  which is divided into TOTAL chunks. */
+        Chunks(Body body, int n, int total, int first, int last) {
+            _body = body;
+            _n = n;
+            _total = total;
+            _first = first;
+            _last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (_last - _first == 1) {
+                _body.run(start(_first), start(_last));
+            } else {
+                int mid = (_first + _last) >>> 1;
+                ForkJoinTask.invokeAll(
+                    new Chunks(_body, _n, _total, _first, mid),
+                    new Chunks(_body, _n, _total, mid, _last));
+            }
+        }
+
+        /** Returns the start of chunk K. */
+        private int start(int k) {
+            return (int) ((long) _n * k / _total);
+        }
+
+        /** Serialization version (RecursiveAction is Serializable). */
+        private static final long serialVersionUID = 1L;
+
+        /** The loop body. */
+        private final Body _body;
+        /** Size of the whole loop and the number of chunks in it. */
+        private final int _n, _total;
+        /** The range of chunks I run. */
+        private final int _first, _last;
+    }
+
+    /** Not instantiable. */
+    private Parallel() {
+    }
+
+}
@@ -0,0 +1,233 @@
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+
+/** The program run by each worker process of a DistributedSearch.  A
+ *  worker holds one part of a partitioned graph: the vertices assigned
+ *  to it, with their outgoing edges and weights.  Of the vertices of
+ *  other parts, it knows only the indices of those its edges reach.  It
+ *  connects to the coordinator on the loopback interface, announces its
+ *  number, receives its part, and then, round by round, accepts
+ *  improved distances for its vertices, settles everything it can
+ *  reach locally with Dijkstra's algorithm, and answers with the best
+ *  distances it found for vertices owned by other workers (the boundary
+ *  messages).
+ *  @author Conrad Shiao
+ */
+final class PartitionWorker {
+
+    /** Command: a round of boundary messages follows. */
+    static final int ROUND = 1;
+    /** Command: report final distances and exit. */
+    static final int FINISH = 2;
+
+    /** Connect to the coordinator on the port ARGS[0] of the loopback
+     *  interface, announce myself as worker number ARGS[1], and serve
+     *  the coordinator until told to finish. */
+    public static void main(String... args) throws IOException {
+        Socket socket =
+            new Socket(InetAddress.getLoopbackAddress(),
+                       Integer.parseInt(args[0]));
+        try {
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(Integer.parseInt(args[1]));
+            out.flush();
+            new PartitionWorker(in).serve(in, out);
+        } finally {
+            socket.close();
+        }
+    }
+
+    /** A worker for the part of a graph read from IN: my number, my
+     *  number of vertices and of out-edges, and then for each of my
+     *  vertices, in increasing order of index, its index, its
+     *  out-degree, and its out-edges as (target index, whether the
+     *  target is mine, edge number, weight) quadruples. */
+    PartitionWorker(DataInputStream in) throws IOException {
+        _number = in.readInt();
+        int local = in.readInt();
+        _global = new int[local];
+        _start = new int[local + 1];
+        int edges = in.readInt();
+        _target = new int[edges];
+        _edge = new int[edges];
+        _weight = new double[edges];
+        boolean[] mine = new boolean[edges];
+        int remote = 0;
+        for (int k = 0, s = 0; k < local; k += 1) {
+            _global[k] = in.readInt();
+            int degree = in.readInt();
+            for (int d = 0; d < degree; d += 1, s += 1) {
+                _target[s] = in.readInt();
+                mine[s] = in.readBoolean();
+                _edge[s] = in.readInt();
+                _weight[s] = in.readDouble();
+                if (!mine[s]) {
+                    remote += 1;
+                }
+            }
+            _start[k + 1] = s;
+        }
+        int[] others = new int[remote];
+        for (int s = 0, r = 0; s < edges; s += 1) {
+            if (!mine[s]) {
+                others[r] = _target[s];
+                r += 1;
+            }
+        }
+        Arrays.sort(others);
+        int distinct = 0;
+        for (int r = 0; r < remote; r += 1) {
+            if (r == 0 || others[r] != others[r - 1]) {
+                others[distinct] = others[r];
+                distinct += 1;
+            }
+        }
+        _remote = Arrays.copyOf(others, distinct);
+        for (int s = 0; s < edges; s += 1) {
+            _target[s] = mine[s] ? local(_target[s])
+                : -1 - Arrays.binarySearch(_remote, _target[s]);
+        }
+        _sent = new double[distinct];
+        Arrays.fill(_sent, Double.POSITIVE_INFINITY);
+        _sentVia = new int[distinct];
+        _changed = new boolean[distinct];
+        _improved = new int[distinct];
+        _dist = new double[local];
+        Arrays.fill(_dist, Double.POSITIVE_INFINITY);
+        _via = new int[local];
+        Arrays.fill(_via, -1);
+        _heap = new IndexedHeap(local);
+    }
+
+    /** Answer the commands read from IN on OUT until told to finish. */
+    void serve(DataInputStream in, DataOutputStream out)
+        throws IOException {
+        while (true) {
+            int command = in.readInt();
+            if (command == FINISH) {
+                out.writeInt(_global.length);
+                for (int k = 0; k < _global.length; k += 1) {
+                    out.writeInt(_global[k]);
+                    out.writeDouble(_dist[k]);
+                    out.writeInt(_via[k]);
+                }
+                out.flush();
+                return;
+            }
+            int count = in.readInt();
+            for (int m = 0; m < count; m += 1) {
+                int k = local(in.readInt());
+                double d = in.readDouble();
+                int via = in.readInt();
+                if (d < _dist[k]) {
+                    _dist[k] = d;
+                    _via[k] = via;
+                    _heap.push(k, d);
+                }
+            }
+            int improved = settle();
+            out.writeInt(improved);
+            for (int i = 0; i < improved; i += 1) {
+                int r = _improved[i];
+                out.writeInt(_remote[r]);
+                out.writeDouble(_sent[r]);
+                out.writeInt(_sentVia[r]);
+            }
+            out.flush();
+        }
+    }
+
+    /** Returns the local number of my vertex with index V.  Throws
+     *  IOException if V is not mine, as it would be only if the
+     *  coordinator had misrouted a message. */
+    private int local(int v) throws IOException {
+        int k = Arrays.binarySearch(_global, v);
+        if (k < 0) {
+            throw new IOException(String.format("vertex %d is not in part "
+                                                + "%d", v, _number));
+        }
+        return k;
+    }
+
+    /** Run Dijkstra's algorithm from the vertices in _heap over my
+     *  vertices.  Returns the number of other workers' vertices to
+     *  which it found improved distances, whose remote numbers it
+     *  leaves at the start of _improved. */
+    private int settle() {
+        int improved = 0;
+        while (!_heap.isEmpty()) {
+            int k = _heap.pop();
+            for (int s = _start[k]; s < _start[k + 1]; s += 1) {
+                int j = _target[s];
+                double d = _dist[k] + _weight[s];
+                if (j >= 0) {
+                    if (d < _dist[j]) {
+                        _dist[j] = d;
+                        _via[j] = _edge[s];
+                        _heap.push(j, d);
+                    }
+                } else if (d < _sent[-1 - j]) {
+                    int r = -1 - j;
+                    if (!_changed[r]) {
+                        _changed[r] = true;
+                        _improved[improved] = r;
+                        improved += 1;
+                    }
+                    _sent[r] = d;
+                    _sentVia[r] = _edge[s];
+                }
+            }
+        }
+        for (int i = 0; i < improved; i += 1) {
+            _changed[_improved[i]] = false;
+        }
+        return improved;
+    }
+
+    /** My part number. */
+    private final int _number;
+    /** The global index of each of my vertices, by local number, in
+     *  increasing order. */
+    private final int[] _global;
+    /** Out-slot boundaries, by local number. */
+    private final int[] _start;
+    /** Local number of the target of each out-slot, or -1-r for the
+     *  other worker's vertex with remote number r. */
+    private final int[] _target;
+    /** Number of the edge in each out-slot. */
+    private final int[] _edge;
+    /** Weight of the edge in each out-slot. */
+    private final double[] _weight;
+    /** The global indices of the other workers' vertices my edges reach,
+     *  by remote number, in increasing order. */
+    private final int[] _remote;
+    /** The best distance I have reported for each other worker's
+     *  vertex, by remote number. */
+    private final double[] _sent;
+    /** The number of the last edge of the path giving each _sent
+     *  distance, by remote number. */
+    private final int[] _sentVia;
+    /** True for the remote numbers in _improved, while settling. */
+    private final boolean[] _changed;
+    /** The remote numbers improved in the current round. */
+    private final int[] _improved;
+    /** Best distance known for each of my vertices. */
+    private final double[] _dist;
+    /** Number of the last edge of the best path to each of my vertices,
+     *  or -1. */
+    private final int[] _via;
+    /** My vertices with improved distances still to be settled. */
+    private final IndexedHeap _heap;
+
+}
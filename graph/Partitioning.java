@@ -0,0 +1,247 @@
+package graph;
+
+import java.util.Arrays;
+
+/** An assignment of the vertices of a graph to parts numbered 0 ..
+ *  parts()-1, for dividing work on the graph among threads or
+ *  processes.  Produced by Graphs.hashPartition and Graphs.partition.
+ *  A Partitioning keeps a snapshot of its graph, since it identifies
+ *  vertices by index; once vertices or edges are added to or removed
+ *  from the graph, its methods that use the graph throw
+ *  IllegalStateException.
+ *  @author Conrad Shiao
+ */
+public final class Partitioning<VLabel, ELabel> {
+
+    /** The assignment of the vertex with index v of the graph of
+     *  SNAPSHOT to part PART[v] (-1 if there is no such vertex) of PARTS
+     *  parts. */
+    private Partitioning(CompactGraph<VLabel, ELabel> snapshot, int[] part,
+                         int parts) {
+        _graph = snapshot.graph();
+        _snapshot = snapshot;
+        _edges = _graph.edgeSize();
+        _part = part;
+        _parts = parts;
+    }
+
+    /** Returns the number of parts. */
+    public int parts() {
+        return _parts;
+    }
+
+    /** Returns the part to which V is assigned. */
+    public int part(Graph<VLabel, ELabel>.Vertex v) {
+        checkUnchanged();
+        int k = _graph.index(v);
+        if (_snapshot.vertex(k) != v) {
+            throw new IllegalStateException("vertex added after "
+                                            + "partitioning");
+        }
+        return _part[k];
+    }
+
+    /** Returns the parts of all vertices: element k is the part of the
+     *  vertex whose index (see Graph.index) is k, or -1 if there is no
+     *  such vertex.  Indices refer to the graph as it was when it was
+     *  partitioned. */
+    public int[] partIds() {
+        checkUnchanged();
+        return _part.clone();
+    }
+
+    /** Returns the number of vertices in each part. */
+    public int[] sizes() {
+        int[] sizes = new int[_parts];
+        for (int p : _part) {
+            if (p >= 0) {
+                sizes[p] += 1;
+            }
+        }
+        return sizes;
+    }
+
+    /** Returns the number of edges whose ends are in different parts. */
+    public int edgeCut() {
+        checkUnchanged();
+        int[] outStart = _snapshot.outStart(),
+            outTarget = _snapshot.outTarget();
+        boolean directed = _graph.isDirected();
+        int cut = 0;
+        for (int v = 0; v < _part.length; v += 1) {
+            for (int s = outStart[v]; s < outStart[v + 1]; s += 1) {
+                int w = outTarget[s];
+                if (_part[v] != _part[w] && (directed || v < w)) {
+                    cut += 1;
+                }
+            }
+        }
+        return cut;
+    }
+
+    /** Returns the graph partitioned. */
+    Graph<VLabel, ELabel> graph() {
+        return _graph;
+    }
+
+    /** Returns the snapshot of the graph as it was partitioned, which
+     *  has at least its outgoing adjacency. */
+    CompactGraph<VLabel, ELabel> snapshot() {
+        checkUnchanged();
+        return _snapshot;
+    }
+
+    /** Throws IllegalStateException if vertices or edges have been added
+     *  to or removed from my graph since it was partitioned. */
+    private void checkUnchanged() {
+        if (_graph.indexLimit() != _snapshot.size()
+            || _graph.edgeSize() != _edges) {
+            throw new IllegalStateException("graph changed since it was "
+                                            + "partitioned");
+        }
+    }
+
+    /** Returns the partitioning of G into PARTS parts by hashing vertex
+     *  indices, which balances the parts but ignores the edges. */
+    static <VLabel, ELabel> Partitioning<VLabel, ELabel>
+    hash(Graph<VLabel, ELabel> G, int parts) {
+        checkParts(parts);
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        int n = compact.size();
+        int[] part = new int[n];
+        for (int v = 0; v < n; v += 1) {
+            part[v] = compact.present(v) ? hash(v, parts) : -1;
+        }
+        return new Partitioning<VLabel, ELabel>(compact, part, parts);
+    }
+
+    /** Returns a partitioning of G into PARTS parts of nearly equal size
+     *  (none more than a fraction IMBALANCE larger than the average)
+     *  that tries to cut few edges.  Starting from contiguous blocks of
+     *  vertices in breadth-first order, each of up to ROUNDS rounds of
+     *  label propagation moves every vertex to the part holding most of
+     *  its neighbors, if that part has room and the move cuts fewer
+     *  edges.  Edge directions are ignored. */
+    static <VLabel, ELabel> Partitioning<VLabel, ELabel>
+    labelPropagation(Graph<VLabel, ELabel> G, int parts, double imbalance,
+                     int rounds) {
+        checkParts(parts);
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, true);
+        int n = compact.size();
+        int[] outStart = compact.outStart(), outTarget = compact.outTarget(),
+            inStart = compact.inStart(), inSource = compact.inSource();
+        int[] part = new int[n];
+        Arrays.fill(part, -1);
+        int vertices = G.vertexSize();
+        int[] order = breadthFirstOrder(compact);
+        for (int k = 0; k < order.length; k += 1) {
+            part[order[k]] = (int) ((long) k * parts / vertices);
+        }
+        int[] size = new int[parts];
+        for (int v = 0; v < n; v += 1) {
+            if (part[v] >= 0) {
+                size[part[v]] += 1;
+            }
+        }
+        int capacity =
+            (int) Math.ceil((1.0 + imbalance) * vertices / parts);
+        int[] links = new int[parts];
+        for (int round = 0; round < rounds; round += 1) {
+            int moves = 0;
+            for (int v : order) {
+                for (int s = outStart[v]; s < outStart[v + 1]; s += 1) {
+                    links[part[outTarget[s]]] += 1;
+                }
+                if (G.isDirected()) {
+                    for (int s = inStart[v]; s < inStart[v + 1]; s += 1) {
+                        links[part[inSource[s]]] += 1;
+                    }
+                }
+                int from = part[v], best = from;
+                for (int p = 0; p < parts; p += 1) {
+                    if (links[p] > links[best] && size[p] < capacity) {
+                        best = p;
+                    }
+                }
+                Arrays.fill(links, 0);
+                if (best != from) {
+                    part[v] = best;
+                    size[from] -= 1;
+                    size[best] += 1;
+                    moves += 1;
+                }
+            }
+            if (moves == 0) {
+                break;
+            }
+        }
+        return new Partitioning<VLabel, ELabel>(compact, part, parts);
+    }
+
+    /** Throws IllegalArgumentException unless PARTS is positive. */
+    private static void checkParts(int parts) {
+        if (parts < 1) {
+            throw new IllegalArgumentException("need at least one part");
+        }
+    }
+
+    /** Returns the part for vertex index V under hash partitioning into
+     *  PARTS parts. */
+    private static int hash(int v, int parts) {
+        int h = v * 0x9E3779B9;
+        h ^= h >>> 16;
+        return (int) (((h & 0xffffffffL) * parts) >>> 32);
+    }
+
+    /** Returns the vertex indices of COMPACT in breadth-first order,
+     *  following edges in both directions, each new search starting from
+     *  the least index not yet reached. */
+    private static int[] breadthFirstOrder(CompactGraph<?, ?> compact) {
+        int n = compact.size();
+        int[] outStart = compact.outStart(), outTarget = compact.outTarget(),
+            inStart = compact.inStart(), inSource = compact.inSource();
+        boolean[] reached = new boolean[n];
+        int[] order = new int[n];
+        int tail = 0;
+        for (int root = 0; root < n; root += 1) {
+            if (reached[root] || !compact.present(root)) {
+                continue;
+            }
+            reached[root] = true;
+            order[tail] = root;
+            tail += 1;
+            for (int head = tail - 1; head < tail; head += 1) {
+                int v = order[head];
+                for (int s = outStart[v]; s < outStart[v + 1]; s += 1) {
+                    if (!reached[outTarget[s]]) {
+                        reached[outTarget[s]] = true;
+                        order[tail] = outTarget[s];
+                        tail += 1;
+                    }
+                }
+                for (int s = inStart[v]; s < inStart[v + 1]; s += 1) {
+                    if (!reached[inSource[s]]) {
+                        reached[inSource[s]] = true;
+                        order[tail] = inSource[s];
+                        tail += 1;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(order, tail);
+    }
+
+    /** The graph partitioned. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The structure of _graph when it was partitioned. */
+    private final CompactGraph<VLabel, ELabel> _snapshot;
+    /** The number of edges of _graph when it was partitioned. */
+    private final int _edges;
+    /** The part of each vertex, by index. */
+    private final int[] _part;
+    /** The number of parts. */
+    private final int _parts;
+
+}
@@ -0,0 +1,131 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** The paths from one source vertex to every vertex reachable from it,
+ *  as a tree of predecessor edges with the weight of each path.
+ *  Produced by Graphs.dagShortestPaths, Graphs.dagLongestPaths, and the
+ *  distributed searches in Graphs.
+ *  @author Conrad Shiao
+ */
+public final class PathTree<VLabel, ELabel> {
+
+    /** The tree of paths from SOURCE in G, where the path to the vertex
+     *  with index v ends with EDGE[v] (null at the source and at
+     *  unreachable vertices) and has weight DIST[v]. */
+    PathTree(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex source,
+             Object[] edge, double[] dist) {
+        _graph = G;
+        _source = source;
+        _edge = edge;
+        _dist = dist;
+    }
+
+    /** Returns the vertex my paths start from. */
+    public Graph<VLabel, ELabel>.Vertex source() {
+        return _source;
+    }
+
+    /** Returns true iff there is a path from source() to V. */
+    public boolean reachable(Graph<VLabel, ELabel>.Vertex v) {
+        return v == _source || _edge[_graph.index(v)] != null;
+    }
+
+    /** Returns the weight of the path to V, or Double.POSITIVE_INFINITY
+     *  (for shortest paths) or Double.NEGATIVE_INFINITY (for longest
+     *  paths) if V is unreachable. */
+    public double distance(Graph<VLabel, ELabel>.Vertex v) {
+        return _dist[_graph.index(v)];
+    }
+
+    /** Returns the weights of all paths: element k is distance(v) for the
+     *  vertex v whose index (see Graph.index) is k.  Indices refer to
+     *  the graph as it was when the paths were computed. */
+    public double[] distances() {
+        return _dist.clone();
+    }
+
+    /** Returns the edges of the path from source() to V, in order, or
+     *  null if V is unreachable. */
+    @SuppressWarnings("unchecked")
+    public List<Graph<VLabel, ELabel>.Edge> pathTo(
+        Graph<VLabel, ELabel>.Vertex v) {
+        if (!reachable(v)) {
+            return null;
+        }
+        List<Graph<VLabel, ELabel>.Edge> path =
+            new ArrayList<Graph<VLabel, ELabel>.Edge>();
+        while (v != _source) {
+            Graph<VLabel, ELabel>.Edge e =
+                (Graph<VLabel, ELabel>.Edge) _edge[_graph.index(v)];
+            path.add(e);
+            v = e.getV(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Returns the shortest (or iff LONGEST, the longest) paths from
+     *  SOURCE in the directed acyclic graph G, whose edges are weighted
+     *  by EWEIGHTER, found by relaxing the edges leaving each vertex in
+     *  topological order, in O(V+E) time.  Returns null if G has a
+     *  cycle. */
+    static <VLabel, ELabel> PathTree<VLabel, ELabel>
+    dag(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex source,
+        Weighting<? super ELabel> eweighter, boolean longest) {
+        CompactGraph<VLabel, ELabel> compact =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        int[] order = compact.topologicalOrder();
+        if (order == null) {
+            return null;
+        }
+        int[] start = compact.outStart(), target = compact.outTarget();
+        double[] weight = compact.outWeights(eweighter);
+        double unreached =
+            longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        double[] dist = new double[compact.size()];
+        Arrays.fill(dist, unreached);
+        int[] via = new int[compact.size()];
+        Arrays.fill(via, -1);
+        int first = G.index(source);
+        dist[first] = 0.0;
+        int k = 0;
+        while (order[k] != first) {
+            k += 1;
+        }
+        for (; k < order.length; k += 1) {
+            int v = order[k];
+            if (dist[v] == unreached) {
+                continue;
+            }
+            for (int s = start[v]; s < start[v + 1]; s += 1) {
+                int w = target[s];
+                double d = dist[v] + weight[s];
+                if (longest ? d > dist[w] : d < dist[w]) {
+                    dist[w] = d;
+                    via[w] = s;
+                }
+            }
+        }
+        Object[] edge = new Object[compact.size()];
+        for (int v = 0; v < edge.length; v += 1) {
+            if (via[v] >= 0) {
+                edge[v] = compact.outEdge(via[v]);
+            }
+        }
+        return new PathTree<VLabel, ELabel>(G, source, edge, dist);
+    }
+
+    /** The graph whose paths these are. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The source of all paths. */
+    private final Graph<VLabel, ELabel>.Vertex _source;
+    /** The last edge of each path, by vertex index. */
+    private final Object[] _edge;
+    /** The weight of each path, by vertex index. */
+    private final double[] _dist;
+
+}
@@ -0,0 +1,448 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/** A bulk-synchronous engine for vertex programs, after Google's Pregel.
+ *  The vertices are divided by index into contiguous partitions, one per
+ *  thread.  In each superstep, every partition runs its active vertices'
+ *  compute methods in parallel.  Each partition keeps its own outgoing
+ *  message buffer for every other partition, so that senders never
+ *  contend.  At the barrier between supersteps, each partition gathers
+ *  the messages addressed to its vertices from all buffers, again in
+ *  parallel, combining them first if there is a Combiner.  Aggregated
+ *  values are likewise computed per partition and merged at the
+ *  barrier.  The computation ends when every vertex has voted to halt
+ *  and no messages are in flight.
+ *
+ *  The graph must not change while the engine runs.
+ *  @author Conrad Shiao
+ */
+public final class Pregel<VLabel, ELabel, Value, Message> {
+
+    /** Merges two messages to the same vertex into one, when only their
+     *  combination matters (e.g., their minimum or sum). */
+    public interface Combiner<Message> {
+        /** Returns the combination of M0 and M1. */
+        Message combine(Message m0, Message m1);
+    }
+
+    /** A global reduction of values contributed by vertices in one
+     *  superstep, readable by all vertices in the next. */
+    public interface Aggregator<A> {
+        /** Returns the value of an aggregation to which nothing has been
+         *  contributed. */
+        A identity();
+
+        /** Returns the combination of A0 and A1.  Must be associative
+         *  and commutative. */
+        A combine(A a0, A a1);
+    }
+
+    /** An engine that will run PROGRAM on G with THREADS threads. */
+    public Pregel(Graph<VLabel, ELabel> G,
+                  VertexProgram<VLabel, ELabel, Value, Message> program,
+                  int threads) {
+        _graph = G;
+        _program = program;
+        _n = G.indexLimit();
+        _partitions = Math.max(1, Math.min(threads, _n));
+        _values = new Object[_n];
+        _halted = new boolean[_n];
+    }
+
+    /** Merge messages to the same vertex with COMBINER before they are
+     *  delivered.  Must be called before run. */
+    public void setCombiner(Combiner<Message> combiner) {
+        _combiner = combiner;
+    }
+
+    /** Make an aggregator named NAME available to vertices, using
+     *  AGGREGATOR.  Must be called before run. */
+    public void addAggregator(String name, Aggregator<?> aggregator) {
+        _aggregatorIds.put(name, _aggregators.size());
+        _aggregators.add(aggregator);
+        _aggregated.add(aggregator.identity());
+    }
+
+    /** Run supersteps until all vertices have halted with no messages
+     *  pending, or for MAXSUPERSTEPS supersteps.  Returns the number of
+     *  supersteps performed. */
+    public int run(int maxSupersteps) {
+        final ArrayList<Partition> parts = new ArrayList<Partition>();
+        for (int p = 0; p < _partitions; p += 1) {
+            parts.add(new Partition(p));
+        }
+        for (int v = 0; v < _n; v += 1) {
+            Graph<VLabel, ELabel>.Vertex vertex = _graph.vertex(v);
+            if (vertex != null) {
+                _values[v] = _program.initialValue(vertex);
+            } else {
+                _halted[v] = true;
+            }
+        }
+        boolean done = false;
+        while (!done && _superstep < maxSupersteps) {
+            Parallel.forRange(_partitions, _partitions, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int p = lo; p < hi; p += 1) {
+                        parts.get(p).compute();
+                    }
+                }
+            });
+            Parallel.forRange(_partitions, _partitions, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int p = lo; p < hi; p += 1) {
+                        parts.get(p).deliver(parts);
+                    }
+                }
+            });
+            done = true;
+            for (int a = 0; a < _aggregators.size(); a += 1) {
+                Object total = aggregator(a).identity();
+                for (Partition part : parts) {
+                    total = aggregator(a).combine(total, part._partial[a]);
+                }
+                _aggregated.set(a, total);
+            }
+            for (Partition part : parts) {
+                done &= part._active == 0 && part._inboxSize == 0;
+            }
+            _superstep += 1;
+        }
+        return _superstep;
+    }
+
+    /** Returns the number of supersteps performed so far. */
+    public int supersteps() {
+        return _superstep;
+    }
+
+    /** Returns the current value of V. */
+    @SuppressWarnings("unchecked")
+    public Value value(Graph<VLabel, ELabel>.Vertex v) {
+        return (Value) _values[_graph.index(v)];
+    }
+
+    /** Returns the value of the aggregator NAME as of the last completed
+     *  superstep. */
+    public Object aggregated(String name) {
+        return _aggregated.get(_aggregatorIds.get(name));
+    }
+
+    /** The view of the engine given to a vertex's compute method. */
+    public final class Context {
+
+        /** A context for compute calls made by PART. */
+        private Context(Partition part) {
+            _part = part;
+        }
+
+        /** Returns the vertex being computed. */
+        public Graph<VLabel, ELabel>.Vertex vertex() {
+            return _vertex;
+        }
+
+        /** Returns the graph. */
+        public Graph<VLabel, ELabel> graph() {
+            return _graph;
+        }
+
+        /** Returns the number of the current superstep, starting at 0. */
+        public int superstep() {
+            return _superstep;
+        }
+
+        /** Returns the value of vertex(). */
+        @SuppressWarnings("unchecked")
+        public Value value() {
+            return (Value) _values[_index];
+        }
+
+        /** Set the value of vertex() to VALUE. */
+        public void setValue(Value value) {
+            _values[_index] = value;
+        }
+
+        /** Send MESSAGE to TO, for delivery in the next superstep. */
+        public void send(Graph<VLabel, ELabel>.Vertex to, Message message) {
+            _part.send(_graph.index(to), message);
+        }
+
+        /** Send MESSAGE along every edge leaving vertex() (every
+         *  incident edge, if the graph is undirected). */
+        public void sendToSuccessors(Message message) {
+            for (Graph<VLabel, ELabel>.Edge e : _graph.outEdges(_vertex)) {
+                _part.send(_graph.index(e.getV(_vertex)), message);
+            }
+        }
+
+        /** Returns the edges leaving vertex(). */
+        public Iteration<Graph<VLabel, ELabel>.Edge> outEdges() {
+            return _graph.outEdges(_vertex);
+        }
+
+        /** Deactivate vertex() until it is sent a message. */
+        public void voteToHalt() {
+            _halted[_index] = true;
+        }
+
+        /** Contribute VALUE to the aggregator NAME for this superstep. */
+        public void aggregate(String name, Object value) {
+            int a = _aggregatorIds.get(name);
+            _part._partial[a] = aggregator(a).combine(_part._partial[a],
+                                                       value);
+        }
+
+        /** Returns the value of the aggregator NAME from the previous
+         *  superstep (its identity in superstep 0). */
+        public Object aggregated(String name) {
+            return Pregel.this.aggregated(name);
+        }
+
+        /** The partition doing the computing. */
+        private final Partition _part;
+        /** The vertex being computed. */
+        private Graph<VLabel, ELabel>.Vertex _vertex;
+        /** Its index. */
+        private int _index;
+    }
+
+    /** A contiguous range of vertex indices, with the state private to
+     *  the thread that computes them. */
+    private class Partition {
+
+        /** Partition number P of _partitions. */
+        Partition(int p) {
+            _number = p;
+            _lo = (int) ((long) _n * p / _partitions);
+            _hi = (int) ((long) _n * (p + 1) / _partitions);
+            _outbox = new MessageBuffer[_partitions];
+            for (int q = 0; q < _partitions; q += 1) {
+                _outbox[q] = new MessageBuffer();
+            }
+            _context = new Context(this);
+            _partial = new Object[_aggregators.size()];
+            _inboxStart = new int[_hi - _lo + 1];
+            _inbox = new Object[0];
+        }
+
+        /** Run compute on each of my vertices that is active or has
+         *  messages. */
+        void compute() {
+            for (int a = 0; a < _partial.length; a += 1) {
+                _partial[a] = aggregator(a).identity();
+            }
+            Messages messages = new Messages();
+            _active = 0;
+            for (int v = _lo; v < _hi; v += 1) {
+                int first = _inboxStart[v - _lo],
+                    last = _inboxStart[v - _lo + 1];
+                if (_halted[v] && first == last) {
+                    continue;
+                }
+                _halted[v] = false;
+                _context._vertex = _graph.vertex(v);
+                _context._index = v;
+                messages._next = first;
+                messages._end = last;
+                _program.compute(_context, messages);
+                if (!_halted[v]) {
+                    _active += 1;
+                }
+            }
+        }
+
+        /** Queue MESSAGE for the vertex with index TO. */
+        void send(int to, Message message) {
+            _outbox[partitionOf(to)].add(to, message);
+        }
+
+        /** Gather the messages addressed to my vertices from the outboxes
+         *  of all of PARTS into my inbox, clearing those outboxes. */
+        @SuppressWarnings("unchecked")
+        void deliver(List<Partition> parts) {
+            int[] start = _inboxStart;
+            Arrays.fill(start, 0);
+            Object[] combined = null;
+            if (_combiner != null) {
+                combined = new Object[_hi - _lo];
+            }
+            int total = 0;
+            for (Partition from : parts) {
+                MessageBuffer buffer = from._outbox[_number];
+                for (int k = 0; k < buffer._size; k += 1) {
+                    int v = buffer._targets[k] - _lo;
+                    if (combined == null) {
+                        start[v + 1] += 1;
+                        total += 1;
+                    } else if (start[v + 1] == 0) {
+                        start[v + 1] = 1;
+                        combined[v] = buffer._messages[k];
+                        total += 1;
+                    } else {
+                        combined[v] = _combiner.combine(
+                            (Message) combined[v],
+                            (Message) buffer._messages[k]);
+                    }
+                }
+            }
+            for (int v = 0; v < start.length - 1; v += 1) {
+                start[v + 1] += start[v];
+            }
+            if (_inbox.length < total) {
+                _inbox = new Object[total];
+            }
+            if (combined != null) {
+                for (int v = 0; v < combined.length; v += 1) {
+                    if (start[v + 1] > start[v]) {
+                        _inbox[start[v]] = combined[v];
+                    }
+                }
+            } else {
+                int[] fill = Arrays.copyOf(start, start.length - 1);
+                for (Partition from : parts) {
+                    MessageBuffer buffer = from._outbox[_number];
+                    for (int k = 0; k < buffer._size; k += 1) {
+                        int v = buffer._targets[k] - _lo;
+                        _inbox[fill[v]] = buffer._messages[k];
+                        fill[v] += 1;
+                    }
+                }
+            }
+            _inboxSize = total;
+            for (Partition from : parts) {
+                from._outbox[_number].clear();
+            }
+        }
+
+        /** An iteration over the messages in _inbox[_next .. _end-1]. */
+        private class Messages implements Iterable<Message>,
+                                          Iterator<Message> {
+            @Override
+            public Iterator<Message> iterator() {
+                return this;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _next < _end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Message next() {
+                if (_next >= _end) {
+                    throw new NoSuchElementException();
+                }
+                _next += 1;
+                return (Message) _inbox[_next - 1];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            /** Bounds of the remaining messages. */
+            private int _next, _end;
+        }
+
+        /** My partition number. */
+        private final int _number;
+        /** My range of vertex indices. */
+        private final int _lo, _hi;
+        /** Messages sent by my vertices, by destination partition. */
+        private final MessageBuffer[] _outbox;
+        /** The context passed to my vertices. */
+        private final Context _context;
+        /** My contributions to each aggregator in this superstep. */
+        private final Object[] _partial;
+        /** Messages for my vertex _lo + k are in _inbox[_inboxStart[k] ..
+         *  _inboxStart[k+1]-1]. */
+        private final int[] _inboxStart;
+        /** Messages delivered to my vertices. */
+        private Object[] _inbox;
+        /** The number of messages in _inbox. */
+        private int _inboxSize;
+        /** The number of my vertices left active by the last superstep. */
+        private int _active;
+    }
+
+    /** Returns the partition containing vertex index V. */
+    private int partitionOf(int v) {
+        int p = (int) (((long) v * _partitions) / _n);
+        while ((long) _n * p / _partitions > v) {
+            p -= 1;
+        }
+        while ((long) _n * (p + 1) / _partitions <= v) {
+            p += 1;
+        }
+        return p;
+    }
+
+    /** A growable list of (target, message) pairs. */
+    private static class MessageBuffer {
+        /** Append (TO, MESSAGE). */
+        void add(int to, Object message) {
+            if (_size == _targets.length) {
+                _targets = Arrays.copyOf(_targets, 2 * _size);
+                _messages = Arrays.copyOf(_messages, 2 * _size);
+            }
+            _targets[_size] = to;
+            _messages[_size] = message;
+            _size += 1;
+        }
+
+        /** Empty me. */
+        void clear() {
+            Arrays.fill(_messages, 0, _size, null);
+            _size = 0;
+        }
+
+        /** Target vertex indices. */
+        private int[] _targets = new int[16];
+        /** Messages. */
+        private Object[] _messages = new Object[16];
+        /** Number of pairs. */
+        private int _size;
+    }
+
+    /** Returns aggregator number A. */
+    @SuppressWarnings("unchecked")
+    private Aggregator<Object> aggregator(int a) {
+        return (Aggregator<Object>) _aggregators.get(a);
+    }
+
+    /** The graph computed over. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The program run at each vertex. */
+    private final VertexProgram<VLabel, ELabel, Value, Message> _program;
+    /** Bound on vertex indices. */
+    private final int _n;
+    /** The number of partitions (and threads). */
+    private final int _partitions;
+    /** Vertex values, by index. */
+    private final Object[] _values;
+    /** Marks vertices that have voted to halt (and unused indices). */
+    private final boolean[] _halted;
+    /** The message combiner, or null. */
+    private Combiner<Message> _combiner;
+    /** Aggregator numbers, by name. */
+    private final HashMap<String, Integer> _aggregatorIds =
+        new HashMap<String, Integer>();
+    /** The aggregators, by number. */
+    private final ArrayList<Aggregator<?>> _aggregators =
+        new ArrayList<Aggregator<?>>();
+    /** The aggregated values of the last superstep, by number. */
+    private final ArrayList<Object> _aggregated = new ArrayList<Object>();
+    /** The number of supersteps completed. */
+    private int _superstep;
+
+}
@@ -0,0 +1,224 @@
+package graph;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/** A view of a directed graph with every edge reversed (its transpose):
+ *  my outEdges(v) are the base's inEdges(v), my successors its
+ *  predecessors, my cursors its incoming cursors, and so on.  Each edge
+ *  of the base is shown as a reversed edge with the same label, whose
+ *  getV0() is the base edge's getV1() and vice versa.  A base edge has
+ *  one reversed edge, made when first needed and kept with the base
+ *  edge, so reversed edges may be compared by identity, and finding one
+ *  takes no lock.  baseEdge gives the base edge back, and the base's
+ *  remove accepts reversed edges directly.  Produced by Graphs.reversed
+ *  for directed graphs.
+ *  @author Conrad Shiao
+ */
+public class ReversedView<VLabel, ELabel> extends GraphView<VLabel, ELabel> {
+
+    /** The reversal of BASE. */
+    ReversedView(Graph<VLabel, ELabel> base) {
+        super(base);
+    }
+
+    /** Returns the edge of my base that my edge E reverses. */
+    public Graph<VLabel, ELabel>.Edge baseEdge(Edge e) {
+        return e.unreversed();
+    }
+
+    @Override
+    public Vertex vertex(int k) {
+        return base().vertex(k);
+    }
+
+    @Override
+    public int vertexSize() {
+        return base().vertexSize();
+    }
+
+    @Override
+    public int edgeSize() {
+        return base().edgeSize();
+    }
+
+    @Override
+    public int outDegree(Vertex v) {
+        return base().inDegree(v);
+    }
+
+    @Override
+    public int inDegree(Vertex v) {
+        return base().outDegree(v);
+    }
+
+    @Override
+    public int maxOutDegree() {
+        return base().maxInDegree();
+    }
+
+    @Override
+    public int maxInDegree() {
+        return base().maxOutDegree();
+    }
+
+    @Override
+    public int[] outDegreeHistogram() {
+        return base().inDegreeHistogram();
+    }
+
+    @Override
+    public int[] inDegreeHistogram() {
+        return base().outDegreeHistogram();
+    }
+
+    @Override
+    public Iteration<Vertex> verticesByOutDegree() {
+        return base().verticesByInDegree();
+    }
+
+    @Override
+    public Iteration<Vertex> verticesByInDegree() {
+        return base().verticesByOutDegree();
+    }
+
+    @Override
+    public boolean contains(Vertex u, Vertex v) {
+        return base().contains(v, u);
+    }
+
+    @Override
+    public boolean contains(Vertex u, Vertex v, ELabel label) {
+        return base().contains(v, u, label);
+    }
+
+    @Override
+    public Iteration<Vertex> vertices() {
+        return base().vertices();
+    }
+
+    @Override
+    public Iteration<Vertex> successors(Vertex v) {
+        return base().predecessors(v);
+    }
+
+    @Override
+    public Iteration<Vertex> predecessors(Vertex v) {
+        return base().successors(v);
+    }
+
+    @Override
+    public Iteration<Edge> edges() {
+        return reversed(base().edges());
+    }
+
+    @Override
+    public Iteration<Edge> outEdges(Vertex v) {
+        return reversed(base().inEdges(v));
+    }
+
+    @Override
+    public Iteration<Edge> inEdges(Vertex v) {
+        return reversed(base().outEdges(v));
+    }
+
+    @Override
+    public Stream<Vertex> vertexStream() {
+        return base().vertexStream();
+    }
+
+    @Override
+    public Stream<Edge> edgeStream() {
+        return reversed(base().edgeStream());
+    }
+
+    @Override
+    public Stream<Edge> outEdgeStream(Vertex v) {
+        return reversed(base().inEdgeStream(v));
+    }
+
+    @Override
+    public Stream<Edge> inEdgeStream(Vertex v) {
+        return reversed(base().outEdgeStream(v));
+    }
+
+    @Override
+    public EdgeCursor<VLabel, ELabel> outCursor() {
+        return new ReversedCursor<VLabel, ELabel>(base().inCursor());
+    }
+
+    @Override
+    EdgeCursor<VLabel, ELabel> inCursor() {
+        return new ReversedCursor<VLabel, ELabel>(base().outCursor());
+    }
+
+    /** Returns EDGES, a stream of my base's edges, as my edges. */
+    private Stream<Edge> reversed(Stream<Edge> edges) {
+        return edges.map(new Function<Edge, Edge>() {
+            @Override
+            public Edge apply(Edge e) {
+                return e.reversed();
+            }
+        });
+    }
+
+    /** Returns EDGES, an iteration of my base's edges, as my edges. */
+    private Iteration<Edge> reversed(final Iteration<Edge> edges) {
+        return new Iteration<Edge>() {
+            @Override
+            public boolean hasNext() {
+                return edges.hasNext();
+            }
+
+            @Override
+            public Edge next() {
+                return edges.next().reversed();
+            }
+        };
+    }
+
+    /** A cursor of mine: a cursor of my base's running the other way,
+     *  delivering reversed edges. */
+    private static final class ReversedCursor<VLabel, ELabel>
+        implements EdgeCursor<VLabel, ELabel> {
+
+        /** A cursor delivering the reversals of CURSOR's edges. */
+        ReversedCursor(EdgeCursor<VLabel, ELabel> cursor) {
+            _cursor = cursor;
+        }
+
+        @Override
+        public void reset(Graph<VLabel, ELabel>.Vertex v) {
+            _cursor.reset(v);
+        }
+
+        @Override
+        public boolean next() {
+            return _cursor.next();
+        }
+
+        @Override
+        public Graph<VLabel, ELabel>.Edge edge() {
+            return _cursor.edge().reversed();
+        }
+
+        @Override
+        public ELabel label() {
+            return _cursor.label();
+        }
+
+        @Override
+        public Graph<VLabel, ELabel>.Vertex targetVertex() {
+            return _cursor.targetVertex();
+        }
+
+        @Override
+        public int target() {
+            return _cursor.target();
+        }
+
+        /** The base's cursor. */
+        private final EdgeCursor<VLabel, ELabel> _cursor;
+    }
+
+}
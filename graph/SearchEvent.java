@@ -0,0 +1,63 @@
+package graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Java Flight Recorder event recording one search, with the same
+ *  content as the SearchStats reported to a SearchListener.  Enable it
+ *  in a recording with, e.g., -XX:StartFlightRecording and the setting
+ *  graph.Search#enabled=true.  Searches get theirs from
+ *  Graphs.startSearch, which creates none unless a listener is set or
+ *  the event is enabled.
+ *  @author Conrad Shiao
+ */
+@Name("graph.Search")
+@Label("Graph Search")
+@Category("Graph")
+@Description("A shortest-path search or traversal of a graph")
+@StackTrace(false)
+final class SearchEvent extends Event {
+
+    /** The kind of search. */
+    @Label("Kind")
+    String kind;
+
+    /** Vertices expanded. */
+    @Label("Settled")
+    long settled;
+
+    /** Edges examined. */
+    @Label("Relaxed")
+    long relaxed;
+
+    /** Queue insertions. */
+    @Label("Pushes")
+    long pushes;
+
+    /** Priority improvements of queued vertices. */
+    @Label("Decrease-Keys")
+    long decreaseKeys;
+
+    /** Heuristic evaluations. */
+    @Label("Distancer Calls")
+    long distCalls;
+
+    /** Fill me in from STATS and commit me, if I am enabled. */
+    void commit(SearchStats stats) {
+        end();
+        if (shouldCommit()) {
+            kind = stats.kind();
+            settled = stats.settled();
+            relaxed = stats.relaxed();
+            pushes = stats.pushes();
+            decreaseKeys = stats.decreaseKeys();
+            distCalls = stats.distCalls();
+            commit();
+        }
+    }
+
+}
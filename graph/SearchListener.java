@@ -0,0 +1,14 @@
+package graph;
+
+/** An object that is told how much work each search did.  Install one
+ *  with Graphs.setSearchListener.
+ *  @author Conrad Shiao
+ */
+public interface SearchListener {
+
+    /** Called on completion of a search (a shortestPath call or a
+     *  traversal) with STATS describing it.  Called on the thread that
+     *  ran the search. */
+    void searchFinished(SearchStats stats);
+
+}
@@ -0,0 +1,82 @@
+package graph;
+
+/** Counts of the work done by one search: a call of Graphs.shortestPath
+ *  or one of the traversals of Traversal.  For a traversal, the settled
+ *  vertices are those visited, the relaxed edges are those examined, the
+ *  pushes are additions to the fringe, and there are no decrease-keys or
+ *  heuristic calls.
+ *  @author Conrad Shiao
+ */
+public final class SearchStats {
+
+    /** Statistics for a search of kind KIND that took NANOS nanoseconds,
+     *  settled SETTLED vertices, relaxed RELAXED edges, pushed PUSHES
+     *  vertices onto its queue, lowered DECREASEKEYS priorities of queued
+     *  vertices, and called its Distancer DISTCALLS times. */
+    SearchStats(String kind, long nanos, long settled, long relaxed,
+                long pushes, long decreaseKeys, long distCalls) {
+        _kind = kind;
+        _nanos = nanos;
+        _settled = settled;
+        _relaxed = relaxed;
+        _pushes = pushes;
+        _decreaseKeys = decreaseKeys;
+        _distCalls = distCalls;
+    }
+
+    /** Returns the name of the method that did the search, such as
+     *  "shortestPath" or "breadthFirstTraverse". */
+    public String kind() {
+        return _kind;
+    }
+
+    /** Returns the elapsed (wall-clock) time of the search in
+     *  nanoseconds. */
+    public long nanos() {
+        return _nanos;
+    }
+
+    /** Returns the number of vertices removed from the queue and
+     *  expanded. */
+    public long settled() {
+        return _settled;
+    }
+
+    /** Returns the number of edges examined from expanded vertices. */
+    public long relaxed() {
+        return _relaxed;
+    }
+
+    /** Returns the number of vertices added to the queue. */
+    public long pushes() {
+        return _pushes;
+    }
+
+    /** Returns the number of times a vertex already in the queue got a
+     *  better priority. */
+    public long decreaseKeys() {
+        return _decreaseKeys;
+    }
+
+    /** Returns the number of calls to the heuristic's dist method. */
+    public long distCalls() {
+        return _distCalls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.3f ms, %d settled, %d relaxed, "
+                             + "%d pushes, %d decrease-keys, %d dist calls",
+                             _kind, _nanos / 1e6, _settled, _relaxed,
+                             _pushes, _decreaseKeys, _distCalls);
+    }
+
+    /** The kind of search. */
+    private final String _kind;
+    /** Elapsed time in nanoseconds. */
+    private final long _nanos;
+    /** Work counts (see the corresponding accessors). */
+    private final long _settled, _relaxed, _pushes, _decreaseKeys,
+        _distCalls;
+
+}
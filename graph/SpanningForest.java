@@ -0,0 +1,185 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/** A minimum spanning forest of a graph: for each connected component, a
+ *  set of edges of least total weight that connects all its vertices.
+ *  Edge directions are ignored.  Produced by
+ *  Graphs.minimumSpanningForest and Graphs.parallelMinimumSpanningForest.
+ *  @author Conrad Shiao
+ */
+public final class SpanningForest<VLabel, ELabel> {
+
+    /** A forest consisting of EDGES, whose weights total WEIGHT. */
+    private SpanningForest(List<Graph<VLabel, ELabel>.Edge> edges,
+                           double weight) {
+        _edges = Collections.unmodifiableList(edges);
+        _weight = weight;
+    }
+
+    /** Returns the edges of the forest. */
+    public List<Graph<VLabel, ELabel>.Edge> edges() {
+        return _edges;
+    }
+
+    /** Returns the total weight of edges(). */
+    public double weight() {
+        return _weight;
+    }
+
+    /** Returns a minimum spanning forest of G, whose edges are weighted
+     *  by EWEIGHTER, computed by Kruskal's algorithm. */
+    static <VLabel, ELabel> SpanningForest<VLabel, ELabel>
+    kruskal(Graph<VLabel, ELabel> G, Weighting<? super ELabel> eweighter) {
+        EdgeArrays<VLabel, ELabel> edges =
+            new EdgeArrays<VLabel, ELabel>(G, eweighter);
+        final double[] weight = edges._weight;
+        Integer[] order = new Integer[edges.size()];
+        for (int e = 0; e < order.length; e += 1) {
+            order[e] = e;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer e0, Integer e1) {
+                return Double.compare(weight[e0], weight[e1]);
+            }
+        });
+        UnionFind sets = new UnionFind(G.indexLimit());
+        List<Graph<VLabel, ELabel>.Edge> chosen =
+            new ArrayList<Graph<VLabel, ELabel>.Edge>();
+        double total = 0.0;
+        for (int e : order) {
+            if (sets.union(edges._from[e], edges._to[e])) {
+                chosen.add(edges._edges.get(e));
+                total += edges._weight[e];
+            }
+        }
+        return new SpanningForest<VLabel, ELabel>(chosen, total);
+    }
+
+    /** Returns a minimum spanning forest of G, whose edges are weighted
+     *  by EWEIGHTER, computed by Boruvka's algorithm using THREADS
+     *  threads.  In each round, every tree of the forest built so far
+     *  finds its cheapest outgoing edge (a parallel scan of all edges),
+     *  and all those edges are added at once, at least halving the
+     *  number of trees.  Ties between equal weights are broken by edge
+     *  position, so that the chosen edges never form a cycle. */
+    static <VLabel, ELabel> SpanningForest<VLabel, ELabel>
+    boruvka(Graph<VLabel, ELabel> G, Weighting<? super ELabel> eweighter,
+            int threads) {
+        final EdgeArrays<VLabel, ELabel> edges =
+            new EdgeArrays<VLabel, ELabel>(G, eweighter);
+        final int n = G.indexLimit();
+        final UnionFind sets = new UnionFind(n);
+        final int[] root = new int[n];
+        final AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        List<Graph<VLabel, ELabel>.Edge> chosen =
+            new ArrayList<Graph<VLabel, ELabel>.Edge>();
+        double total = 0.0;
+        boolean merged = true;
+        while (merged) {
+            Parallel.forRange(n, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int v = lo; v < hi; v += 1) {
+                        root[v] = sets.findReadOnly(v);
+                        cheapest.set(v, -1);
+                    }
+                }
+            });
+            Parallel.forRange(edges.size(), threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int e = lo; e < hi; e += 1) {
+                        int r0 = root[edges._from[e]],
+                            r1 = root[edges._to[e]];
+                        if (r0 != r1) {
+                            offer(cheapest, r0, e, edges._weight);
+                            offer(cheapest, r1, e, edges._weight);
+                        }
+                    }
+                }
+            });
+            merged = false;
+            for (int r = 0; r < n; r += 1) {
+                int e = cheapest.get(r);
+                if (e >= 0 && sets.union(edges._from[e], edges._to[e])) {
+                    chosen.add(edges._edges.get(e));
+                    total += edges._weight[e];
+                    merged = true;
+                }
+            }
+        }
+        return new SpanningForest<VLabel, ELabel>(chosen, total);
+    }
+
+    /** Make edge #E the value of CHEAPEST[R] if it is lighter than the
+     *  edge there now, according to WEIGHT (ties going to the lower
+     *  edge number), or if there is none there (-1). */
+    private static void offer(AtomicIntegerArray cheapest, int r, int e,
+                              double[] weight) {
+        while (true) {
+            int current = cheapest.get(r);
+            if (current >= 0 && !lighter(e, current, weight)) {
+                return;
+            }
+            if (cheapest.compareAndSet(r, current, e)) {
+                return;
+            }
+        }
+    }
+
+    /** Returns true iff edge #E0 comes before edge #E1 in order of WEIGHT,
+     *  ties going to the lower edge number. */
+    private static boolean lighter(int e0, int e1, double[] weight) {
+        int c = Double.compare(weight[e0], weight[e1]);
+        return c < 0 || (c == 0 && e0 < e1);
+    }
+
+    /** The edges of a graph, numbered, with the indices of their end
+     *  points and their weights in parallel arrays. */
+    private static class EdgeArrays<VLabel, ELabel> {
+
+        /** The edges of G, weighted by EWEIGHTER. */
+        EdgeArrays(Graph<VLabel, ELabel> G,
+                   Weighting<? super ELabel> eweighter) {
+            _edges = new ArrayList<Graph<VLabel, ELabel>.Edge>(G.edgeSize());
+            for (Graph<VLabel, ELabel>.Edge e : G.edges()) {
+                _edges.add(e);
+            }
+            int m = _edges.size();
+            _from = new int[m];
+            _to = new int[m];
+            _weight = new double[m];
+            for (int e = 0; e < m; e += 1) {
+                Graph<VLabel, ELabel>.Edge edge = _edges.get(e);
+                _from[e] = G.index(edge.getV0());
+                _to[e] = G.index(edge.getV1());
+                _weight[e] = eweighter.weight(edge.getLabel());
+            }
+        }
+
+        /** Returns the number of edges. */
+        int size() {
+            return _edges.size();
+        }
+
+        /** The edges. */
+        private final ArrayList<Graph<VLabel, ELabel>.Edge> _edges;
+        /** Indices of the end points of the edges. */
+        private final int[] _from, _to;
+        /** Weights of the edges. */
+        private final double[] _weight;
+    }
+
+    /** The edges of the forest. */
+    private final List<Graph<VLabel, ELabel>.Edge> _edges;
+    /** Their total weight. */
+    private final double _weight;
+
+}
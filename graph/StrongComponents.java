@@ -0,0 +1,481 @@
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** The strongly connected components of a graph: the maximal sets of
+ *  vertices each of whose members can reach all the others.  Components
+ *  are numbered 0 .. count()-1.  Produced by Graphs.strongComponents and
+ *  Graphs.parallelStrongComponents.
+ *  @author Conrad Shiao
+ */
+public final class StrongComponents<VLabel, ELabel> {
+
+    /** The components of G, where the component of the vertex with index
+     *  v is COMPONENT[v], and there are COUNT components.  SNAPSHOT is
+     *  the snapshot of G in which they were found. */
+    private StrongComponents(Graph<VLabel, ELabel> G,
+                             CompactGraph<VLabel, ELabel> snapshot,
+                             int[] component, int count) {
+        _graph = G;
+        _outStart = snapshot.outStart();
+        _outTarget = snapshot.outTarget();
+        _component = component;
+        _count = count;
+    }
+
+    /** Returns the number of components. */
+    public int count() {
+        return _count;
+    }
+
+    /** Returns the number of the component containing V. */
+    public int component(Graph<VLabel, ELabel>.Vertex v) {
+        return _component[_graph.index(v)];
+    }
+
+    /** Returns the component numbers of all vertices: element k is the
+     *  component of the vertex whose index (see Graph.index) is k, or -1
+     *  if there is no such vertex.  Indices refer to the graph as it was
+     *  when the components were computed. */
+    public int[] componentIds() {
+        return _component.clone();
+    }
+
+    /** Returns the condensation of the graph: a directed graph with one
+     *  vertex for each component, labeled with the component's number
+     *  and having that number as its index, and an edge from component c
+     *  to component d iff the original graph has some edge from a vertex
+     *  of c to one of d (c != d).  Each edge is labeled with the number
+     *  of such original edges.  The condensation is acyclic.  Like the
+     *  components, it describes the graph as it was when they were
+     *  computed. */
+    public DirectedGraph<Integer, Integer> condensation() {
+        int n = _component.length;
+        int[] first = new int[_count + 1];
+        for (int v = 0; v < n; v += 1) {
+            if (_component[v] >= 0) {
+                first[_component[v] + 1] += 1;
+            }
+        }
+        for (int c = 0; c < _count; c += 1) {
+            first[c + 1] += first[c];
+        }
+        int[] members = new int[first[_count]];
+        int[] fill = Arrays.copyOf(first, _count);
+        for (int v = 0; v < n; v += 1) {
+            if (_component[v] >= 0) {
+                members[fill[_component[v]]++] = v;
+            }
+        }
+        DirectedGraph<Integer, Integer> result =
+            new DirectedGraph<Integer, Integer>();
+        List<Graph<Integer, Integer>.Vertex> nodes =
+            new ArrayList<Graph<Integer, Integer>.Vertex>(_count);
+        for (int c = 0; c < _count; c += 1) {
+            nodes.add(result.add(c));
+        }
+        int[] seen = new int[_count], multiplicity = new int[_count];
+        Arrays.fill(seen, -1);
+        int[] targets = new int[_count];
+        for (int c = 0; c < _count; c += 1) {
+            int numTargets = 0;
+            for (int k = first[c]; k < first[c + 1]; k += 1) {
+                int v = members[k];
+                for (int s = _outStart[v]; s < _outStart[v + 1]; s += 1) {
+                    int d = _component[_outTarget[s]];
+                    if (d == c) {
+                        continue;
+                    }
+                    if (seen[d] != c) {
+                        seen[d] = c;
+                        multiplicity[d] = 0;
+                        targets[numTargets++] = d;
+                    }
+                    multiplicity[d] += 1;
+                }
+            }
+            for (int k = 0; k < numTargets; k += 1) {
+                int d = targets[k];
+                result.add(nodes.get(c), nodes.get(d), multiplicity[d]);
+            }
+        }
+        return result;
+    }
+
+    /** Returns the strongly connected components of G, found by an
+     *  iterative version of Tarjan's algorithm in O(V+E) time.  The
+     *  components are numbered in topological order of the condensation:
+     *  every edge between components goes from a lower to a higher
+     *  number. */
+    static <VLabel, ELabel> StrongComponents<VLabel, ELabel>
+    tarjan(Graph<VLabel, ELabel> G) {
+        CompactGraph<VLabel, ELabel> snapshot =
+            new CompactGraph<VLabel, ELabel>(G, false);
+        int n = snapshot.size();
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        int[] members = new int[n];
+        int numMembers = 0;
+        for (int v = 0; v < n; v += 1) {
+            if (snapshot.present(v)) {
+                members[numMembers++] = v;
+            }
+        }
+        Tarjan search = new Tarjan(snapshot.outStart(), snapshot.outTarget(),
+                                   component, null);
+        int count = search.run(members, numMembers, 0, new AtomicInteger());
+        for (int v = 0; v < n; v += 1) {
+            if (component[v] >= 0) {
+                component[v] = count - 1 - component[v];
+            }
+        }
+        return new StrongComponents<VLabel, ELabel>(G, snapshot, component,
+                                                    count);
+    }
+
+    /** Returns the strongly connected components of G, found with
+     *  THREADS threads by the forward-backward method.  First, vertices
+     *  with no other predecessors or no other successors are trimmed off
+     *  as components of their own.  Then, repeatedly, some vertex of an
+     *  unfinished part of the graph is chosen; the vertices it reaches
+     *  and those that reach it are found by breadth-first searches
+     *  within the part; the vertices doing both form its component; and
+     *  the rest of the part splits into three parts that no component
+     *  crosses, which are processed independently as fork-join tasks.
+     *  Parts below a certain size are finished by Tarjan's algorithm.
+     *  The numbering of components is arbitrary. */
+    static <VLabel, ELabel> StrongComponents<VLabel, ELabel>
+    forwardBackward(Graph<VLabel, ELabel> G, int threads) {
+        CompactGraph<VLabel, ELabel> snapshot =
+            new CompactGraph<VLabel, ELabel>(G, true);
+        ForwardBackward search = new ForwardBackward(snapshot);
+        search.run(threads);
+        return new StrongComponents<VLabel, ELabel>(G, snapshot,
+                                                    search._component,
+                                                    search._count.get());
+    }
+
+    /** An iterative Tarjan search over the vertices of a part of a graph,
+     *  which are those of a given color.  Several may run at once on
+     *  disjoint parts of the same graph, sharing its per-vertex
+     *  arrays. */
+    private static class Tarjan {
+
+        /** A search of the graph whose out-slots are given by OUTSTART and
+         *  OUTTARGET (as for CompactGraph), which records component
+         *  numbers in COMPONENT and finds the vertices of a part by their
+         *  entries in COLOR (or takes all vertices if COLOR is null). */
+        Tarjan(int[] outStart, int[] outTarget, int[] component,
+               int[] color) {
+            _outStart = outStart;
+            _outTarget = outTarget;
+            _component = component;
+            _color = color;
+            int n = component.length;
+            _order = new int[n];
+            _low = new int[n];
+            _next = new int[n];
+        }
+
+        /** Find the components among the N vertices MEMBERS[0 .. N-1],
+         *  all of color COLOR, numbering them with values taken from
+         *  COUNTER, in reverse topological order if COUNTER is not
+         *  shared.  Returns the number of components found. */
+        int run(int[] members, int n, int color, AtomicInteger counter) {
+            int[] calls = new int[n], pending = new int[n];
+            int numCalls, numPending = 0, time = 0, found = 0;
+            for (int k = 0; k < n; k += 1) {
+                _order[members[k]] = -1;
+            }
+            for (int k = 0; k < n; k += 1) {
+                int root = members[k];
+                if (_order[root] >= 0) {
+                    continue;
+                }
+                _order[root] = _low[root] = time++;
+                _next[root] = _outStart[root];
+                pending[numPending++] = root;
+                calls[0] = root;
+                numCalls = 1;
+                while (numCalls > 0) {
+                    int v = calls[numCalls - 1];
+                    if (_next[v] < _outStart[v + 1]) {
+                        int w = _outTarget[_next[v]];
+                        _next[v] += 1;
+                        if (_color != null && _color[w] != color) {
+                            continue;
+                        } else if (_order[w] < 0) {
+                            _order[w] = _low[w] = time++;
+                            _next[w] = _outStart[w];
+                            pending[numPending++] = w;
+                            calls[numCalls++] = w;
+                        } else if (_component[w] < 0) {
+                            _low[v] = Math.min(_low[v], _order[w]);
+                        }
+                        continue;
+                    }
+                    numCalls -= 1;
+                    if (_low[v] == _order[v]) {
+                        int id = counter.getAndIncrement();
+                        found += 1;
+                        int w;
+                        do {
+                            numPending -= 1;
+                            w = pending[numPending];
+                            _component[w] = id;
+                        } while (w != v);
+                    }
+                    if (numCalls > 0) {
+                        int u = calls[numCalls - 1];
+                        _low[u] = Math.min(_low[u], _low[v]);
+                    }
+                }
+            }
+            return found;
+        }
+
+        /** Adjacency. */
+        private final int[] _outStart, _outTarget;
+        /** Component numbers (-1 for a vertex not yet assigned one). */
+        private final int[] _component;
+        /** Part colors, or null. */
+        private final int[] _color;
+        /** Per vertex: discovery order, least order reachable, and next
+         *  out-slot to explore. */
+        private final int[] _order, _low, _next;
+    }
+
+    /** The state of a parallel forward-backward search. */
+    private static class ForwardBackward {
+
+        /** Parts no larger than this are finished with Tarjan. */
+        static final int SEQUENTIAL_SIZE = 4096;
+
+        /** The color of vertices whose component is known. */
+        static final int DONE = -1;
+
+        /** Prepare to find the components of SNAPSHOT, which includes
+         *  incoming adjacency. */
+        ForwardBackward(CompactGraph<?, ?> snapshot) {
+            _outStart = snapshot.outStart();
+            _outTarget = snapshot.outTarget();
+            _inStart = snapshot.inStart();
+            _inSource = snapshot.inSource();
+            int n = snapshot.size();
+            _component = new int[n];
+            _color = new int[n];
+            Arrays.fill(_component, -1);
+            for (int v = 0; v < n; v += 1) {
+                _color[v] = snapshot.present(v) ? 0 : DONE;
+            }
+            _tarjan = new Tarjan(_outStart, _outTarget, _component, _color);
+        }
+
+        /** Find all components, trimming in THREADS chunks and then
+         *  splitting parts as tasks on the common fork-join pool, or in
+         *  this thread alone if THREADS is 1. */
+        void run(int threads) {
+            final int n = _component.length;
+            Parallel.forRange(n, threads, new Parallel.Body() {
+                @Override
+                public void run(int lo, int hi) {
+                    for (int v = lo; v < hi; v += 1) {
+                        if (_color[v] != DONE
+                            && (!hasOther(_outStart, _outTarget, v)
+                                || !hasOther(_inStart, _inSource, v))) {
+                            _component[v] = _count.getAndIncrement();
+                        }
+                    }
+                }
+            });
+            int[] rest = new int[n];
+            int size = 0;
+            for (int v = 0; v < n; v += 1) {
+                if (_component[v] >= 0) {
+                    _color[v] = DONE;
+                } else if (_color[v] != DONE) {
+                    rest[size++] = v;
+                }
+            }
+            if (size == 0) {
+                return;
+            }
+            _colors.set(1);
+            rest = Arrays.copyOf(rest, size);
+            if (threads <= 1) {
+                ArrayDeque<int[]> parts = new ArrayDeque<int[]>();
+                parts.push(rest);
+                while (!parts.isEmpty()) {
+                    for (int[] part : split(parts.pop())) {
+                        parts.push(part);
+                    }
+                }
+            } else {
+                new Part(rest).invoke();
+            }
+        }
+
+        /** Returns true iff vertex V has an adjacent vertex other than
+         *  itself in the slots given by START and OTHER. */
+        private static boolean hasOther(int[] start, int[] other, int v) {
+            for (int s = start[v]; s < start[v + 1]; s += 1) {
+                if (other[s] != v) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Find the components of PART, which all have the same color,
+         *  either directly or by finding one and returning the rest as up
+         *  to three parts, largest first, whose components remain to be
+         *  found. */
+        private List<int[]> split(int[] part) {
+            List<int[]> result = new ArrayList<int[]>(3);
+            int color = _color[part[0]];
+            if (part.length <= SEQUENTIAL_SIZE) {
+                _tarjan.run(part, part.length, color, _count);
+                for (int v : part) {
+                    _color[v] = DONE;
+                }
+                return result;
+            }
+            int forward = _colors.getAndIncrement(),
+                backward = _colors.getAndIncrement();
+            int pivot = part[0];
+            int[] queue = new int[part.length];
+            _color[pivot] = forward;
+            queue[0] = pivot;
+            for (int head = 0, tail = 1; head < tail; head += 1) {
+                int v = queue[head];
+                for (int s = _outStart[v]; s < _outStart[v + 1]; s += 1) {
+                    int w = _outTarget[s];
+                    if (_color[w] == color) {
+                        _color[w] = forward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            int id = _count.getAndIncrement();
+            _component[pivot] = id;
+            _color[pivot] = DONE;
+            queue[0] = pivot;
+            for (int head = 0, tail = 1; head < tail; head += 1) {
+                int v = queue[head];
+                for (int s = _inStart[v]; s < _inStart[v + 1]; s += 1) {
+                    int w = _inSource[s];
+                    if (_color[w] == forward) {
+                        _component[w] = id;
+                        _color[w] = DONE;
+                        queue[tail++] = w;
+                    } else if (_color[w] == color) {
+                        _color[w] = backward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            for (int c : new int[] { forward, backward, color }) {
+                int[] members = members(part, c);
+                if (members != null) {
+                    result.add(members);
+                }
+            }
+            result.sort(new Comparator<int[]>() {
+                @Override
+                public int compare(int[] p0, int[] p1) {
+                    return Integer.compare(p1.length, p0.length);
+                }
+            });
+            return result;
+        }
+
+        /** Returns the members of PART that have color COLOR, or null if
+         *  there are none. */
+        private int[] members(int[] part, int color) {
+            int size = 0;
+            for (int v : part) {
+                if (_color[v] == color) {
+                    size += 1;
+                }
+            }
+            if (size > 0) {
+                int[] members = new int[size];
+                size = 0;
+                for (int v : part) {
+                    if (_color[v] == color) {
+                        members[size++] = v;
+                    }
+                }
+                return members;
+            }
+            return null;
+        }
+
+        /** A part whose components remain to be found, as a fork-join
+         *  task.  It keeps splitting its largest piece itself and forks
+         *  the others, which are at most half as large, so that tasks
+         *  run in the current thread nest only logarithmically deep. */
+        private final class Part extends RecursiveAction {
+
+            /** The part whose members are MEMBERS. */
+            Part(int[] members) {
+                _members = members;
+            }
+
+            @Override
+            protected void compute() {
+                List<Part> forked = new ArrayList<Part>();
+                int[] part = _members;
+                while (part != null) {
+                    List<int[]> parts = split(part);
+                    part = parts.isEmpty() ? null : parts.get(0);
+                    for (int k = 1; k < parts.size(); k += 1) {
+                        Part task = new Part(parts.get(k));
+                        task.fork();
+                        forked.add(task);
+                    }
+                }
+                for (Part task : forked) {
+                    task.join();
+                }
+            }
+
+            /** Serialization version (RecursiveAction is Serializable). */
+            private static final long serialVersionUID = 1L;
+
+            /** The vertices of this part. */
+            private final int[] _members;
+        }
+
+        /** Adjacency. */
+        private final int[] _outStart, _outTarget, _inStart, _inSource;
+        /** Component numbers (-1 for unassigned). */
+        private final int[] _component;
+        /** The color of the part containing each vertex, or DONE. */
+        private final int[] _color;
+        /** Finishes small parts.  Since parts are disjoint and differ in
+         *  color, any number of threads may use it at once. */
+        private final Tarjan _tarjan;
+        /** Source of component numbers. */
+        private final AtomicInteger _count = new AtomicInteger();
+        /** Source of part colors. */
+        private final AtomicInteger _colors = new AtomicInteger();
+    }
+
+    /** The graph whose components these are. */
+    private final Graph<VLabel, ELabel> _graph;
+    /** The outgoing adjacency (as for CompactGraph) of the snapshot of
+     *  _graph in which the components were found. */
+    private final int[] _outStart, _outTarget;
+    /** Component numbers, by vertex index. */
+    private final int[] _component;
+    /** Number of components. */
+    private final int _count;
+
+}
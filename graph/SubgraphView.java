@@ -0,0 +1,112 @@
+package graph;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/** A view of the part of a graph whose vertices and edges satisfy given
+ *  predicates: a vertex is present iff it is in the base graph and
+ *  satisfies the vertex predicate, and an edge iff it is in the base
+ *  graph, satisfies the edge predicate, and joins present vertices.  The
+ *  predicates are applied afresh each time a vertex or edge is
+ *  delivered, so they may consult state that changes.  Produced by
+ *  Graphs.filtered and Graphs.induced.
+ *  @author Conrad Shiao
+ */
+public class SubgraphView<VLabel, ELabel> extends GraphView<VLabel, ELabel> {
+
+    /** The view of BASE containing its vertices that satisfy
+     *  VERTEXFILTER and edges that satisfy EDGEFILTER.  Either filter
+     *  may be null, admitting everything. */
+    SubgraphView(Graph<VLabel, ELabel> base,
+                 Predicate<? super Graph<VLabel, ELabel>.Vertex>
+                     vertexFilter,
+                 Predicate<? super Graph<VLabel, ELabel>.Edge>
+                     edgeFilter) {
+        super(base);
+        _vertexFilter = vertexFilter;
+        _edgeFilter = edgeFilter;
+    }
+
+    /** Returns true iff V is one of my vertices, assuming it is one of
+     *  my base's. */
+    public boolean accepts(Vertex v) {
+        return _vertexFilter == null || _vertexFilter.test(v);
+    }
+
+    /** Returns true iff E is one of my edges, assuming it is one of my
+     *  base's. */
+    public boolean accepts(Edge e) {
+        return (_edgeFilter == null || _edgeFilter.test(e))
+            && accepts(e.getV0()) && accepts(e.getV1());
+    }
+
+    @Override
+    public Vertex vertex(int k) {
+        Vertex v = base().vertex(k);
+        return v != null && accepts(v) ? v : null;
+    }
+
+    @Override
+    public Iteration<Vertex> vertices() {
+        return new FilteredIteration<Vertex>(base().vertices()) {
+            @Override
+            boolean accept(Vertex v) {
+                return accepts(v);
+            }
+        };
+    }
+
+    @Override
+    public Iteration<Edge> edges() {
+        return edges(base().edges());
+    }
+
+    @Override
+    public Iteration<Edge> outEdges(Vertex v) {
+        return edges(base().outEdges(v));
+    }
+
+    @Override
+    public Iteration<Edge> inEdges(Vertex v) {
+        return edges(base().inEdges(v));
+    }
+
+    @Override
+    public Stream<Edge> edgeStream() {
+        return base().edgeStream().filter(_edgeAccepter);
+    }
+
+    @Override
+    public Stream<Edge> outEdgeStream(Vertex v) {
+        return base().outEdgeStream(v).filter(_edgeAccepter);
+    }
+
+    @Override
+    public Stream<Edge> inEdgeStream(Vertex v) {
+        return base().inEdgeStream(v).filter(_edgeAccepter);
+    }
+
+    /** Returns the edges among EDGES that are mine. */
+    private Iteration<Edge> edges(Iteration<Edge> edges) {
+        return new FilteredIteration<Edge>(edges) {
+            @Override
+            boolean accept(Edge e) {
+                return accepts(e);
+            }
+        };
+    }
+
+    /** Tests membership of edges in me, for streams. */
+    private final Predicate<Edge> _edgeAccepter = new Predicate<Edge>() {
+        @Override
+        public boolean test(Edge e) {
+            return accepts(e);
+        }
+    };
+    /** The vertex predicate, or null. */
+    private final Predicate<? super Graph<VLabel, ELabel>.Vertex>
+        _vertexFilter;
+    /** The edge predicate, or null. */
+    private final Predicate<? super Graph<VLabel, ELabel>.Edge> _edgeFilter;
+
+}
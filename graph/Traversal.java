@@ -6,7 +6,8 @@ import java.util.Comparator;
 import java.util.PriorityQueue;
 import java.util.HashSet;
 import java.util.Stack;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.Collections;
 import java.util.List;
@@ -54,9 +55,15 @@ public class Traversal<VLabel, ELabel> {
         _comparator = order;
         _whichTraversal = 1;
         PriorityQueue<Graph<VLabel, ELabel>.Vertex> fringe = new PriorityQueue<
-                Graph<VLabel, ELabel>.Vertex>(G.vertexSize(),
+                Graph<VLabel, ELabel>.Vertex>(Math.max(G.vertexSize(), 1),
                         makeComparator(order));
+        EdgeCursor<VLabel, ELabel> cursor = G.outCursor();
+        SearchEvent event = Graphs.startSearch();
+        boolean instrumented = event != null;
+        long startTime = instrumented ? System.nanoTime() : 0;
+        long settled = 0, relaxed = 0, pushes = 1;
         fringe.add(v);
+        boolean expandedStart = false;
         while (!fringe.isEmpty()) {
             Graph<VLabel, ELabel>.Vertex vertex = fringe.remove();
             Graph<VLabel, ELabel>.Edge edge = null;
@@ -66,27 +73,49 @@ public class Traversal<VLabel, ELabel> {
                     try {
                         visit(vertex);
                         _marked.add(vertex);
+                        settled += 1;
                     } catch (RejectException e) {
                         continue;
                     }
+                } else if (vertex != v || expandedStart) {
+                    continue;
                 }
-                Iteration<Graph<VLabel, ELabel>.Edge> edges = G.isDirected()
-                        ? G.outEdges(vertex) : G.edges(vertex);
-                while (edges.hasNext()) {
+                expandedStart = expandedStart || vertex == v;
+                cursor.reset(vertex);
+                while (cursor.next()) {
                     try {
-                        edge = edges.next();
-                        child = edge.getV(vertex);
+                        edge = cursor.edge();
+                        relaxed += 1;
+                        child = cursor.targetVertex();
                         preVisit(edge, child);
                     } catch (RejectException e) {
                         continue;
                     }
                     fringe.add(child);
+                    pushes += 1;
                 }
             } catch (StopException e) {
                 _finalEdge = edge;
                 _finalVertex = vertex;
+                break;
             }
         }
+        if (instrumented) {
+            Graphs.report(event, new SearchStats("traverse",
+                                                 System.nanoTime() - startTime,
+                                                 settled, relaxed, pushes,
+                                                 0, 0));
+        }
+    }
+
+    /** Returns MARKS, or a copy of it extended with false values if K
+     *  is not a valid index into it.  Some graphs (such as ImplicitGraph)
+     *  gain vertices, and so indices, as they are traversed. */
+    private static boolean[] cover(boolean[] marks, int k) {
+        if (k < marks.length) {
+            return marks;
+        }
+        return Arrays.copyOf(marks, Math.max(k + 1, 2 * marks.length));
     }
 
     /** Returns a comparator of graph vertices based on ORDER. */
@@ -111,42 +140,50 @@ public class Traversal<VLabel, ELabel> {
                                    Graph<VLabel, ELabel>.Vertex v) {
         Stack<Graph<VLabel, ELabel>.Vertex> fringe =
                 new Stack<Graph<VLabel, ELabel>.Vertex>();
-        HashSet<Graph<VLabel, ELabel>.Vertex> preVisited =
-                new HashSet<Graph<VLabel, ELabel>.Vertex>();
-        HashSet<Graph<VLabel, ELabel>.Vertex> postVisited =
-                new HashSet<Graph<VLabel, ELabel>.Vertex>();
+        boolean[] preVisited = new boolean[Math.max(G.indexLimit(), 1)];
+        boolean[] postVisited = new boolean[Math.max(G.indexLimit(), 1)];
+        EdgeCursor<VLabel, ELabel> cursor = G.outCursor();
         _graph = G;
         _whichTraversal = 2;
+        SearchEvent event = Graphs.startSearch();
+        boolean instrumented = event != null;
+        long startTime = instrumented ? System.nanoTime() : 0;
+        long settled = 0, relaxed = 0, pushes = 1;
         fringe.add(v);
-        preVisited.add(v);
+        preVisited[G.index(v)] = true;
         while (!fringe.isEmpty()) {
             Graph<VLabel, ELabel>.Vertex currV = fringe.pop(), neighbor;
+            postVisited = cover(postVisited, G.index(currV));
             Graph<VLabel, ELabel>.Edge currentEdge = null;
             try {
-                if (_marked.contains(currV) && !postVisited.contains(currV)) {
+                if (_marked.contains(currV)
+                    && !postVisited[G.index(currV)]) {
                     postVisit(currV);
-                    postVisited.add(currV);
+                    postVisited[G.index(currV)] = true;
                 } else {
                     try {
                         if (!_marked.contains(currV)) {
                             visit(currV);
                             _marked.add(currV);
+                            settled += 1;
                         }
                     } catch (RejectException e) {
                         continue;
                     }
-                    if (!postVisited.contains(currV)) {
+                    if (!postVisited[G.index(currV)]) {
                         fringe.add(currV);
                         List<Graph<VLabel, ELabel>.Vertex> children =
                                 new ArrayList<Graph<VLabel, ELabel>.Vertex>();
-                        for (Graph<VLabel, ELabel>.Edge e : G.isDirected()
-                                ? G.outEdges(currV) : G.edges(currV)) {
+                        cursor.reset(currV);
+                        while (cursor.next()) {
                             try {
-                                currentEdge = e;
-                                neighbor = e.getV(currV);
-                                if (!preVisited.contains(neighbor)) {
+                                currentEdge = cursor.edge();
+                                relaxed += 1;
+                                neighbor = cursor.targetVertex();
+                                preVisited = cover(preVisited, cursor.target());
+                                if (!preVisited[cursor.target()]) {
                                     preVisit(currentEdge, currV);
-                                    preVisited.add(neighbor);
+                                    preVisited[cursor.target()] = true;
                                 }
                             } catch (RejectException rejected) {
                                 continue;
@@ -155,6 +192,7 @@ public class Traversal<VLabel, ELabel> {
                         }
                         Collections.reverse(children);
                         fringe.addAll(children);
+                        pushes += children.size();
                         children.clear();
                     }
                 }
@@ -164,6 +202,12 @@ public class Traversal<VLabel, ELabel> {
                 break;
             }
         }
+        if (instrumented) {
+            Graphs.report(event, new SearchStats("depthFirstTraverse",
+                                                 System.nanoTime() - startTime,
+                                                 settled, relaxed, pushes,
+                                                 0, 0));
+        }
     }
 
     /** Performs a breadth-first traversal of G over all vertices
@@ -175,38 +219,46 @@ public class Traversal<VLabel, ELabel> {
     public void breadthFirstTraverse(Graph<VLabel, ELabel> G,
             Graph<VLabel, ELabel>.Vertex v) {
         Queue<Graph<VLabel, ELabel>.Vertex> fringe =
-                new LinkedList<Graph<VLabel, ELabel>.Vertex>();
-        HashSet<Graph<VLabel, ELabel>.Vertex> preVisited =
-                new HashSet<Graph<VLabel, ELabel>.Vertex>();
-        HashSet<Graph<VLabel, ELabel>.Vertex> postVisited =
-                new HashSet<Graph<VLabel, ELabel>.Vertex>();
+                new ArrayDeque<Graph<VLabel, ELabel>.Vertex>();
+        boolean[] preVisited = new boolean[Math.max(G.indexLimit(), 1)];
+        boolean[] postVisited = new boolean[Math.max(G.indexLimit(), 1)];
+        EdgeCursor<VLabel, ELabel> cursor = G.outCursor();
         _graph = G;
         _whichTraversal = 3;
+        SearchEvent event = Graphs.startSearch();
+        boolean instrumented = event != null;
+        long startTime = instrumented ? System.nanoTime() : 0;
+        long settled = 0, relaxed = 0, pushes = 1;
         fringe.add(v);
-        preVisited.add(v);
+        preVisited[G.index(v)] = true;
         while (!fringe.isEmpty()) {
             Graph<VLabel, ELabel>.Vertex curr = fringe.remove(), neighbor;
+            postVisited = cover(postVisited, G.index(curr));
             Graph<VLabel, ELabel>.Edge edge = null;
             try {
-                if (!postVisited.contains(curr) && _marked.contains(curr)) {
+                if (!postVisited[G.index(curr)] && _marked.contains(curr)) {
                     postVisit(curr);
-                    postVisited.add(curr);
+                    postVisited[G.index(curr)] = true;
                 } else {
                     try {
                         visit(curr);
                         _marked.add(curr);
+                        settled += 1;
                     } catch (RejectException ignore) {
                         continue;
                     }
-                    for (Graph<VLabel, ELabel>.Edge e : G.isDirected()
-                            ? G.outEdges(curr) : G.edges(curr)) {
+                    cursor.reset(curr);
+                    while (cursor.next()) {
                         try {
-                            edge = e;
-                            neighbor = e.getV(curr);
-                            if (!preVisited.contains(neighbor)) {
-                                preVisit(e, curr);
+                            edge = cursor.edge();
+                            relaxed += 1;
+                            neighbor = cursor.targetVertex();
+                            preVisited = cover(preVisited, cursor.target());
+                            if (!preVisited[cursor.target()]) {
+                                preVisit(edge, curr);
                                 fringe.add(neighbor);
-                                preVisited.add(neighbor);
+                                pushes += 1;
+                                preVisited[cursor.target()] = true;
                             }
                         } catch (RejectException seriouslyIgnoreThis) {
                             continue;
@@ -220,6 +272,12 @@ public class Traversal<VLabel, ELabel> {
                 break;
             }
         }
+        if (instrumented) {
+            Graphs.report(event, new SearchStats("breadthFirstTraverse",
+                                                 System.nanoTime() - startTime,
+                                                 settled, relaxed, pushes,
+                                                 0, 0));
+        }
     }
 
     /** Continue the previous traversal starting from V.
@@ -235,6 +293,41 @@ public class Traversal<VLabel, ELabel> {
         }
     }
 
+    /** Returns the vertices of G reachable from V in breadth-first order,
+     *  as a lazy iteration: each call to next does only the work needed
+     *  to find one more vertex, so that a caller may stop early (or
+     *  resume later) at no extra cost.  G must not change while the
+     *  iteration is in use. */
+    public static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    breadthFirst(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v) {
+        return TraversalIteration.breadthFirst(G, v);
+    }
+
+    /** Returns the vertices of G reachable from V in depth-first
+     *  preorder (each vertex before its descendants), as a lazy
+     *  iteration like breadthFirst. */
+    public static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    preorder(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v) {
+        return TraversalIteration.depthFirst(G, v, true);
+    }
+
+    /** Returns the vertices of G reachable from V in depth-first
+     *  postorder (each vertex after its descendants), as a lazy
+     *  iteration like breadthFirst. */
+    public static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    postorder(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v) {
+        return TraversalIteration.depthFirst(G, v, false);
+    }
+
+    /** Returns the vertices of G reachable from V, as a lazy iteration
+     *  like breadthFirst that always delivers next the reached vertex
+     *  whose label is least according to ORDER. */
+    public static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    ordered(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v,
+            Comparator<? super VLabel> order) {
+        return TraversalIteration.ordered(G, v, order);
+    }
+
     /** If the traversal ends prematurely, returns the Vertex argument to
      *  preVisit that caused a Visit routine to return false.  Otherwise,
      *  returns null. */
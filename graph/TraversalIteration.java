@@ -0,0 +1,262 @@
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/** A traversal of the vertices reachable from a start vertex, delivered
+ *  one at a time on demand.  The fringe lives in the iteration between
+ *  calls, so a caller may stop whenever it likes, or resume later
+ *  exactly where it stopped.  The successors of a delivered vertex are
+ *  not examined until the following vertex is asked for.  The graph
+ *  must not change while the iteration is in use.
+ *  @author Conrad Shiao
+ */
+abstract class TraversalIteration<VLabel, ELabel>
+    extends Iteration<Graph<VLabel, ELabel>.Vertex> {
+
+    /** An iteration over G. */
+    TraversalIteration(Graph<VLabel, ELabel> G) {
+        _graph = G;
+        _marked = new boolean[Math.max(G.indexLimit(), 1)];
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (_next == null) {
+            _next = advance();
+        }
+        return _next != null;
+    }
+
+    @Override
+    public Graph<VLabel, ELabel>.Vertex next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Graph<VLabel, ELabel>.Vertex result = _next;
+        _next = null;
+        return result;
+    }
+
+    /** Returns the next vertex in my order, or null if there is none. */
+    abstract Graph<VLabel, ELabel>.Vertex advance();
+
+    /** Returns true iff V has been marked. */
+    boolean marked(Graph<VLabel, ELabel>.Vertex v) {
+        int k = _graph.index(v);
+        return k < _marked.length && _marked[k];
+    }
+
+    /** Marks V. */
+    void mark(Graph<VLabel, ELabel>.Vertex v) {
+        int k = _graph.index(v);
+        if (k >= _marked.length) {
+            _marked = Arrays.copyOf(_marked,
+                                    Math.max(k + 1, 2 * _marked.length));
+        }
+        _marked[k] = true;
+    }
+
+    /** Returns a breadth-first iteration of G from V. */
+    static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    breadthFirst(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v) {
+        return new BreadthFirst<VLabel, ELabel>(G, v);
+    }
+
+    /** Returns a depth-first iteration of G from V, delivering each
+     *  vertex before its descendants if PREORDER, else after them. */
+    static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    depthFirst(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v,
+               boolean preorder) {
+        return new DepthFirst<VLabel, ELabel>(G, v, preorder);
+    }
+
+    /** Returns an iteration of G from V that always delivers the fringe
+     *  vertex whose label is least according to ORDER. */
+    static <VLabel, ELabel> Iteration<Graph<VLabel, ELabel>.Vertex>
+    ordered(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v,
+            Comparator<? super VLabel> order) {
+        return new Ordered<VLabel, ELabel>(G, v, order);
+    }
+
+    /** A breadth-first traversal. */
+    private static class BreadthFirst<VLabel, ELabel>
+        extends TraversalIteration<VLabel, ELabel> {
+
+        /** A traversal of G from V. */
+        BreadthFirst(Graph<VLabel, ELabel> G,
+                     Graph<VLabel, ELabel>.Vertex v) {
+            super(G);
+            _cursor = G.outCursor();
+            _fringe.add(v);
+            mark(v);
+        }
+
+        @Override
+        Graph<VLabel, ELabel>.Vertex advance() {
+            if (_last != null) {
+                _cursor.reset(_last);
+                while (_cursor.next()) {
+                    Graph<VLabel, ELabel>.Vertex w = _cursor.targetVertex();
+                    if (!marked(w)) {
+                        mark(w);
+                        _fringe.add(w);
+                    }
+                }
+            }
+            _last = _fringe.poll();
+            return _last;
+        }
+
+        /** Discovered vertices not yet delivered, in order. */
+        private final ArrayDeque<Graph<VLabel, ELabel>.Vertex> _fringe =
+            new ArrayDeque<Graph<VLabel, ELabel>.Vertex>();
+
+        /** The last vertex delivered, whose successors are still to be
+         *  discovered. */
+        private Graph<VLabel, ELabel>.Vertex _last;
+
+        /** Cursor for discovering successors. */
+        private final EdgeCursor<VLabel, ELabel> _cursor;
+    }
+
+    /** A depth-first traversal in pre- or postorder. */
+    private static class DepthFirst<VLabel, ELabel>
+        extends TraversalIteration<VLabel, ELabel> {
+
+        /** A traversal of G from V, in preorder iff PREORDER. */
+        DepthFirst(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v,
+                   boolean preorder) {
+            super(G);
+            _preorder = preorder;
+            _start = v;
+        }
+
+        @Override
+        Graph<VLabel, ELabel>.Vertex advance() {
+            if (_start != null) {
+                Graph<VLabel, ELabel>.Vertex v = _start;
+                _start = null;
+                enter(v);
+                if (_preorder) {
+                    return v;
+                }
+            }
+            while (_depth > 0) {
+                EdgeCursor<VLabel, ELabel> top = _path.get(_depth - 1);
+                if (top.next()) {
+                    Graph<VLabel, ELabel>.Vertex w = top.targetVertex();
+                    if (!marked(w)) {
+                        enter(w);
+                        if (_preorder) {
+                            return w;
+                        }
+                    }
+                } else {
+                    _depth -= 1;
+                    if (!_preorder) {
+                        return _vertices.remove(_depth);
+                    }
+                }
+            }
+            return null;
+        }
+
+        /** Marks V and starts on its successors. */
+        private void enter(Graph<VLabel, ELabel>.Vertex v) {
+            mark(v);
+            if (_depth == _path.size()) {
+                _path.add(_graph.outCursor());
+            }
+            _path.get(_depth).reset(v);
+            if (!_preorder) {
+                _vertices.add(v);
+            }
+            _depth += 1;
+        }
+
+        /** True iff vertices are delivered before their descendants. */
+        private final boolean _preorder;
+
+        /** The start vertex, until it has been entered. */
+        private Graph<VLabel, ELabel>.Vertex _start;
+
+        /** Cursors over the successors of the vertices on the current
+         *  path; those beyond _depth are kept for reuse. */
+        private final ArrayList<EdgeCursor<VLabel, ELabel>> _path =
+            new ArrayList<EdgeCursor<VLabel, ELabel>>();
+
+        /** The vertices on the current path (kept only in postorder). */
+        private final ArrayList<Graph<VLabel, ELabel>.Vertex> _vertices =
+            new ArrayList<Graph<VLabel, ELabel>.Vertex>();
+
+        /** The length of the current path. */
+        private int _depth;
+    }
+
+    /** A traversal whose fringe is ordered by a comparator on labels. */
+    private static class Ordered<VLabel, ELabel>
+        extends TraversalIteration<VLabel, ELabel> {
+
+        /** A traversal of G from V in ORDER. */
+        Ordered(Graph<VLabel, ELabel> G, Graph<VLabel, ELabel>.Vertex v,
+                final Comparator<? super VLabel> order) {
+            super(G);
+            _cursor = G.outCursor();
+            _fringe = new PriorityQueue<Graph<VLabel, ELabel>.Vertex>(
+                11, new Comparator<Graph<VLabel, ELabel>.Vertex>() {
+                    @Override
+                    public int compare(Graph<VLabel, ELabel>.Vertex x,
+                                       Graph<VLabel, ELabel>.Vertex y) {
+                        return order.compare(x.getLabel(), y.getLabel());
+                    }
+                });
+            _fringe.add(v);
+        }
+
+        @Override
+        Graph<VLabel, ELabel>.Vertex advance() {
+            if (_last != null) {
+                _cursor.reset(_last);
+                while (_cursor.next()) {
+                    Graph<VLabel, ELabel>.Vertex w = _cursor.targetVertex();
+                    if (!marked(w)) {
+                        _fringe.add(w);
+                    }
+                }
+            }
+            _last = _fringe.poll();
+            while (_last != null && marked(_last)) {
+                _last = _fringe.poll();
+            }
+            if (_last != null) {
+                mark(_last);
+            }
+            return _last;
+        }
+
+        /** Reached vertices, possibly repeated or already delivered. */
+        private final PriorityQueue<Graph<VLabel, ELabel>.Vertex> _fringe;
+
+        /** The last vertex delivered, whose successors are still to be
+         *  added to the fringe. */
+        private Graph<VLabel, ELabel>.Vertex _last;
+
+        /** Cursor for adding successors. */
+        private final EdgeCursor<VLabel, ELabel> _cursor;
+    }
+
+    /** The graph traversed. */
+    final Graph<VLabel, ELabel> _graph;
+
+    /** The next vertex to deliver, if already found. */
+    private Graph<VLabel, ELabel>.Vertex _next;
+
+    /** Which vertices (by index) have been reached. */
+    private boolean[] _marked;
+
+}
@@ -0,0 +1,76 @@
+package graph;
+
+/** A partition of the integers 0 .. N-1 into disjoint sets, supporting
+ *  union of sets and finding a set's representative in nearly constant
+ *  amortized time (union by rank, full path compression).
+ *  @author Conrad Shiao
+ */
+class UnionFind {
+
+    /** A partition of 0 .. N-1 into N singleton sets. */
+    UnionFind(int n) {
+        _parent = new int[n];
+        _rank = new byte[n];
+        for (int i = 0; i < n; i += 1) {
+            _parent[i] = i;
+        }
+        _sets = n;
+    }
+
+    /** Returns the representative of the set containing X. */
+    int find(int x) {
+        int root = x;
+        while (_parent[root] != root) {
+            root = _parent[root];
+        }
+        while (_parent[x] != root) {
+            int next = _parent[x];
+            _parent[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    /** Returns the representative of the set containing X without
+     *  compressing paths, so that any number of threads may call it at
+     *  once (while no thread calls find or union). */
+    int findReadOnly(int x) {
+        while (_parent[x] != x) {
+            x = _parent[x];
+        }
+        return x;
+    }
+
+    /** Merge the sets containing X and Y.  Returns true iff they were
+     *  different sets. */
+    boolean union(int x, int y) {
+        x = find(x);
+        y = find(y);
+        if (x == y) {
+            return false;
+        }
+        if (_rank[x] < _rank[y]) {
+            _parent[x] = y;
+        } else if (_rank[x] > _rank[y]) {
+            _parent[y] = x;
+        } else {
+            _parent[y] = x;
+            _rank[x] += 1;
+        }
+        _sets -= 1;
+        return true;
+    }
+
+    /** Returns the number of disjoint sets. */
+    int sets() {
+        return _sets;
+    }
+
+    /** Parent links: _parent[x] == x iff x represents its set. */
+    private final int[] _parent;
+    /** Upper bounds on the heights of the trees of representatives. */
+    private final byte[] _rank;
+    /** The current number of sets. */
+    private int _sets;
+
+}
@@ -0,0 +1,21 @@
+package graph;
+
+/** A vertex-centric computation for the Pregel engine.  Each vertex holds
+ *  a value of type VALUE.  In each superstep, compute is called (possibly
+ *  on many threads at once, but never twice at once for the same vertex)
+ *  for every vertex that has not voted to halt or that has been sent
+ *  messages of type MESSAGE in the previous superstep.  Messages sent in
+ *  one superstep are delivered in the next.
+ *  @author Conrad Shiao
+ */
+public interface VertexProgram<VLabel, ELabel, Value, Message> {
+
+    /** Returns the value of V before the first superstep. */
+    Value initialValue(Graph<VLabel, ELabel>.Vertex v);
+
+    /** Perform one superstep at the vertex CONTEXT.vertex(), which has
+     *  received MESSAGES (valid only during this call). */
+    void compute(Pregel<VLabel, ELabel, Value, Message>.Context context,
+                 Iterable<Message> messages);
+
+}
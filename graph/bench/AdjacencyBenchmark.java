@@ -0,0 +1,97 @@
+package graph.bench;
+
+import graph.Graph;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of adjacency queries: full scans of every vertex's
+ *  incident edges and neighbors, degree queries, and edge-membership
+ *  tests between random vertices.
+ *  @author Conrad Shiao
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdjacencyBenchmark {
+
+    /** Visit every outgoing edge of every vertex. */
+    @Benchmark
+    public void scanOutEdges(GraphState state, Blackhole sink) {
+        Graph<Node, Link> G = state.graph();
+        for (Graph<Node, Link>.Vertex v : G.vertices()) {
+            for (Graph<Node, Link>.Edge e : G.outEdges(v)) {
+                sink.consume(e);
+            }
+        }
+    }
+
+    /** Visit every incoming edge of every vertex. */
+    @Benchmark
+    public void scanInEdges(GraphState state, Blackhole sink) {
+        Graph<Node, Link> G = state.graph();
+        for (Graph<Node, Link>.Vertex v : G.vertices()) {
+            for (Graph<Node, Link>.Edge e : G.inEdges(v)) {
+                sink.consume(e);
+            }
+        }
+    }
+
+    /** Visit every successor of every vertex. */
+    @Benchmark
+    public void scanSuccessors(GraphState state, Blackhole sink) {
+        Graph<Node, Link> G = state.graph();
+        for (Graph<Node, Link>.Vertex v : G.vertices()) {
+            for (Graph<Node, Link>.Vertex w : G.successors(v)) {
+                sink.consume(w);
+            }
+        }
+    }
+
+    /** Visit every predecessor of every vertex. */
+    @Benchmark
+    public void scanPredecessors(GraphState state, Blackhole sink) {
+        Graph<Node, Link> G = state.graph();
+        for (Graph<Node, Link>.Vertex v : G.vertices()) {
+            for (Graph<Node, Link>.Vertex w : G.predecessors(v)) {
+                sink.consume(w);
+            }
+        }
+    }
+
+    /** Sum the in- and out-degrees of all vertices. */
+    @Benchmark
+    public long degrees(GraphState state) {
+        Graph<Node, Link> G = state.graph();
+        long total = 0;
+        for (Graph<Node, Link>.Vertex v : G.vertices()) {
+            total += G.outDegree(v) + G.inDegree(v);
+        }
+        return total;
+    }
+
+    /** Test for an edge between the next pair of query vertices. */
+    @Benchmark
+    public boolean containsEdge(GraphState state) {
+        _query += 1;
+        return state.graph().contains(state.queryStart(_query),
+                                      state.queryEnd(_query));
+    }
+
+    /** Number of the last query used. */
+    private int _query;
+
+}
@@ -0,0 +1,96 @@
+package graph.bench;
+
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** The graph shared by the benchmarks of one trial, generated from the
+ *  trial's parameters, along with a fixed, reproducible sequence of
+ *  random vertex pairs to use as queries.  Sizes and shapes may be
+ *  changed from the JMH command line, e.g.
+ *      -p vertices=100000 -p shape=grid -p directed=false
+ *  @author Conrad Shiao
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+
+    /** Approximate number of vertices. */
+    @Param({ "1000", "10000" })
+    public int vertices;
+
+    /** Approximate average number of edges incident on each vertex. */
+    @Param({ "8" })
+    public int degree;
+
+    /** The shape of graph (see Workload). */
+    @Param({ "random", "grid", "powerlaw" })
+    public String shape;
+
+    /** Whether the graph is directed. */
+    @Param({ "true", "false" })
+    public boolean directed;
+
+    /** Seed for all random choices. */
+    @Param({ "61" })
+    public long seed;
+
+    /** Number of distinct queries cycled through by queryStart and
+     *  queryEnd. */
+    static final int QUERIES = 256;
+
+    /** Generate the workload and graph for this trial. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        _workload = new Workload(shape, vertices, degree, seed);
+        _graph = _workload.build(directed, _vertices);
+        Random random = new Random(seed + 1);
+        _queries = new int[2 * QUERIES];
+        for (int k = 0; k < _queries.length; k += 1) {
+            _queries[k] = random.nextInt(_vertices.size());
+        }
+    }
+
+    /** Returns the recipe the graph was built from. */
+    Workload workload() {
+        return _workload;
+    }
+
+    /** Returns the graph. */
+    Graph<Node, Link> graph() {
+        return _graph;
+    }
+
+    /** Returns vertex #K of graph(), labeled workload().node(K). */
+    Graph<Node, Link>.Vertex vertex(int k) {
+        return _vertices.get(k);
+    }
+
+    /** Returns the start vertex of query #K (mod QUERIES). */
+    Graph<Node, Link>.Vertex queryStart(int k) {
+        return _vertices.get(_queries[2 * (k % QUERIES)]);
+    }
+
+    /** Returns the end vertex of query #K (mod QUERIES). */
+    Graph<Node, Link>.Vertex queryEnd(int k) {
+        return _vertices.get(_queries[2 * (k % QUERIES) + 1]);
+    }
+
+    /** The recipe for _graph. */
+    private Workload _workload;
+    /** The graph under test. */
+    private Graph<Node, Link> _graph;
+    /** The vertices of _graph, indexed by node number. */
+    private final List<Graph<Node, Link>.Vertex> _vertices =
+        new ArrayList<Graph<Node, Link>.Vertex>();
+    /** Alternating start and end node numbers of the queries. */
+    private int[] _queries;
+
+}
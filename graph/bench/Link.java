@@ -0,0 +1,28 @@
+package graph.bench;
+
+import graph.Weighted;
+
+/** A benchmark edge label with a fixed weight.
+ *  @author Conrad Shiao
+ */
+final class Link implements Weighted {
+
+    /** A link of weight WEIGHT. */
+    Link(double weight) {
+        _weight = weight;
+    }
+
+    @Override
+    public double weight() {
+        return _weight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f", _weight);
+    }
+
+    /** My weight. */
+    private final double _weight;
+
+}
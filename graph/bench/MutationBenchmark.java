@@ -0,0 +1,105 @@
+package graph.bench;
+
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of changing a Graph's structure: building a whole graph,
+ *  and steady-state churn in which edges or vertices are added to a
+ *  full-sized graph and removed again.  Each thread churns a private copy
+ *  of the trial's graph.
+ *  @author Conrad Shiao
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmark {
+
+    /** Make my private copy of the graph in SHARED. */
+    @Setup(Level.Trial)
+    public void setUp(GraphState shared) {
+        _graph = shared.workload().build(shared.directed, _vertices);
+        _random = new Random(shared.seed + 2);
+        _degree = shared.degree;
+    }
+
+    /** Add all vertices and edges of a graph to an empty one. */
+    @Benchmark
+    public Graph<Node, Link> build(GraphState shared) {
+        return shared.workload().build(shared.directed,
+            new ArrayList<Graph<Node, Link>.Vertex>(shared.vertices));
+    }
+
+    /** Add an edge between two random vertices, then remove it. */
+    @Benchmark
+    public Graph<Node, Link>.Edge addRemoveEdge() {
+        Graph<Node, Link>.Edge e =
+            _graph.add(randomVertex(), randomVertex(), LINK);
+        _graph.remove(e);
+        return e;
+    }
+
+    /** Add an edge between two random vertices, then remove all edges
+     *  between them. */
+    @Benchmark
+    public void addRemoveVertexPair() {
+        Graph<Node, Link>.Vertex u = randomVertex(), v = randomVertex();
+        _graph.add(u, v, LINK);
+        _graph.remove(u, v);
+    }
+
+    /** Add a vertex with edges to and from random vertices, then remove
+     *  it. */
+    @Benchmark
+    public Graph<Node, Link>.Vertex addRemoveVertex() {
+        Graph<Node, Link>.Vertex v = _graph.add(NODE);
+        for (int k = 0; k < _degree; k += 1) {
+            if (k % 2 == 0) {
+                _graph.add(v, randomVertex(), LINK);
+            } else {
+                _graph.add(randomVertex(), v, LINK);
+            }
+        }
+        _graph.remove(v);
+        return v;
+    }
+
+    /** Returns one of the original vertices of my graph at random. */
+    private Graph<Node, Link>.Vertex randomVertex() {
+        return _vertices.get(_random.nextInt(_vertices.size()));
+    }
+
+    /** Label for added vertices. */
+    private static final Node NODE = new Node(-1, 0.0, 0.0);
+    /** Label for added edges. */
+    private static final Link LINK = new Link(1.0);
+
+    /** My private copy of the graph. */
+    private Graph<Node, Link> _graph;
+    /** The original vertices of _graph. */
+    private final List<Graph<Node, Link>.Vertex> _vertices =
+        new ArrayList<Graph<Node, Link>.Vertex>();
+    /** Source of random vertices. */
+    private Random _random;
+    /** Number of edges to give an added vertex. */
+    private int _degree;
+
+}
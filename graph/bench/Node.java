@@ -0,0 +1,50 @@
+package graph.bench;
+
+import graph.Weightable;
+
+/** A benchmark vertex label: a point in the plane, numbered in order of
+ *  creation, that carries the weight shortestPath assigns to it.
+ *  @author Conrad Shiao
+ */
+final class Node implements Weightable {
+
+    /** A node numbered ID at (X, Y). */
+    Node(int id, double x, double y) {
+        _id = id;
+        _x = x;
+        _y = y;
+    }
+
+    /** Returns my number. */
+    int id() {
+        return _id;
+    }
+
+    /** Returns the straight-line distance from me to OTHER. */
+    double distance(Node other) {
+        return Math.hypot(_x - other._x, _y - other._y);
+    }
+
+    @Override
+    public double weight() {
+        return _weight;
+    }
+
+    @Override
+    public void setWeight(double w) {
+        _weight = w;
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(_id);
+    }
+
+    /** My number. */
+    private final int _id;
+    /** My coordinates. */
+    private final double _x, _y;
+    /** My current weight. */
+    private double _weight;
+
+}
@@ -0,0 +1,102 @@
+package graph.bench;
+
+import graph.Distancer;
+import graph.Graph;
+import graph.Graphs;
+import graph.Weighter;
+import graph.Weighting;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of both forms of Graphs.shortestPath between random pairs
+ *  of vertices, with either a straight-line (A*) or a zero (Dijkstra)
+ *  heuristic.
+ *  @author Conrad Shiao
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortestPathBenchmark {
+
+    /** The heuristic: "euclidean" or "zero". */
+    @Param({ "euclidean", "zero" })
+    public String heuristic;
+
+    /** Straight-line distance between nodes. */
+    static final Distancer<Node> EUCLIDEAN = new Distancer<Node>() {
+        @Override
+        public double dist(Node v0, Node v1) {
+            return v0.distance(v1);
+        }
+    };
+
+    /** Reads link weights. */
+    static final Weighting<Link> LINK_WEIGHTS = new Weighting<Link>() {
+        @Override
+        public double weight(Link x) {
+            return x.weight();
+        }
+    };
+
+    /** Choose the heuristic and make room for node weights in STATE. */
+    @Setup(Level.Trial)
+    public void setUp(GraphState state) {
+        _heuristic =
+            heuristic.equals("zero") ? Graphs.ZERO_DISTANCER : EUCLIDEAN;
+        final double[] weights = new double[state.workload().vertexSize()];
+        _nodeWeights = new Weighter<Node>() {
+            @Override
+            public double weight(Node x) {
+                return weights[x.id()];
+            }
+
+            @Override
+            public void setWeight(Node x, double v) {
+                weights[x.id()] = v;
+            }
+        };
+    }
+
+    /** The form of shortestPath that uses Weightable and Weighted
+     *  labels. */
+    @Benchmark
+    public List<Graph<Node, Link>.Edge> labelWeights(GraphState state) {
+        _query += 1;
+        return Graphs.shortestPath(state.graph(), state.queryStart(_query),
+                                   state.queryEnd(_query), _heuristic);
+    }
+
+    /** The form of shortestPath that uses a Weighter and Weighting. */
+    @Benchmark
+    public List<Graph<Node, Link>.Edge> weighters(GraphState state) {
+        _query += 1;
+        return Graphs.shortestPath(state.graph(), state.queryStart(_query),
+                                   state.queryEnd(_query), _heuristic,
+                                   _nodeWeights, LINK_WEIGHTS);
+    }
+
+    /** The heuristic in use. */
+    private Distancer<? super Node> _heuristic;
+    /** Vertex weights for the Weighter form of shortestPath. */
+    private Weighter<Node> _nodeWeights;
+    /** Number of the last query used. */
+    private int _query;
+
+}
@@ -0,0 +1,88 @@
+package graph.bench;
+
+import graph.Graph;
+import graph.Traversal;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of the three kinds of Traversal, each run over everything
+ *  reachable from a query vertex.
+ *  @author Conrad Shiao
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+
+    /** A traversal that counts the vertices it visits and does nothing
+     *  else. */
+    static class Counter extends Traversal<Node, Link> {
+        @Override
+        protected void visit(Graph<Node, Link>.Vertex v) {
+            _count += 1;
+        }
+
+        @Override
+        protected void postVisit(Graph<Node, Link>.Vertex v) {
+        }
+
+        /** Number of vertices visited. */
+        private int _count;
+    }
+
+    /** Orders nodes by number. */
+    private static final Comparator<Node> BY_ID = new Comparator<Node>() {
+        @Override
+        public int compare(Node x, Node y) {
+            return Integer.compare(x.id(), y.id());
+        }
+    };
+
+    /** A general traversal with a priority-ordered fringe. */
+    @Benchmark
+    public int ordered(GraphState state) {
+        Counter counter = new Counter();
+        counter.traverse(state.graph(), nextStart(state), BY_ID);
+        return counter._count;
+    }
+
+    /** A depth-first traversal. */
+    @Benchmark
+    public int depthFirst(GraphState state) {
+        Counter counter = new Counter();
+        counter.depthFirstTraverse(state.graph(), nextStart(state));
+        return counter._count;
+    }
+
+    /** A breadth-first traversal. */
+    @Benchmark
+    public int breadthFirst(GraphState state) {
+        Counter counter = new Counter();
+        counter.breadthFirstTraverse(state.graph(), nextStart(state));
+        return counter._count;
+    }
+
+    /** Returns the start vertex of the next query in STATE. */
+    private Graph<Node, Link>.Vertex nextStart(GraphState state) {
+        _query += 1;
+        return state.queryStart(_query);
+    }
+
+    /** Number of the last query used. */
+    private int _query;
+
+}
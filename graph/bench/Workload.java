@@ -0,0 +1,143 @@
+package graph.bench;
+
+import graph.DirectedGraph;
+import graph.Graph;
+import graph.UndirectedGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** A recipe for a benchmark graph: its nodes and a list of weighted edges
+ *  between them, generated in one of several shapes.  Keeping the recipe
+ *  separate from the Graph lets benchmarks time construction alone.
+ *  The shapes are
+ *     + "random": uniformly random end points (Erdos-Renyi style);
+ *     + "grid": a square lattice with edges between horizontal and
+ *       vertical neighbors (DEGREE is ignored);
+ *     + "powerlaw": preferential attachment (Barabasi-Albert style),
+ *       giving a few hubs of very high degree.
+ *  Nodes lie in the plane and every edge weighs at least the distance
+ *  between its end points, so straight-line distance is an admissible,
+ *  consistent heuristic for shortestPath.
+ *  @author Conrad Shiao
+ */
+final class Workload {
+
+    /** A workload of shape SHAPE with about VERTICES nodes, each with
+     *  about DEGREE incident edges, generated from SEED. */
+    Workload(String shape, int vertices, int degree, long seed) {
+        _random = new Random(seed);
+        switch (shape) {
+        case "random":
+            randomNodes(vertices);
+            for (int k = 0; k < vertices * degree / 2; k += 1) {
+                edge(_random.nextInt(vertices), _random.nextInt(vertices));
+            }
+            break;
+        case "grid":
+            int side = (int) Math.ceil(Math.sqrt(vertices));
+            _nodes = new Node[side * side];
+            for (int i = 0; i < _nodes.length; i += 1) {
+                _nodes[i] = new Node(i, i % side, i / side);
+            }
+            for (int i = 0; i < _nodes.length; i += 1) {
+                if (i % side + 1 < side) {
+                    edge(i, i + 1);
+                }
+                if (i + side < _nodes.length) {
+                    edge(i, i + side);
+                }
+            }
+            break;
+        case "powerlaw":
+            randomNodes(vertices);
+            int links = Math.max(1, degree / 2);
+            int[] ends = new int[2 * links * vertices];
+            int numEnds = 0;
+            for (int v = 1; v < vertices; v += 1) {
+                for (int k = 0; k < Math.min(v, links); k += 1) {
+                    int u = numEnds == 0 ? 0 : ends[_random.nextInt(numEnds)];
+                    edge(v, u);
+                    ends[numEnds++] = u;
+                    ends[numEnds++] = v;
+                }
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("unknown graph shape: "
+                                               + shape);
+        }
+    }
+
+    /** Returns the number of nodes. */
+    int vertexSize() {
+        return _nodes.length;
+    }
+
+    /** Returns the number of edges. */
+    int edgeSize() {
+        return _from.size();
+    }
+
+    /** Returns node #K. */
+    Node node(int k) {
+        return _nodes[k];
+    }
+
+    /** Returns the random-number source this workload was generated
+     *  from, for further choices (such as query end points) that should
+     *  be reproducible along with it. */
+    Random random() {
+        return _random;
+    }
+
+    /** Returns a new graph (directed iff DIRECTED) containing my nodes and
+     *  edges.  Vertex #k of the graph, labeled node(k), is placed at
+     *  position k of VERTICES, which is cleared first. */
+    Graph<Node, Link> build(boolean directed,
+                            List<Graph<Node, Link>.Vertex> vertices) {
+        Graph<Node, Link> G = directed ? new DirectedGraph<Node, Link>()
+            : new UndirectedGraph<Node, Link>();
+        vertices.clear();
+        for (Node node : _nodes) {
+            vertices.add(G.add(node));
+        }
+        for (int k = 0; k < _from.size(); k += 1) {
+            G.add(vertices.get(_from.get(k)), vertices.get(_to.get(k)),
+                  _labels.get(k));
+        }
+        return G;
+    }
+
+    /** Create N nodes at random positions in a square of side sqrt(N),
+     *  so that neighboring nodes are about unit distance apart. */
+    private void randomNodes(int n) {
+        double side = Math.sqrt(n);
+        _nodes = new Node[n];
+        for (int i = 0; i < n; i += 1) {
+            _nodes[i] = new Node(i, side * _random.nextDouble(),
+                                 side * _random.nextDouble());
+        }
+    }
+
+    /** Add an edge from node #U to node #V weighing between one and two
+     *  times the distance between them. */
+    private void edge(int u, int v) {
+        _from.add(u);
+        _to.add(v);
+        _labels.add(new Link(_nodes[u].distance(_nodes[v])
+                             * (1.0 + _random.nextDouble())));
+    }
+
+    /** Source of randomness. */
+    private final Random _random;
+    /** The nodes, indexed by number. */
+    private Node[] _nodes;
+    /** Numbers of the nodes each edge leaves and enters. */
+    private final ArrayList<Integer> _from = new ArrayList<Integer>(),
+        _to = new ArrayList<Integer>();
+    /** Edge labels, parallel to _from and _to. */
+    private final ArrayList<Link> _labels = new ArrayList<Link>();
+
+}